@@ -0,0 +1,34 @@
+#!/usr/bin/env bash
+# Runs the same k6 workload against the docker-compose service three times: on
+# Tomcat's platform-thread pool, on virtual threads, and on the reactive
+# WebFlux stack, and prints the latency summary of each run. Requires docker
+# with the compose plugin.
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+RESULTS=load-test/results
+mkdir -p "$RESULTS"
+
+run() {
+    local virtual=$1
+    local stack=$2
+    local label=$3
+    echo "==> ${label}: spring.threads.virtual.enabled=${virtual}, web stack ${stack}"
+    VIRTUAL_THREADS=$virtual WEB_STACK=$stack docker compose up -d --build --force-recreate
+    until curl -sf http://localhost:8080/actuator/health/readiness > /dev/null; do
+        sleep 1
+    done
+    docker run --rm -i --network host \
+        -v "$PWD/load-test:/load-test" \
+        grafana/k6 run -e BASE_URL=http://localhost:8080 -e RUN_ID="$4" \
+        --summary-export "/load-test/results/${label}.json" /load-test/transactions.js \
+        | tee "$RESULTS/${label}.txt" \
+        || echo "k6 reported crossed thresholds for ${label}"
+}
+
+run false servlet platform-threads 1
+run true servlet virtual-threads 2
+run false reactive reactive 3
+docker compose down
+
+echo "Summaries written to $RESULTS"
@@ -0,0 +1,70 @@
+// Bursty mixed workload for comparing request execution modes.
+// Run through load-test/compare.sh, or directly:
+//   k6 run -e BASE_URL=http://localhost:8080 -e RUN_ID=1 load-test/transactions.js
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+// Distinct id range per run, so repeated runs against a persistent store do not collide
+const ID_BASE = Number(__ENV.RUN_ID || Date.now() % 1000) * 100000000;
+const ROOTS = 100;
+
+export const options = {
+    discardResponseBodies: true,
+    scenarios: {
+        writes: {
+            executor: 'ramping-arrival-rate',
+            exec: 'putTransaction',
+            startRate: 200,
+            timeUnit: '1s',
+            preAllocatedVUs: 500,
+            maxVUs: 4000,
+            stages: [
+                { target: 200, duration: '20s' },
+                { target: 3000, duration: '5s' },
+                { target: 3000, duration: '20s' },
+                { target: 200, duration: '5s' },
+                { target: 200, duration: '10s' },
+            ],
+        },
+        reads: {
+            executor: 'constant-arrival-rate',
+            exec: 'getSum',
+            rate: 500,
+            timeUnit: '1s',
+            duration: '60s',
+            preAllocatedVUs: 200,
+            maxVUs: 2000,
+        },
+    },
+    thresholds: {
+        'http_req_failed': ['rate<0.01'],
+        'http_req_duration{scenario:writes}': ['p(99)<500'],
+        'http_req_duration{scenario:reads}': ['p(99)<200'],
+    },
+    summaryTrendStats: ['avg', 'med', 'p(95)', 'p(99)', 'max'],
+};
+
+const JSON_HEADERS = { headers: { 'Content-Type': 'application/json' } };
+
+export function setup() {
+    for (let i = 0; i < ROOTS; i++) {
+        http.put(`${BASE_URL}/transactions/${ID_BASE + i}`,
+            JSON.stringify({ amount: 1.0, type: 'ROOT' }), JSON_HEADERS);
+    }
+}
+
+export function putTransaction() {
+    // (iteration, VU) pairs never repeat and maxVUs < 10000, so every PUT creates a new id
+    const id = ID_BASE + ROOTS + __ITER * 10000 + __VU;
+    const parentId = ID_BASE + Math.floor(Math.random() * ROOTS);
+    const response = http.put(`${BASE_URL}/transactions/${id}`,
+        JSON.stringify({ amount: 10.0, type: 'LOAD', parentId: parentId }), JSON_HEADERS);
+    check(response, { 'created': (r) => r.status === 200 });
+}
+
+export function getSum() {
+    const id = ID_BASE + Math.floor(Math.random() * ROOTS);
+    const response = http.get(`${BASE_URL}/transactions/sum/${id}`);
+    check(response, { 'sum': (r) => r.status === 200 });
+}
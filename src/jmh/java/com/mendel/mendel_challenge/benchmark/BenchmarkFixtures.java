@@ -0,0 +1,93 @@
+package com.mendel.mendel_challenge.benchmark;
+
+import com.mendel.mendel_challenge.model.Transaction;
+import com.mendel.mendel_challenge.repository.AmountScale;
+import com.mendel.mendel_challenge.repository.ColumnarTransactionRepository;
+import com.mendel.mendel_challenge.repository.InMemoryTransactionRepository;
+import com.mendel.mendel_challenge.repository.ShardedTransactionRepository;
+import com.mendel.mendel_challenge.repository.TransactionRepository;
+import com.mendel.mendel_challenge.repository.TransactionTypeRegistry;
+
+/** Builds populated stores without Spring, so benchmarks measure only the code under test. */
+final class BenchmarkFixtures {
+
+    private BenchmarkFixtures() {
+    }
+
+    static TransactionRepository newRepository(String kind) {
+        return newRepository(kind, false);
+    }
+
+    /** The columnar store only allocates its minor-unit columns when the exact-amount mode is on. */
+    static TransactionRepository newRepository(String kind, boolean exactAmounts) {
+        return switch (kind) {
+            case "in-memory" -> new InMemoryTransactionRepository();
+            case "columnar" -> new ColumnarTransactionRepository(1024, exactAmounts);
+            case "sharded" -> new ShardedTransactionRepository(0);
+            default -> throw new IllegalArgumentException("Unknown repository: " + kind);
+        };
+    }
+
+    static double amountOf(long transactionId) {
+        return 1.0 + transactionId % 100;
+    }
+
+    static void populate(TransactionRepository repository, TransactionTypeRegistry typeRegistry,
+                         int size, TreeShape shape, int typeCardinality) {
+        populate(repository, typeRegistry, new AmountScale(false, 2), size, shape, typeCardinality);
+    }
+
+    /**
+     * Saves transactions 1..size in parent-first order with their root and
+     * depth, then sets every materialized subtree sum and node count in one
+     * backwards pass instead of walking the
+     * ancestors of each insert, which would be quadratic for a deep chain. In
+     * the exact-amount mode each transaction also carries its minor units and
+     * the exact subtree totals are set in the same pass.
+     */
+    static void populate(TransactionRepository repository, TransactionTypeRegistry typeRegistry,
+                         AmountScale amountScale, int size, TreeShape shape, int typeCardinality) {
+        int[] typeCodes = new int[typeCardinality];
+        for (int i = 0; i < typeCardinality; i++) {
+            typeCodes[i] = typeRegistry.resolve("TYPE_" + i);
+        }
+
+        boolean exact = amountScale.isEnabled();
+        double[] subtreeSums = new double[size + 1];
+        long[] subtreeUnits = exact ? new long[size + 1] : null;
+        int[] subtreeNodes = new int[size + 1];
+        int[] depths = new int[size + 1];
+        for (long id = 1; id <= size; id++) {
+            Long parentId = shape.parentOf(id);
+            Transaction transaction = new Transaction();
+            transaction.setTransactionId(id);
+            transaction.setAmount(amountOf(id));
+            if (exact) {
+                transaction.setAmountUnits(amountScale.toUnits(amountOf(id)));
+                subtreeUnits[(int) id] = transaction.getAmountUnits();
+            }
+            transaction.setTypeCode(typeCodes[(int) (id % typeCardinality)]);
+            transaction.setParentId(parentId);
+            transaction.setRootId(1L);
+            depths[(int) id] = parentId == null ? 0 : depths[parentId.intValue()] + 1;
+            transaction.setDepth(depths[(int) id]);
+            repository.save(transaction);
+            subtreeSums[(int) id] = transaction.getAmount();
+            subtreeNodes[(int) id] = 1;
+        }
+        for (int id = size; id > 1; id--) {
+            int parent = shape.parentOf(id).intValue();
+            subtreeSums[parent] += subtreeSums[id];
+            subtreeNodes[parent] += subtreeNodes[id];
+            if (exact) {
+                subtreeUnits[parent] += subtreeUnits[id];
+            }
+        }
+        for (long id = 1; id <= size; id++) {
+            repository.addToSubtree(id, subtreeSums[(int) id] - amountOf(id), subtreeNodes[(int) id] - 1);
+            if (exact) {
+                repository.addToSubtreeUnits(id, subtreeUnits[(int) id]);
+            }
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.mendel.mendel_challenge.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks once per thread count with allocation profiling and
+ * writes one JSON result file per run to {@code target/jmh}, so runs can be
+ * compared against a stored baseline.
+ *
+ * <p>Accepts the regular JMH command line (include regex, {@code -p}, {@code -f},
+ * ...) plus {@code --threads 1,4,16} to pick the thread counts.
+ */
+public final class BenchmarkRunner {
+
+    private static final String THREADS_OPTION = "--threads";
+    private static final Path RESULTS_DIRECTORY = Path.of("target", "jmh");
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws IOException, RunnerException, CommandLineOptionException {
+        int[] threadCounts = { 1, 4, 16 };
+        List<String> jmhArgs = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            if (THREADS_OPTION.equals(args[i]) && i + 1 < args.length) {
+                threadCounts = Arrays.stream(args[++i].split(",")).mapToInt(Integer::parseInt).toArray();
+            } else if (!args[i].isBlank()) {
+                jmhArgs.add(args[i]);
+            }
+        }
+        CommandLineOptions commandLine = new CommandLineOptions(jmhArgs.toArray(String[]::new));
+
+        Files.createDirectories(RESULTS_DIRECTORY);
+        for (int threads : threadCounts) {
+            ChainedOptionsBuilder options = new OptionsBuilder()
+                .parent(commandLine)
+                .threads(threads)
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result(RESULTS_DIRECTORY.resolve("results-" + threads + "-threads.json").toString());
+            if (commandLine.getIncludes().isEmpty()) {
+                options.include(BenchmarkRunner.class.getPackageName() + ".*");
+            }
+            new Runner(options.build()).run();
+        }
+    }
+}
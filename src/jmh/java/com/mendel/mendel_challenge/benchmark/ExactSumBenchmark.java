@@ -0,0 +1,108 @@
+package com.mendel.mendel_challenge.benchmark;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.unit.DataSize;
+
+import com.mendel.mendel_challenge.config.BackgroundThreads;
+import com.mendel.mendel_challenge.dto.GetSumTransactionResponse;
+import com.mendel.mendel_challenge.model.Transaction;
+import com.mendel.mendel_challenge.persistence.NoOpTransactionJournal;
+import com.mendel.mendel_challenge.repository.AmountScale;
+import com.mendel.mendel_challenge.repository.TransactionRepository;
+import com.mendel.mendel_challenge.repository.TransactionTypeRegistry;
+import com.mendel.mendel_challenge.service.SubtreeSumCalculator;
+import com.mendel.mendel_challenge.service.SumCache;
+import com.mendel.mendel_challenge.service.TransactionChangeFeed;
+import com.mendel.mendel_challenge.service.TransactionMetrics;
+import com.mendel.mendel_challenge.service.TransactionServiceImpl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Exact-amount mode against the double path on the same store: the
+ * {@code GET /transactions/sum/{id}} read through the service (materialized
+ * total, plus BigDecimal formatting in exact mode) and a full traversal from
+ * the root, which adds doubles in one case and overflow-checked minor units in
+ * the other. The exact mode should be no slower on either.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ExactSumBenchmark {
+
+    private static final long ROOT_ID = 1L;
+
+    @Param({ "in-memory", "columnar", "sharded" })
+    public String repository;
+
+    @Param({ "100000", "1000000" })
+    public int storeSize;
+
+    @Param({ "WIDE", "BALANCED" })
+    public TreeShape treeShape;
+
+    @Param({ "false", "true" })
+    public boolean exactAmounts;
+
+    private Transaction root;
+    private SubtreeSumCalculator subtreeSumCalculator;
+    private TransactionServiceImpl transactionService;
+
+    @Setup(Level.Trial)
+    public void populate() {
+        TransactionTypeRegistry typeRegistry = new TransactionTypeRegistry();
+        TransactionRepository transactionRepository = BenchmarkFixtures.newRepository(repository, exactAmounts);
+        AmountScale amountScale = new AmountScale(exactAmounts, 2);
+        BenchmarkFixtures.populate(transactionRepository, typeRegistry, amountScale, storeSize, treeShape, 4);
+        TransactionMetrics transactionMetrics =
+            new TransactionMetrics(new SimpleMeterRegistry(), transactionRepository, typeRegistry);
+        subtreeSumCalculator =
+            new SubtreeSumCalculator(transactionRepository, transactionMetrics, amountScale, false, 10_000, 0);
+        transactionService = new TransactionServiceImpl(transactionRepository, typeRegistry, amountScale,
+            subtreeSumCalculator, new SumCache(new SimpleMeterRegistry(), false, DataSize.ofMegabytes(64)),
+            new NoOpTransactionJournal(), new TransactionChangeFeed(new SimpleMeterRegistry(), false, 1024, 64),
+            transactionMetrics, new BackgroundThreads(false), event -> { },
+            false, false, 0);
+        root = transactionRepository.findById(ROOT_ID).orElseThrow();
+    }
+
+    @State(Scope.Thread)
+    public static class Keys {
+
+        private final SplittableRandom random = new SplittableRandom();
+
+        long existingId(ExactSumBenchmark benchmark) {
+            return 1 + random.nextInt(benchmark.storeSize);
+        }
+    }
+
+    @Benchmark
+    public GetSumTransactionResponse materializedSum(Keys keys) {
+        return transactionService.getSumByTransactionId(keys.existingId(this));
+    }
+
+    @Benchmark
+    public Object traversalSumFromRoot() {
+        if (exactAmounts) {
+            return subtreeSumCalculator.sumSubtreeExact(root);
+        }
+        return root.getAmount() + subtreeSumCalculator.sumDescendants(ROOT_ID);
+    }
+}
@@ -0,0 +1,143 @@
+package com.mendel.mendel_challenge.benchmark;
+
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.unit.DataSize;
+
+import com.mendel.mendel_challenge.config.BackgroundThreads;
+import com.mendel.mendel_challenge.dto.GetSumTransactionResponse;
+import com.mendel.mendel_challenge.dto.PutNewTransactionRequest;
+import com.mendel.mendel_challenge.dto.PutNewTransactionResponse;
+import com.mendel.mendel_challenge.persistence.NoOpTransactionJournal;
+import com.mendel.mendel_challenge.repository.AmountScale;
+import com.mendel.mendel_challenge.repository.TransactionRepository;
+import com.mendel.mendel_challenge.repository.TransactionTypeRegistry;
+import com.mendel.mendel_challenge.service.SubtreeSumCalculator;
+import com.mendel.mendel_challenge.service.SumCache;
+import com.mendel.mendel_challenge.service.TransactionChangeFeed;
+import com.mendel.mendel_challenge.service.TransactionMetrics;
+import com.mendel.mendel_challenge.service.TransactionServiceImpl;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.OutputStreamAppender;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Service throughput under three logging setups. {@code SYNC_PER_REQUEST} is the
+ * previous behaviour: a line per request written by the calling thread.
+ * {@code ASYNC_PER_REQUEST} keeps the line but hands it to the bounded async
+ * queue. {@code SUMMARY_ONLY} is the default configuration, where per-request
+ * lines are DEBUG and disabled. Output is discarded, so the numbers measure
+ * formatting, encoding and appender contention, not the terminal.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class LoggingBenchmark {
+
+    private static final long ROOT_ID = 1L;
+    private static final String PATTERN = "%d{yyyy-MM-dd'T'HH:mm:ss.SSSXXX} %5p --- [%t] %-40.40logger{39} : %m%n";
+
+    public enum LoggingMode { SYNC_PER_REQUEST, ASYNC_PER_REQUEST, SUMMARY_ONLY }
+
+    @Param({ "SYNC_PER_REQUEST", "ASYNC_PER_REQUEST", "SUMMARY_ONLY" })
+    public LoggingMode logging;
+
+    private TransactionRepository transactionRepository;
+    private TransactionServiceImpl transactionService;
+    private PutNewTransactionRequest request;
+    private AtomicLong nextId;
+    private Appender<ILoggingEvent> appender;
+
+    @Setup(Level.Trial)
+    public void configure() {
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        context.reset();
+
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern(PATTERN);
+        encoder.start();
+        OutputStreamAppender<ILoggingEvent> output = new OutputStreamAppender<>();
+        output.setContext(context);
+        output.setEncoder(encoder);
+        output.setOutputStream(OutputStream.nullOutputStream());
+        output.start();
+        appender = output;
+        if (logging != LoggingMode.SYNC_PER_REQUEST) {
+            AsyncAppender async = new AsyncAppender();
+            async.setContext(context);
+            async.setQueueSize(8192);
+            async.setNeverBlock(true);
+            async.setIncludeCallerData(false);
+            async.addAppender(output);
+            async.start();
+            appender = async;
+        }
+
+        ch.qos.logback.classic.Logger root = context.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME);
+        root.setLevel(ch.qos.logback.classic.Level.INFO);
+        root.addAppender(appender);
+        context.getLogger(TransactionServiceImpl.class).setLevel(logging == LoggingMode.SUMMARY_ONLY
+            ? ch.qos.logback.classic.Level.INFO
+            : ch.qos.logback.classic.Level.DEBUG);
+
+        TransactionTypeRegistry typeRegistry = new TransactionTypeRegistry();
+        transactionRepository = BenchmarkFixtures.newRepository("in-memory");
+        TransactionMetrics transactionMetrics =
+            new TransactionMetrics(new SimpleMeterRegistry(), transactionRepository, typeRegistry);
+        AmountScale amountScale = new AmountScale(false, 2);
+        transactionService = new TransactionServiceImpl(transactionRepository, typeRegistry, amountScale,
+            new SubtreeSumCalculator(transactionRepository, transactionMetrics, amountScale, false, 10_000, 0),
+            new SumCache(new SimpleMeterRegistry(), false, DataSize.ofMegabytes(64)),
+            new NoOpTransactionJournal(), new TransactionChangeFeed(new SimpleMeterRegistry(), false, 1024, 64),
+            transactionMetrics, new BackgroundThreads(false), event -> { }, false, false, 0);
+        request = new PutNewTransactionRequest(10.0, "BENCHMARK", ROOT_ID);
+    }
+
+    /** Starts every iteration from a store holding only the root, so memory stays flat. */
+    @Setup(Level.Iteration)
+    public void resetStore() {
+        transactionRepository.deleteAll();
+        transactionService.putNewTransaction(new PutNewTransactionRequest(1.0, "BENCHMARK", null), ROOT_ID);
+        nextId = new AtomicLong(ROOT_ID + 1);
+    }
+
+    @TearDown(Level.Trial)
+    public void stopAppender() {
+        appender.stop();
+    }
+
+    @Benchmark
+    public PutNewTransactionResponse putNewTransaction() {
+        return transactionService.putNewTransaction(request, nextId.getAndIncrement());
+    }
+
+    @Benchmark
+    public GetSumTransactionResponse getSum() {
+        return transactionService.getSumByTransactionId(ROOT_ID);
+    }
+}
@@ -0,0 +1,112 @@
+package com.mendel.mendel_challenge.benchmark;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.mendel.mendel_challenge.model.Transaction;
+import com.mendel.mendel_challenge.repository.TransactionRepository;
+import com.mendel.mendel_challenge.repository.TransactionTypeRegistry;
+
+/**
+ * Throughput of the repository operations behind each endpoint, over store
+ * size, tree shape and type cardinality. Keys are drawn uniformly at random
+ * per thread so concurrent runs do not walk the same entries in lockstep.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class RepositoryBenchmark {
+
+    @Param({ "in-memory", "columnar", "sharded" })
+    public String repository;
+
+    @Param({ "10000", "1000000" })
+    public int storeSize;
+
+    @Param({ "CHAIN", "WIDE", "BALANCED" })
+    public TreeShape treeShape;
+
+    @Param({ "4", "256" })
+    public int typeCardinality;
+
+    private TransactionRepository transactionRepository;
+    private int[] typeCodes;
+    private AtomicLong nextId;
+
+    @Setup(Level.Trial)
+    public void populate() {
+        TransactionTypeRegistry typeRegistry = new TransactionTypeRegistry();
+        transactionRepository = BenchmarkFixtures.newRepository(repository);
+        BenchmarkFixtures.populate(transactionRepository, typeRegistry, storeSize, treeShape, typeCardinality);
+        typeCodes = new int[typeCardinality];
+        for (int i = 0; i < typeCardinality; i++) {
+            typeCodes[i] = typeRegistry.find("TYPE_" + i);
+        }
+        nextId = new AtomicLong(storeSize + 1L);
+    }
+
+    @State(Scope.Thread)
+    public static class Keys {
+
+        private final SplittableRandom random = new SplittableRandom();
+
+        long existingId(RepositoryBenchmark benchmark) {
+            return 1 + random.nextInt(benchmark.storeSize);
+        }
+
+        int typeCode(RepositoryBenchmark benchmark) {
+            return benchmark.typeCodes[random.nextInt(benchmark.typeCodes.length)];
+        }
+    }
+
+    /** Appends new transactions under random existing parents; the store grows for the whole trial. */
+    @Benchmark
+    public Transaction save(Keys keys) {
+        Transaction transaction = new Transaction();
+        transaction.setTransactionId(nextId.getAndIncrement());
+        transaction.setAmount(1.0);
+        transaction.setTypeCode(keys.typeCode(this));
+        transaction.setParentId(keys.existingId(this));
+        transactionRepository.saveIfAbsent(transaction);
+        return transaction;
+    }
+
+    @Benchmark
+    public Optional<Transaction> findById(Keys keys) {
+        return transactionRepository.findById(keys.existingId(this));
+    }
+
+    @Benchmark
+    public List<Long> findIdsByType(Keys keys) {
+        return transactionRepository.findIdsByType(keys.typeCode(this));
+    }
+
+    @Benchmark
+    public List<Transaction> findByType(Keys keys) {
+        return transactionRepository.findByType(keys.typeCode(this));
+    }
+
+    @Benchmark
+    public List<Transaction> findByParentId(Keys keys) {
+        return transactionRepository.findByParentId(keys.existingId(this));
+    }
+}
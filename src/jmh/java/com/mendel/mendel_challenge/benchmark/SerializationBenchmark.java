@@ -0,0 +1,119 @@
+package com.mendel.mendel_challenge.benchmark;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.Banner;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.mendel.mendel_challenge.dto.GetSumTransactionResponse;
+import com.mendel.mendel_challenge.dto.GetTransactionsByTypeResponse;
+import com.mendel.mendel_challenge.dto.PutNewTransactionRequest;
+
+/**
+ * Encode and decode cost of the wire formats for the DTOs on the hot endpoints,
+ * using mappers built like the HTTP message converters: from Boot's
+ * Jackson2ObjectMapperBuilder, customized by JacksonAutoConfiguration and the
+ * {@code spring.jackson.*} properties. Payload sizes per format are logged
+ * once per trial; the GC profiler of {@link BenchmarkRunner} adds bytes
+ * allocated per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+
+    private static final Logger logger = LoggerFactory.getLogger(SerializationBenchmark.class);
+
+    @Param({ "JSON", "CBOR", "SMILE" })
+    public String format;
+
+    @Param({ "1000" })
+    public int idCount;
+
+    private ObjectMapper objectMapper;
+    private PutNewTransactionRequest putRequest;
+    private GetSumTransactionResponse sumResponse;
+    private GetTransactionsByTypeResponse idsResponse;
+    private byte[] encodedPutRequest;
+    private byte[] encodedIdsResponse;
+
+    @Setup(Level.Trial)
+    public void encode() throws IOException {
+        JsonFactory factory = switch (format) {
+            case "JSON" -> new JsonFactory();
+            case "CBOR" -> new CBORFactory();
+            case "SMILE" -> new SmileFactory();
+            default -> throw new IllegalArgumentException("Unknown format: " + format);
+        };
+        // application.properties selects the servlet stack, so only an argument can switch the server off
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(JacksonAutoConfiguration.class)
+                .bannerMode(Banner.Mode.OFF)
+                .logStartupInfo(false)
+                .run("--spring.main.web-application-type=none")) {
+            objectMapper = context.getBean(Jackson2ObjectMapperBuilder.class).factory(factory).build();
+        }
+
+        putRequest = new PutNewTransactionRequest(1234.56, "DEBIT", 1_000_000_123L);
+        sumResponse = new GetSumTransactionResponse(98765.4321);
+        List<Long> transactionIds = new ArrayList<>(idCount);
+        for (long id = 0; id < idCount; id++) {
+            transactionIds.add(1_000_000_000L + id * 7);
+        }
+        idsResponse = new GetTransactionsByTypeResponse(transactionIds);
+
+        encodedPutRequest = objectMapper.writeValueAsBytes(putRequest);
+        encodedIdsResponse = objectMapper.writeValueAsBytes(idsResponse);
+        if (logger.isInfoEnabled()) {
+            logger.info("{} payload bytes: put request={}, sum response={}, {} ids={}", format,
+                encodedPutRequest.length, objectMapper.writeValueAsBytes(sumResponse).length,
+                idCount, encodedIdsResponse.length);
+        }
+    }
+
+    @Benchmark
+    public PutNewTransactionRequest readPutRequest() throws IOException {
+        return objectMapper.readValue(encodedPutRequest, PutNewTransactionRequest.class);
+    }
+
+    @Benchmark
+    public byte[] writeSumResponse() throws IOException {
+        return objectMapper.writeValueAsBytes(sumResponse);
+    }
+
+    @Benchmark
+    public byte[] writeIdsResponse() throws IOException {
+        return objectMapper.writeValueAsBytes(idsResponse);
+    }
+
+    @Benchmark
+    public GetTransactionsByTypeResponse readIdsResponse() throws IOException {
+        return objectMapper.readValue(encodedIdsResponse, GetTransactionsByTypeResponse.class);
+    }
+}
@@ -0,0 +1,110 @@
+package com.mendel.mendel_challenge.benchmark;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.unit.DataSize;
+
+import com.mendel.mendel_challenge.config.BackgroundThreads;
+import com.mendel.mendel_challenge.dto.GetSumTransactionResponse;
+import com.mendel.mendel_challenge.persistence.NoOpTransactionJournal;
+import com.mendel.mendel_challenge.repository.AmountScale;
+import com.mendel.mendel_challenge.repository.TransactionRepository;
+import com.mendel.mendel_challenge.repository.TransactionTypeRegistry;
+import com.mendel.mendel_challenge.service.SubtreeSumCalculator;
+import com.mendel.mendel_challenge.service.SumCache;
+import com.mendel.mendel_challenge.service.TransactionChangeFeed;
+import com.mendel.mendel_challenge.service.TransactionMetrics;
+import com.mendel.mendel_challenge.service.TransactionServiceImpl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Latency of {@code GET /transactions/sum/{id}} through the service, which reads
+ * the materialized subtree sum, against a full descendant traversal from the
+ * root, sequential and parallel. The traversal is the worst case of the
+ * consistency check. With {@code sumCache} the service answers repeated ids
+ * from the sum cache; ids are uniform, so a store larger than the cache budget
+ * also measures misses and evictions.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class SumBenchmark {
+
+    private static final long ROOT_ID = 1L;
+
+    @Param({ "in-memory", "columnar", "sharded" })
+    public String repository;
+
+    @Param({ "10000", "1000000" })
+    public int storeSize;
+
+    @Param({ "CHAIN", "WIDE", "BALANCED" })
+    public TreeShape treeShape;
+
+    @Param({ "false", "true" })
+    public boolean parallel;
+
+    /** Recompute every sum by traversal, the always-computing baseline for the cache. */
+    @Param({ "false", "true" })
+    public boolean consistencyCheck;
+
+    @Param({ "false", "true" })
+    public boolean sumCache;
+
+    private SubtreeSumCalculator subtreeSumCalculator;
+    private TransactionServiceImpl transactionService;
+
+    @Setup(Level.Trial)
+    public void populate() {
+        TransactionTypeRegistry typeRegistry = new TransactionTypeRegistry();
+        TransactionRepository transactionRepository = BenchmarkFixtures.newRepository(repository);
+        BenchmarkFixtures.populate(transactionRepository, typeRegistry, storeSize, treeShape, 4);
+        TransactionMetrics transactionMetrics =
+            new TransactionMetrics(new SimpleMeterRegistry(), transactionRepository, typeRegistry);
+        AmountScale amountScale = new AmountScale(false, 2);
+        subtreeSumCalculator =
+            new SubtreeSumCalculator(transactionRepository, transactionMetrics, amountScale, parallel, 10_000, 0);
+        transactionService = new TransactionServiceImpl(transactionRepository, typeRegistry, amountScale,
+            subtreeSumCalculator,
+            new SumCache(new SimpleMeterRegistry(), sumCache, DataSize.ofMegabytes(64)), new NoOpTransactionJournal(),
+            new TransactionChangeFeed(new SimpleMeterRegistry(), false, 1024, 64), transactionMetrics,
+            new BackgroundThreads(false), event -> { }, consistencyCheck, false, 0);
+    }
+
+    @State(Scope.Thread)
+    public static class Keys {
+
+        private final SplittableRandom random = new SplittableRandom();
+
+        long existingId(SumBenchmark benchmark) {
+            return 1 + random.nextInt(benchmark.storeSize);
+        }
+    }
+
+    @Benchmark
+    public GetSumTransactionResponse materializedSum(Keys keys) {
+        return transactionService.getSumByTransactionId(keys.existingId(this));
+    }
+
+    @Benchmark
+    public double traversalSumFromRoot() {
+        return subtreeSumCalculator.sumDescendants(ROOT_ID);
+    }
+}
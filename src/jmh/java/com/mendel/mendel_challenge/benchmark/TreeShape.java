@@ -0,0 +1,22 @@
+package com.mendel.mendel_challenge.benchmark;
+
+/** Parent layout for benchmark stores with ids 1..N and transaction 1 as the single root. */
+public enum TreeShape {
+    /** Every transaction is the child of the previous one: depth N. */
+    CHAIN,
+    /** Every transaction is a direct child of the root: fan-out N - 1. */
+    WIDE,
+    /** Binary heap layout: depth log2(N). */
+    BALANCED;
+
+    public Long parentOf(long transactionId) {
+        if (transactionId == 1) {
+            return null;
+        }
+        return switch (this) {
+            case CHAIN -> transactionId - 1;
+            case WIDE -> 1L;
+            case BALANCED -> transactionId / 2;
+        };
+    }
+}
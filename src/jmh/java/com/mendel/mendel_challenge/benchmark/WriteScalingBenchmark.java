@@ -0,0 +1,149 @@
+package com.mendel.mendel_challenge.benchmark;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.unit.DataSize;
+
+import com.mendel.mendel_challenge.config.BackgroundThreads;
+import com.mendel.mendel_challenge.dto.PutNewTransactionRequest;
+import com.mendel.mendel_challenge.dto.PutNewTransactionResponse;
+import com.mendel.mendel_challenge.model.Transaction;
+import com.mendel.mendel_challenge.persistence.NoOpTransactionJournal;
+import com.mendel.mendel_challenge.repository.AmountScale;
+import com.mendel.mendel_challenge.repository.TransactionRepository;
+import com.mendel.mendel_challenge.repository.TransactionTypeRegistry;
+import com.mendel.mendel_challenge.service.SubtreeSumCalculator;
+import com.mendel.mendel_challenge.service.SumCache;
+import com.mendel.mendel_challenge.service.TransactionChangeFeed;
+import com.mendel.mendel_challenge.service.TransactionMetrics;
+import com.mendel.mendel_challenge.service.TransactionServiceImpl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Write throughput as writer threads are added, with every thread growing its
+ * own tree so that ideally no two writers touch the same data. Run it with
+ * {@code --threads 1,2,4,8,16,32,64}: a store that scales keeps throughput per
+ * thread roughly flat, a store behind one lock flattens out after a few
+ * threads.
+ *
+ * <p>Each iteration starts from an empty store; a thread plants a new root the
+ * first time it writes into it and then attaches every insert under a random
+ * node of its own tree.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class WriteScalingBenchmark {
+
+    private static final String TYPE = "BENCHMARK";
+
+    @Param({ "in-memory", "columnar", "sharded" })
+    public String repository;
+
+    /** Also maintain exact minor-unit totals, whose overflow-checked CAS replaces an adder per ancestor. */
+    @Param({ "false", "true" })
+    public boolean exactAmounts;
+
+    /** Also publish every insert to the change feed, whose sequence counter all writers share. */
+    @Param({ "false", "true" })
+    public boolean changeFeed;
+
+    private TransactionRepository transactionRepository;
+    private TransactionServiceImpl transactionService;
+    private int typeCode;
+    private final AtomicLong nextId = new AtomicLong(1);
+    /** Bumped when the store is emptied, so each writer knows to plant a new root. */
+    private volatile int generation;
+
+    @Setup(Level.Trial)
+    public void createStore() {
+        TransactionTypeRegistry typeRegistry = new TransactionTypeRegistry();
+        typeCode = typeRegistry.resolve(TYPE);
+        transactionRepository = BenchmarkFixtures.newRepository(repository, exactAmounts);
+        TransactionMetrics transactionMetrics =
+            new TransactionMetrics(new SimpleMeterRegistry(), transactionRepository, typeRegistry);
+        AmountScale amountScale = new AmountScale(exactAmounts, 2);
+        transactionService = new TransactionServiceImpl(transactionRepository, typeRegistry, amountScale,
+            new SubtreeSumCalculator(transactionRepository, transactionMetrics, amountScale, false, 10_000, 0),
+            new SumCache(new SimpleMeterRegistry(), false, DataSize.ofMegabytes(64)),
+            new NoOpTransactionJournal(), new TransactionChangeFeed(new SimpleMeterRegistry(), changeFeed, 65_536, 64),
+            transactionMetrics, new BackgroundThreads(false), event -> { }, false, false, 0);
+    }
+
+    @Setup(Level.Iteration)
+    public void resetStore() {
+        transactionRepository.deleteAll();
+        generation++;
+    }
+
+    @State(Scope.Thread)
+    public static class Writer {
+
+        private final SplittableRandom random = new SplittableRandom();
+        private long[] nodes = new long[1024];
+        private int size;
+        private int generation = -1;
+
+        /** Reserves a new id and returns a random node of this thread's tree to attach it to. */
+        long parentFor(WriteScalingBenchmark benchmark) {
+            if (generation != benchmark.generation) {
+                generation = benchmark.generation;
+                size = 0;
+                long rootId = benchmark.nextId.getAndIncrement();
+                benchmark.transactionService.putNewTransaction(new PutNewTransactionRequest(1.0, TYPE, null), rootId);
+                added(rootId);
+            }
+            return nodes[random.nextInt(size)];
+        }
+
+        void added(long transactionId) {
+            if (size == nodes.length) {
+                nodes = Arrays.copyOf(nodes, size * 2);
+            }
+            nodes[size++] = transactionId;
+        }
+    }
+
+    /** The full PUT path: parent lookup, insert and ancestor-sum propagation. */
+    @Benchmark
+    public PutNewTransactionResponse putNewTransaction(Writer writer) {
+        long parentId = writer.parentFor(this);
+        long transactionId = nextId.getAndIncrement();
+        PutNewTransactionResponse response =
+            transactionService.putNewTransaction(new PutNewTransactionRequest(1.0, TYPE, parentId), transactionId);
+        writer.added(transactionId);
+        return response;
+    }
+
+    /** The repository insert alone, without the ancestor walk. */
+    @Benchmark
+    public boolean saveIfAbsent(Writer writer) {
+        Transaction transaction = new Transaction();
+        transaction.setParentId(writer.parentFor(this));
+        transaction.setTransactionId(nextId.getAndIncrement());
+        transaction.setAmount(1.0);
+        transaction.setTypeCode(typeCode);
+        boolean saved = transactionRepository.saveIfAbsent(transaction);
+        writer.added(transaction.getTransactionId());
+        return saved;
+    }
+}
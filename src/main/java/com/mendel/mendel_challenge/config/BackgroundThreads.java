@@ -0,0 +1,34 @@
+package com.mendel.mendel_challenge.config;
+
+import java.util.concurrent.ThreadFactory;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Creates the application's own background threads. They follow the same
+ * switch as the request threads: virtual when
+ * {@code spring.threads.virtual.enabled} is set, daemon platform threads
+ * otherwise.
+ */
+@Component
+public class BackgroundThreads {
+
+    private final boolean virtual;
+
+    public BackgroundThreads(@Value("${spring.threads.virtual.enabled:false}") boolean virtual) {
+        this.virtual = virtual;
+    }
+
+    public ThreadFactory factory(String name) {
+        return virtual
+            ? Thread.ofVirtual().name(name).factory()
+            : Thread.ofPlatform().name(name).daemon().factory();
+    }
+
+    public Thread start(String name, Runnable task) {
+        Thread thread = factory(name).newThread(task);
+        thread.start();
+        return thread;
+    }
+}
@@ -0,0 +1,23 @@
+package com.mendel.mendel_challenge.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Serves the reactive stack from Netty. Tomcat stays on the classpath for the
+ * servlet stack, and Boot prefers it over Netty when picking a reactive
+ * server, so without this factory WebFlux would run on Tomcat's adapter.
+ * Server properties such as {@code server.port} still apply through Boot's
+ * factory customizers.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveServerConfig {
+
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+}
@@ -0,0 +1,168 @@
+package com.mendel.mendel_challenge.controller;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.mendel.mendel_challenge.dto.GetSumTransactionResponse;
+import com.mendel.mendel_challenge.dto.GetSumsTransactionRequest;
+import com.mendel.mendel_challenge.dto.GetSumsTransactionResponse;
+import com.mendel.mendel_challenge.dto.GetTransactionChangesResponse;
+import com.mendel.mendel_challenge.dto.GetTransactionResponse;
+import com.mendel.mendel_challenge.dto.GetTransactionTotalsResponse;
+import com.mendel.mendel_challenge.dto.GetTransactionTypesResponse;
+import com.mendel.mendel_challenge.dto.GetTransactionsByTypeResponse;
+import com.mendel.mendel_challenge.dto.PutNewTransactionRequest;
+import com.mendel.mendel_challenge.dto.PutNewTransactionResponse;
+import com.mendel.mendel_challenge.dto.SubtreeNode;
+import com.mendel.mendel_challenge.service.ReactiveTransactionService;
+
+import jakarta.validation.Valid;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * WebFlux counterpart of {@link TransactionController}, with the same paths,
+ * bodies and status codes. Active when the application runs on the reactive
+ * stack ({@code spring.main.web-application-type=reactive}).
+ */
+@RestController
+@RequestMapping("/transactions")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveTransactionController {
+
+    private static final String APPLICATION_NDJSON = "application/x-ndjson";
+    private static final int DEFAULT_PAGE_SIZE = 1000;
+    private static final String DEFAULT_SUBTREE_LIMIT = "1000000";
+    private static final String STREAM_PREFIX = "{\"transactionIds\":[";
+    private static final byte[] STREAM_SUFFIX = "]}".getBytes(StandardCharsets.US_ASCII);
+
+    private final ReactiveTransactionService transactionService;
+
+    public ReactiveTransactionController(ReactiveTransactionService transactionService) {
+        this.transactionService = transactionService;
+    }
+
+    @PutMapping("/{transactionId}")
+    public Mono<ResponseEntity<PutNewTransactionResponse>> putNewTransaction(
+        @PathVariable Long transactionId,
+        @Valid @RequestBody PutNewTransactionRequest request) {
+        return transactionService.putNewTransaction(request, transactionId).map(ResponseEntity::ok);
+    }
+
+    @PostMapping(value = "/bulk", consumes = { MediaType.APPLICATION_JSON_VALUE, APPLICATION_NDJSON },
+        produces = MediaType.APPLICATION_JSON_VALUE)
+    public Flux<DataBuffer> putNewTransactions(@RequestBody Flux<DataBuffer> body, ServerHttpResponse response) {
+        return transactionService.putNewTransactions(body, response.bufferFactory());
+    }
+
+    @GetMapping("/changes")
+    public Mono<ResponseEntity<GetTransactionChangesResponse>> getTransactionChanges(
+        @RequestParam(required = false) Long after,
+        @RequestParam(defaultValue = "1000") int limit,
+        @RequestParam(defaultValue = "0") long waitMs) {
+        return transactionService.getTransactionChanges(after, limit, waitMs).map(ResponseEntity::ok);
+    }
+
+    @GetMapping(value = "/changes/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<Object>> streamTransactionChanges(
+        @RequestParam(required = false) Long after,
+        @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        return transactionService.streamTransactionChanges(after != null ? after : lastEventId);
+    }
+
+    @GetMapping("/{transactionId}")
+    public Mono<ResponseEntity<GetTransactionResponse>> getTransaction(@PathVariable Long transactionId) {
+        return transactionService.getTransaction(transactionId).map(ResponseEntity::ok);
+    }
+
+    @GetMapping(value = "/{transactionId}/subtree", produces = APPLICATION_NDJSON)
+    public Flux<SubtreeNode> getSubtree(
+        @PathVariable Long transactionId,
+        @RequestParam(defaultValue = "dfs") String order,
+        @RequestParam(defaultValue = DEFAULT_SUBTREE_LIMIT) int limit,
+        @RequestParam(required = false) Integer maxDepth) {
+        return transactionService.getSubtree(transactionId, order, limit, maxDepth);
+    }
+
+    @GetMapping("/types")
+    public Mono<ResponseEntity<GetTransactionTypesResponse>> getTransactionTypes() {
+        return transactionService.getTransactionTypes().map(ResponseEntity::ok);
+    }
+
+    @GetMapping("/types/{type}")
+    public Mono<ResponseEntity<GetTransactionsByTypeResponse>> getTransactionsByType(
+        @PathVariable String type,
+        @RequestParam(required = false) Integer limit,
+        @RequestParam(required = false) String cursor) {
+        Mono<GetTransactionsByTypeResponse> response = limit == null && cursor == null
+            ? transactionService.getTransactionsByType(type)
+            : transactionService.getTransactionsByType(type, cursor, limit == null ? DEFAULT_PAGE_SIZE : limit);
+        return response.map(ResponseEntity::ok);
+    }
+
+    /**
+     * Same JSON shape as the unpaginated list, written one index page per
+     * buffer as the client consumes them. The opening bracket travels with the
+     * first page, so nothing is committed before the first page is read.
+     */
+    @GetMapping(value = "/types/{type}", params = "stream=true", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Flux<DataBuffer> streamTransactionsByType(@PathVariable String type, ServerHttpResponse response) {
+        DataBufferFactory bufferFactory = response.bufferFactory();
+        return transactionService.getTransactionIdPagesByType(type)
+            .index()
+            .map(page -> bufferFactory.wrap(encodePage(page.getT2(), page.getT1() == 0)))
+            .concatWith(Mono.fromSupplier(() -> bufferFactory.wrap(STREAM_SUFFIX)));
+    }
+
+    @GetMapping("/types/{type}/totals")
+    public Mono<ResponseEntity<GetTransactionTotalsResponse>> getTransactionTotals(
+        @PathVariable String type,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to) {
+        return transactionService.getTransactionTotals(type, from, to).map(ResponseEntity::ok);
+    }
+
+    @GetMapping("/sum/{transactionId}")
+    public Mono<ResponseEntity<GetSumTransactionResponse>> getSumByTransactionId(@PathVariable Long transactionId) {
+        return transactionService.getSumByTransactionId(transactionId).map(ResponseEntity::ok);
+    }
+
+    @PostMapping("/sum")
+    public Mono<ResponseEntity<GetSumsTransactionResponse>> getSumsByTransactionIds(
+        @Valid @RequestBody GetSumsTransactionRequest request) {
+        return transactionService.getSumsByTransactionIds(request.getTransactionIds()).map(ResponseEntity::ok);
+    }
+
+    private static byte[] encodePage(List<Long> transactionIds, boolean first) {
+        StringBuilder json = new StringBuilder(STREAM_PREFIX.length() + transactionIds.size() * 8);
+        if (first) {
+            json.append(STREAM_PREFIX);
+        }
+        for (int i = 0; i < transactionIds.size(); i++) {
+            if (!first || i > 0) {
+                json.append(',');
+            }
+            json.append(transactionIds.get(i));
+        }
+        return json.toString().getBytes(StandardCharsets.US_ASCII);
+    }
+}
@@ -1,35 +1,88 @@
 package com.mendel.mendel_challenge.controller;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.MimeTypeUtils;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import com.mendel.mendel_challenge.dto.GetSumTransactionResponse;
+import com.mendel.mendel_challenge.dto.GetSumsTransactionRequest;
+import com.mendel.mendel_challenge.dto.GetSumsTransactionResponse;
+import com.mendel.mendel_challenge.dto.GetTransactionChangesResponse;
+import com.mendel.mendel_challenge.dto.GetTransactionResponse;
+import com.mendel.mendel_challenge.dto.GetTransactionTotalsResponse;
+import com.mendel.mendel_challenge.dto.GetTransactionTypesResponse;
 import com.mendel.mendel_challenge.dto.GetTransactionsByTypeResponse;
 import com.mendel.mendel_challenge.dto.PutNewTransactionRequest;
 import com.mendel.mendel_challenge.dto.PutNewTransactionResponse;
+import com.mendel.mendel_challenge.dto.SubtreeNode;
+import com.mendel.mendel_challenge.service.BulkTransactionIngester;
+import com.mendel.mendel_challenge.service.TransactionChangeStreamer;
 import com.mendel.mendel_challenge.service.TransactionService;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 
 
 @RestController
 @RequestMapping("/transactions")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @Tag(name = "Transaction", description = "Transactions API")
 public class TransactionController {
 
+    private static final String APPLICATION_NDJSON = "application/x-ndjson";
+    private static final String APPLICATION_SMILE = "application/x-jackson-smile";
+    private static final MediaType SMILE = MediaType.parseMediaType(APPLICATION_SMILE);
+    private static final List<MediaType> STREAM_FORMATS =
+        List.of(MediaType.APPLICATION_JSON, MediaType.APPLICATION_CBOR, SMILE);
+    private static final int DEFAULT_PAGE_SIZE = 1000;
+    private static final String DEFAULT_SUBTREE_LIMIT = "1000000";
+    private static final JsonFactory CBOR_FACTORY = new CBORFactory();
+    private static final JsonFactory SMILE_FACTORY = new SmileFactory();
+
     private final TransactionService transactionService;
+    private final BulkTransactionIngester bulkTransactionIngester;
+    private final TransactionChangeStreamer changeStreamer;
+    private final ObjectMapper objectMapper;
 
-    public TransactionController(TransactionService transactionService) {
+    public TransactionController(TransactionService transactionService,
+                                 BulkTransactionIngester bulkTransactionIngester,
+                                 TransactionChangeStreamer changeStreamer,
+                                 ObjectMapper objectMapper) {
         this.transactionService = transactionService;
+        this.bulkTransactionIngester = bulkTransactionIngester;
+        this.changeStreamer = changeStreamer;
+        this.objectMapper = objectMapper;
     }
 
     @PutMapping("/{transactionId}")
@@ -47,17 +100,208 @@ public class TransactionController {
         return ResponseEntity.ok(response);
     }
 
+    @PostMapping(value = "/bulk", consumes = { MediaType.APPLICATION_JSON_VALUE, APPLICATION_NDJSON })
+    @Operation(
+        summary = "Bulk ingest transactions",
+        description = "Streams a JSON array or newline-delimited JSON objects ({transactionId, amount, type, parentId}) "
+            + "and returns a result per item. Parents may appear earlier in the same batch."
+    )
+    @ApiResponse(responseCode = "200", description = "Batch processed; see per-item results")
+    public void putNewTransactions(InputStream body, HttpServletResponse response) throws IOException {
+        // checked first: an unfinished recovery must answer 503 before the 200 is committed
+        transactionService.ensureRecovered();
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        bulkTransactionIngester.ingest(body, response.getOutputStream());
+    }
+
+    @GetMapping("/changes")
+    @Operation(
+        summary = "Get transaction changes",
+        description = "Returns the transactions inserted after the given sequence, oldest first. Without after it "
+            + "starts at the current head; with waitMs it waits that long for the first insert (long poll)"
+    )
+    @ApiResponse(responseCode = "200", description = "Successful operation")
+    @ApiResponse(responseCode = "400", description = "Invalid limit or wait")
+    @ApiResponse(responseCode = "404", description = "Change feed disabled")
+    @ApiResponse(responseCode = "410", description = "Changes after the sequence are no longer retained")
+    public ResponseEntity<GetTransactionChangesResponse> getTransactionChanges(
+        @Parameter(description = "Last sequence already seen", example = "4711")
+        @RequestParam(required = false) Long after,
+        @Parameter(description = "Maximum number of changes (1-10000)", example = "1000")
+        @RequestParam(defaultValue = "1000") int limit,
+        @Parameter(description = "Milliseconds to wait for the first change (0-60000)", example = "30000")
+        @RequestParam(defaultValue = "0") long waitMs) {
+        GetTransactionChangesResponse response = transactionService.getTransactionChanges(after, limit, waitMs);
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping(value = "/changes/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(
+        summary = "Stream transaction changes",
+        description = "Server-sent events: one 'transaction' event per insert, with its sequence as the event id. "
+            + "Resumes after the after parameter or the Last-Event-ID header; ends with an 'expired' event if the "
+            + "subscriber falls too far behind"
+    )
+    @ApiResponse(responseCode = "200", description = "Successful operation")
+    @ApiResponse(responseCode = "404", description = "Change feed disabled")
+    @ApiResponse(responseCode = "410", description = "Changes after the sequence are no longer retained")
+    @ApiResponse(responseCode = "503", description = "Too many change stream subscribers")
+    public SseEmitter streamTransactionChanges(
+        @Parameter(description = "Last sequence already seen", example = "4711")
+        @RequestParam(required = false) Long after,
+        @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        return changeStreamer.stream(after != null ? after : lastEventId);
+    }
+
+    @GetMapping("/{transactionId}")
+    @Operation(
+        summary = "Get transaction",
+        description = "Returns a transaction with its root, depth and subtree size"
+    )
+    @ApiResponse(responseCode = "200", description = "Successful operation")
+    @ApiResponse(responseCode = "404", description = "Transaction not found")
+    public ResponseEntity<GetTransactionResponse> getTransaction(
+        @Parameter(description = "Transaction ID", example = "1002", required = true)
+        @PathVariable Long transactionId) {
+        GetTransactionResponse response = transactionService.getTransaction(transactionId);
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/{transactionId}/subtree")
+    @Operation(
+        summary = "Export a transaction subtree",
+        description = "Streams the transaction and its descendants as newline-delimited JSON, depth first "
+            + "(pre-order) or breadth first, up to limit nodes and maxDepth levels below the transaction. The "
+            + "walk steps through the parent -> children index one node at a time, so server memory stays "
+            + "constant whatever the size of the subtree"
+    )
+    @ApiResponse(responseCode = "200", description = "Successful operation")
+    @ApiResponse(responseCode = "400", description = "Invalid order, limit or maxDepth")
+    @ApiResponse(responseCode = "404", description = "Transaction not found")
+    public void getSubtree(
+        @Parameter(description = "Transaction ID", example = "1000", required = true)
+        @PathVariable Long transactionId,
+        @Parameter(description = "Traversal order: dfs or bfs", example = "dfs")
+        @RequestParam(defaultValue = "dfs") String order,
+        @Parameter(description = "Maximum number of nodes (1-10000000)", example = "1000000")
+        @RequestParam(defaultValue = DEFAULT_SUBTREE_LIMIT) int limit,
+        @Parameter(description = "Deepest level to export below the transaction (0 = the transaction only); "
+            + "required for bfs, at most 64")
+        @RequestParam(required = false) Integer maxDepth,
+        HttpServletResponse response) throws IOException {
+        try (Stream<SubtreeNode> nodes = transactionService.streamSubtree(transactionId, order, limit, maxDepth)) {
+            response.setStatus(HttpServletResponse.SC_OK);
+            response.setContentType(APPLICATION_NDJSON);
+            try (JsonGenerator generator = objectMapper.createGenerator(response.getOutputStream())) {
+                // one object per line: the newline replaces the default space between root values
+                generator.setRootValueSeparator(null);
+                nodes.forEach(node -> {
+                    try {
+                        generator.writeObject(node);
+                        generator.writeRaw('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    @GetMapping("/types")
+    @Operation(
+        summary = "Get transaction types",
+        description = "Returns every transaction type that has stored transactions, with the number of transactions of that type"
+    )
+    @ApiResponse(responseCode = "200", description = "Successful operation")
+    public ResponseEntity<GetTransactionTypesResponse> getTransactionTypes() {
+        GetTransactionTypesResponse response = transactionService.getTransactionTypes();
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/types/{type}")
     @Operation(
         summary = "Get transactions by type",
-        description = "Returns a list of transaction IDs that match the specified type"
+        description = "Returns a list of transaction IDs that match the specified type. With limit or cursor "
+            + "the list is paginated and nextCursor, when present, fetches the following page"
     )
     @ApiResponse(responseCode = "200", description = "Successful operation")
-    @ApiResponse(responseCode = "404", description = "Type not found")
+    @ApiResponse(responseCode = "400", description = "Invalid limit or cursor")
     public ResponseEntity<GetTransactionsByTypeResponse> getTransactionsByType(
         @Parameter(description = "Transaction type", example = "DEBIT", required = true)
-        @PathVariable String type) {
-        GetTransactionsByTypeResponse response = transactionService.getTransactionsByType(type);
+        @PathVariable String type,
+        @Parameter(description = "Maximum number of IDs in the page (1-10000)", example = "1000")
+        @RequestParam(required = false) Integer limit,
+        @Parameter(description = "nextCursor of the previous page")
+        @RequestParam(required = false) String cursor) {
+        GetTransactionsByTypeResponse response = limit == null && cursor == null
+            ? transactionService.getTransactionsByType(type)
+            : transactionService.getTransactionsByType(type, cursor, limit == null ? DEFAULT_PAGE_SIZE : limit);
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping(value = "/types/{type}", params = "stream=true")
+    @Operation(
+        summary = "Stream transactions by type",
+        description = "Writes every transaction ID of the type straight to the response as it is read from the "
+            + "type index, in the same shape as the unpaginated list. Accepts JSON, CBOR and Smile"
+    )
+    @ApiResponse(responseCode = "200", description = "Successful operation")
+    public void streamTransactionsByType(
+        @Parameter(description = "Transaction type", example = "DEBIT", required = true)
+        @PathVariable String type,
+        @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+        HttpServletResponse response) throws IOException {
+        MediaType mediaType = negotiateStreamFormat(accept);
+        JsonFactory factory = objectMapper.getFactory();
+        if (mediaType.equals(MediaType.APPLICATION_CBOR)) {
+            factory = CBOR_FACTORY;
+        } else if (mediaType.equals(SMILE)) {
+            factory = SMILE_FACTORY;
+        }
+        String contentType = mediaType.toString();
+        // resolved first: an unfinished recovery must answer 503 before the 200 is committed
+        try (LongStream transactionIds = transactionService.streamTransactionIdsByType(type)) {
+            response.setStatus(HttpServletResponse.SC_OK);
+            response.setContentType(contentType);
+            try (JsonGenerator generator = factory.createGenerator(response.getOutputStream())) {
+                // a failure mid-stream leaves the body truncated instead of closing it as if complete
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT);
+                generator.writeStartObject();
+                generator.writeArrayFieldStart("transactionIds");
+                transactionIds.forEach(transactionId -> {
+                    try {
+                        generator.writeNumber(transactionId);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                generator.writeEndArray();
+                generator.writeEndObject();
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    @GetMapping("/types/{type}/totals")
+    @Operation(
+        summary = "Get transaction totals by type over a time range",
+        description = "Returns the number and amount total of the transactions of the type ingested between from "
+            + "(inclusive) and to (exclusive), at minute resolution. Defaults to the last hour"
+    )
+    @ApiResponse(responseCode = "200", description = "Successful operation")
+    @ApiResponse(responseCode = "400", description = "Invalid range")
+    public ResponseEntity<GetTransactionTotalsResponse> getTransactionTotals(
+        @Parameter(description = "Transaction type", example = "DEBIT", required = true)
+        @PathVariable String type,
+        @Parameter(description = "Start of the range, ISO-8601", example = "2026-10-18T09:00:00Z")
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+        @Parameter(description = "End of the range, ISO-8601", example = "2026-10-18T10:00:00Z")
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to) {
+        GetTransactionTotalsResponse response = transactionService.getTransactionTotals(type, from, to);
         return ResponseEntity.ok(response);
     }
 
@@ -74,4 +318,48 @@ public class TransactionController {
         GetSumTransactionResponse response = transactionService.getSumByTransactionId(transactionId);
         return ResponseEntity.ok(response);
     }
-}
\ No newline at end of file
+
+    @PostMapping("/sum")
+    @Operation(
+        summary = "Get sums of several transactions",
+        description = "Returns the sum of every known transaction in the list, by ID, and lists the unknown IDs "
+            + "instead of failing the whole batch"
+    )
+    @ApiResponse(responseCode = "200", description = "Successful operation")
+    @ApiResponse(responseCode = "400", description = "Empty or too large list of IDs")
+    public ResponseEntity<GetSumsTransactionResponse> getSumsByTransactionIds(
+        @Valid @RequestBody GetSumsTransactionRequest request) {
+        GetSumsTransactionResponse response = transactionService.getSumsByTransactionIds(request.getTransactionIds());
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Picks the streamed body's format from the Accept header the way the message
+     * converters would: most preferred media type first by quality, then by
+     * specificity, skipping types with q=0. JSON when nothing matches or the
+     * header is missing or malformed.
+     */
+    private static MediaType negotiateStreamFormat(String accept) {
+        if (accept == null) {
+            return MediaType.APPLICATION_JSON;
+        }
+        List<MediaType> accepted;
+        try {
+            accepted = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return MediaType.APPLICATION_JSON;
+        }
+        MimeTypeUtils.sortBySpecificity(accepted);
+        for (MediaType acceptedType : accepted) {
+            if (acceptedType.getQualityValue() == 0) {
+                continue;
+            }
+            for (MediaType format : STREAM_FORMATS) {
+                if (acceptedType.includes(format)) {
+                    return format;
+                }
+            }
+        }
+        return MediaType.APPLICATION_JSON;
+    }
+}
@@ -0,0 +1,69 @@
+package com.mendel.mendel_challenge.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+
+public class BulkTransactionItemRequest {
+
+    @Schema(description = "Transaction ID", example = "1010", required = true)
+    @NotNull(message = "Transaction ID is required")
+    private Long transactionId;
+
+    @Schema(description = "Transaction amount", example = "99.99", required = true)
+    @NotNull(message = "Amount is required")
+    @Positive(message = "Amount must be positive")
+    private Double amount;
+
+    @Schema(description = "Transaction type", example = "DEBIT", required = true)
+    @NotBlank(message = "Type is required")
+    @Size(max = 64, message = "Type must be at most 64 characters")
+    private String type;
+
+    @Schema(description = "Parent transaction ID, stored or earlier in the same batch", example = "1000", required = false)
+    private Long parentId;
+
+    public BulkTransactionItemRequest() {
+    }
+
+    public BulkTransactionItemRequest(Long transactionId, Double amount, String type, Long parentId) {
+        this.transactionId = transactionId;
+        this.amount = amount;
+        this.type = type;
+        this.parentId = parentId;
+    }
+
+    public Long getTransactionId() {
+        return transactionId;
+    }
+
+    public void setTransactionId(Long transactionId) {
+        this.transactionId = transactionId;
+    }
+
+    public Double getAmount() {
+        return amount;
+    }
+
+    public void setAmount(Double amount) {
+        this.amount = amount;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public Long getParentId() {
+        return parentId;
+    }
+
+    public void setParentId(Long parentId) {
+        this.parentId = parentId;
+    }
+}
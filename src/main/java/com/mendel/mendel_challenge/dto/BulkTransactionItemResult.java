@@ -0,0 +1,74 @@
+package com.mendel.mendel_challenge.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkTransactionItemResult {
+
+    public static final String STATUS_OK = "ok";
+    public static final String STATUS_ERROR = "error";
+
+    @Schema(description = "Zero-based position of the item in the request body", example = "0")
+    private long index;
+
+    @Schema(description = "Transaction ID of the item, if present", example = "1010")
+    private Long transactionId;
+
+    @Schema(description = "Outcome of the item", example = "ok")
+    private String status;
+
+    @Schema(description = "Reason the item was rejected", example = "Parent Transaction not found with id: 99999")
+    private String message;
+
+    public BulkTransactionItemResult() {
+    }
+
+    public BulkTransactionItemResult(long index, Long transactionId, String status, String message) {
+        this.index = index;
+        this.transactionId = transactionId;
+        this.status = status;
+        this.message = message;
+    }
+
+    public static BulkTransactionItemResult ok(Long transactionId) {
+        return new BulkTransactionItemResult(0, transactionId, STATUS_OK, null);
+    }
+
+    public static BulkTransactionItemResult error(Long transactionId, String message) {
+        return new BulkTransactionItemResult(0, transactionId, STATUS_ERROR, message);
+    }
+
+    public long getIndex() {
+        return index;
+    }
+
+    public void setIndex(long index) {
+        this.index = index;
+    }
+
+    public Long getTransactionId() {
+        return transactionId;
+    }
+
+    public void setTransactionId(Long transactionId) {
+        this.transactionId = transactionId;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+}
@@ -1,12 +1,20 @@
 package com.mendel.mendel_challenge.dto;
 
+import java.math.BigDecimal;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import io.swagger.v3.oas.annotations.media.Schema;
 
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class GetSumTransactionResponse {
     
     @Schema(description = "Sum of all child transactions amounts", example = "299.97")
     private Double sum;
 
+    @Schema(description = "Exact sum at the configured scale, only in the exact-amount mode", example = "299.97")
+    private BigDecimal exactSum;
+
     public GetSumTransactionResponse() {
     }
 
@@ -14,6 +22,11 @@ public class GetSumTransactionResponse {
         this.sum = sum;
     }
 
+    public GetSumTransactionResponse(Double sum, BigDecimal exactSum) {
+        this.sum = sum;
+        this.exactSum = exactSum;
+    }
+
     public Double getSum() {
         return sum;
     }
@@ -21,4 +34,12 @@ public class GetSumTransactionResponse {
     public void setSum(Double sum) {
         this.sum = sum;
     }
+
+    public BigDecimal getExactSum() {
+        return exactSum;
+    }
+
+    public void setExactSum(BigDecimal exactSum) {
+        this.exactSum = exactSum;
+    }
 }
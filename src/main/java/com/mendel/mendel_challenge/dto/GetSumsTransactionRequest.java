@@ -0,0 +1,31 @@
+package com.mendel.mendel_challenge.dto;
+
+import java.util.List;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+public class GetSumsTransactionRequest {
+
+    @Schema(description = "Transaction IDs to sum", example = "[1000, 1001, 2000]", required = true)
+    @NotEmpty(message = "transactionIds is required")
+    @Size(max = 10_000, message = "At most 10000 transactionIds per request")
+    private List<@NotNull(message = "transactionIds must not contain null") Long> transactionIds;
+
+    public GetSumsTransactionRequest() {
+    }
+
+    public GetSumsTransactionRequest(List<Long> transactionIds) {
+        this.transactionIds = transactionIds;
+    }
+
+    public List<Long> getTransactionIds() {
+        return transactionIds;
+    }
+
+    public void setTransactionIds(List<Long> transactionIds) {
+        this.transactionIds = transactionIds;
+    }
+}
@@ -0,0 +1,61 @@
+package com.mendel.mendel_challenge.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class GetSumsTransactionResponse {
+
+    @Schema(description = "Subtree sum of every known transaction, by ID", example = "{\"1000\": 299.97, \"2000\": 15.5}")
+    private Map<Long, Double> sums;
+
+    @Schema(description = "Exact sums at the configured scale, only in the exact-amount mode",
+        example = "{\"1000\": 299.97, \"2000\": 15.50}")
+    private Map<Long, BigDecimal> exactSums;
+
+    @Schema(description = "Requested IDs that do not exist", example = "[1001]")
+    private List<Long> unknownIds;
+
+    public GetSumsTransactionResponse() {
+    }
+
+    public GetSumsTransactionResponse(Map<Long, Double> sums, List<Long> unknownIds) {
+        this.sums = sums;
+        this.unknownIds = unknownIds;
+    }
+
+    public GetSumsTransactionResponse(Map<Long, Double> sums, Map<Long, BigDecimal> exactSums, List<Long> unknownIds) {
+        this.sums = sums;
+        this.exactSums = exactSums;
+        this.unknownIds = unknownIds;
+    }
+
+    public Map<Long, Double> getSums() {
+        return sums;
+    }
+
+    public void setSums(Map<Long, Double> sums) {
+        this.sums = sums;
+    }
+
+    public Map<Long, BigDecimal> getExactSums() {
+        return exactSums;
+    }
+
+    public void setExactSums(Map<Long, BigDecimal> exactSums) {
+        this.exactSums = exactSums;
+    }
+
+    public List<Long> getUnknownIds() {
+        return unknownIds;
+    }
+
+    public void setUnknownIds(List<Long> unknownIds) {
+        this.unknownIds = unknownIds;
+    }
+}
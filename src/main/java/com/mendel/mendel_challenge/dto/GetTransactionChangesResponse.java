@@ -0,0 +1,39 @@
+package com.mendel.mendel_challenge.dto;
+
+import java.util.List;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+public class GetTransactionChangesResponse {
+
+    @Schema(description = "Inserts after the requested sequence, oldest first")
+    private List<TransactionChange> changes;
+
+    @Schema(description = "Sequence to pass as 'after' on the next call; unchanged when nothing arrived",
+        example = "4711")
+    private long lastSequence;
+
+    public GetTransactionChangesResponse() {
+    }
+
+    public GetTransactionChangesResponse(List<TransactionChange> changes, long lastSequence) {
+        this.changes = changes;
+        this.lastSequence = lastSequence;
+    }
+
+    public List<TransactionChange> getChanges() {
+        return changes;
+    }
+
+    public void setChanges(List<TransactionChange> changes) {
+        this.changes = changes;
+    }
+
+    public long getLastSequence() {
+        return lastSequence;
+    }
+
+    public void setLastSequence(long lastSequence) {
+        this.lastSequence = lastSequence;
+    }
+}
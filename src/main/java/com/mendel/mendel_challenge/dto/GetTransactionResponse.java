@@ -0,0 +1,114 @@
+package com.mendel.mendel_challenge.dto;
+
+import java.time.Instant;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class GetTransactionResponse {
+
+    @Schema(description = "Transaction ID", example = "1002")
+    private Long transactionId;
+
+    @Schema(description = "Transaction amount", example = "250.75")
+    private Double amount;
+
+    @Schema(description = "Normalized transaction type", example = "DEBIT")
+    private String type;
+
+    @Schema(description = "Parent transaction ID, absent for a root", example = "1000")
+    private Long parentId;
+
+    @Schema(description = "ID of the root of the transaction's tree", example = "1000")
+    private Long rootId;
+
+    @Schema(description = "Number of ancestors, 0 for a root", example = "1")
+    private int depth;
+
+    @Schema(description = "Nodes in the transaction's subtree, itself included", example = "3")
+    private long subtreeSize;
+
+    @Schema(description = "Ingest time, absent when unknown", example = "2026-10-18T09:15:30Z")
+    private Instant createdAt;
+
+    public GetTransactionResponse() {
+    }
+
+    public GetTransactionResponse(Long transactionId, Double amount, String type, Long parentId, Long rootId,
+                                  int depth, long subtreeSize, Instant createdAt) {
+        this.transactionId = transactionId;
+        this.amount = amount;
+        this.type = type;
+        this.parentId = parentId;
+        this.rootId = rootId;
+        this.depth = depth;
+        this.subtreeSize = subtreeSize;
+        this.createdAt = createdAt;
+    }
+
+    public Long getTransactionId() {
+        return transactionId;
+    }
+
+    public void setTransactionId(Long transactionId) {
+        this.transactionId = transactionId;
+    }
+
+    public Double getAmount() {
+        return amount;
+    }
+
+    public void setAmount(Double amount) {
+        this.amount = amount;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public Long getParentId() {
+        return parentId;
+    }
+
+    public void setParentId(Long parentId) {
+        this.parentId = parentId;
+    }
+
+    public Long getRootId() {
+        return rootId;
+    }
+
+    public void setRootId(Long rootId) {
+        this.rootId = rootId;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public void setDepth(int depth) {
+        this.depth = depth;
+    }
+
+    public long getSubtreeSize() {
+        return subtreeSize;
+    }
+
+    public void setSubtreeSize(long subtreeSize) {
+        this.subtreeSize = subtreeSize;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -0,0 +1,74 @@
+package com.mendel.mendel_challenge.dto;
+
+import java.time.Instant;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+public class GetTransactionTotalsResponse {
+
+    @Schema(description = "Normalized transaction type", example = "DEBIT")
+    private String type;
+
+    @Schema(description = "Start of the range (inclusive), truncated to the minute", example = "2026-10-18T09:00:00Z")
+    private Instant from;
+
+    @Schema(description = "End of the range (exclusive), truncated to the minute", example = "2026-10-18T10:00:00Z")
+    private Instant to;
+
+    @Schema(description = "Number of transactions of the type ingested in the range", example = "42")
+    private long count;
+
+    @Schema(description = "Sum of their amounts", example = "4199.58")
+    private double sum;
+
+    public GetTransactionTotalsResponse() {
+    }
+
+    public GetTransactionTotalsResponse(String type, Instant from, Instant to, long count, double sum) {
+        this.type = type;
+        this.from = from;
+        this.to = to;
+        this.count = count;
+        this.sum = sum;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public Instant getFrom() {
+        return from;
+    }
+
+    public void setFrom(Instant from) {
+        this.from = from;
+    }
+
+    public Instant getTo() {
+        return to;
+    }
+
+    public void setTo(Instant to) {
+        this.to = to;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public void setCount(long count) {
+        this.count = count;
+    }
+
+    public double getSum() {
+        return sum;
+    }
+
+    public void setSum(double sum) {
+        this.sum = sum;
+    }
+}
@@ -0,0 +1,26 @@
+package com.mendel.mendel_challenge.dto;
+
+import java.util.List;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+public class GetTransactionTypesResponse {
+
+    @Schema(description = "Known transaction types with their transaction counts")
+    private List<TransactionTypeCount> types;
+
+    public GetTransactionTypesResponse() {
+    }
+
+    public GetTransactionTypesResponse(List<TransactionTypeCount> types) {
+        this.types = types;
+    }
+
+    public List<TransactionTypeCount> getTypes() {
+        return types;
+    }
+
+    public void setTypes(List<TransactionTypeCount> types) {
+        this.types = types;
+    }
+}
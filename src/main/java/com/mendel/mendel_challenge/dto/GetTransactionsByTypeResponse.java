@@ -2,13 +2,20 @@ package com.mendel.mendel_challenge.dto;
 
 import java.util.List;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import io.swagger.v3.oas.annotations.media.Schema;
 
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class GetTransactionsByTypeResponse {
     
     @Schema(description = "List of transaction IDs", example = "[1001, 1002, 1003]")
     private List<Long> transactionIds;
 
+    @Schema(description = "Opaque token for the next page; absent on the last page and when not paginating",
+        example = "AAAAAQAAAAAAAAPp")
+    private String nextCursor;
+
     public GetTransactionsByTypeResponse() {
     }
 
@@ -16,6 +23,11 @@ public class GetTransactionsByTypeResponse {
         this.transactionIds = transactionIds;
     }
 
+    public GetTransactionsByTypeResponse(List<Long> transactionIds, String nextCursor) {
+        this.transactionIds = transactionIds;
+        this.nextCursor = nextCursor;
+    }
+
     public List<Long> getTransactionIds() {
         return transactionIds;
     }
@@ -23,4 +35,12 @@ public class GetTransactionsByTypeResponse {
     public void setTransactionIds(List<Long> transactionIds) {
         this.transactionIds = transactionIds;
     }
-}
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
\ No newline at end of file
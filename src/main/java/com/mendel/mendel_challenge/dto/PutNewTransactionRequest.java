@@ -4,6 +4,7 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
 
 public class PutNewTransactionRequest {
     
@@ -14,6 +15,7 @@ public class PutNewTransactionRequest {
     
     @Schema(description = "Transaction type", example = "DEBIT", required = true)
     @NotBlank(message = "Type is required")
+    @Size(max = 64, message = "Type must be at most 64 characters")
     private String type;
     
     @Schema(description = "Parent transaction ID", example = "1000", required = false)
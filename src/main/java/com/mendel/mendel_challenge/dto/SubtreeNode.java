@@ -0,0 +1,75 @@
+package com.mendel.mendel_challenge.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class SubtreeNode {
+
+    @Schema(description = "Transaction ID", example = "1002")
+    private Long transactionId;
+
+    @Schema(description = "Transaction amount", example = "250.75")
+    private Double amount;
+
+    @Schema(description = "Normalized transaction type", example = "DEBIT")
+    private String type;
+
+    @Schema(description = "Parent transaction ID, absent for a root", example = "1000")
+    private Long parentId;
+
+    @Schema(description = "Levels below the exported transaction, 0 for the transaction itself", example = "1")
+    private int depth;
+
+    public SubtreeNode() {
+    }
+
+    public SubtreeNode(Long transactionId, Double amount, String type, Long parentId, int depth) {
+        this.transactionId = transactionId;
+        this.amount = amount;
+        this.type = type;
+        this.parentId = parentId;
+        this.depth = depth;
+    }
+
+    public Long getTransactionId() {
+        return transactionId;
+    }
+
+    public void setTransactionId(Long transactionId) {
+        this.transactionId = transactionId;
+    }
+
+    public Double getAmount() {
+        return amount;
+    }
+
+    public void setAmount(Double amount) {
+        this.amount = amount;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public Long getParentId() {
+        return parentId;
+    }
+
+    public void setParentId(Long parentId) {
+        this.parentId = parentId;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public void setDepth(int depth) {
+        this.depth = depth;
+    }
+}
@@ -0,0 +1,90 @@
+package com.mendel.mendel_challenge.dto;
+
+import java.time.Instant;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TransactionChange {
+
+    @Schema(description = "Position of the insert in the change feed", example = "4711")
+    private long sequence;
+
+    @Schema(description = "Transaction ID", example = "1002")
+    private Long transactionId;
+
+    @Schema(description = "Transaction amount", example = "250.75")
+    private Double amount;
+
+    @Schema(description = "Normalized transaction type", example = "DEBIT")
+    private String type;
+
+    @Schema(description = "Parent transaction ID, absent for a root", example = "1000")
+    private Long parentId;
+
+    @Schema(description = "Ingest time", example = "2026-10-18T09:15:30Z")
+    private Instant createdAt;
+
+    public TransactionChange() {
+    }
+
+    public TransactionChange(long sequence, Long transactionId, Double amount, String type, Long parentId,
+                             Instant createdAt) {
+        this.sequence = sequence;
+        this.transactionId = transactionId;
+        this.amount = amount;
+        this.type = type;
+        this.parentId = parentId;
+        this.createdAt = createdAt;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public void setSequence(long sequence) {
+        this.sequence = sequence;
+    }
+
+    public Long getTransactionId() {
+        return transactionId;
+    }
+
+    public void setTransactionId(Long transactionId) {
+        this.transactionId = transactionId;
+    }
+
+    public Double getAmount() {
+        return amount;
+    }
+
+    public void setAmount(Double amount) {
+        this.amount = amount;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public Long getParentId() {
+        return parentId;
+    }
+
+    public void setParentId(Long parentId) {
+        this.parentId = parentId;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -0,0 +1,36 @@
+package com.mendel.mendel_challenge.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+public class TransactionTypeCount {
+
+    @Schema(description = "Normalized transaction type", example = "DEBIT")
+    private String type;
+
+    @Schema(description = "Number of stored transactions with this type", example = "42")
+    private long count;
+
+    public TransactionTypeCount() {
+    }
+
+    public TransactionTypeCount(String type, long count) {
+        this.type = type;
+        this.count = count;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public void setCount(long count) {
+        this.count = count;
+    }
+}
@@ -0,0 +1,8 @@
+package com.mendel.mendel_challenge.exception;
+
+public class BadRequestException extends RuntimeException {
+
+    public BadRequestException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,8 @@
+package com.mendel.mendel_challenge.exception;
+
+public class ChangeFeedExpiredException extends RuntimeException {
+
+    public ChangeFeedExpiredException(String message) {
+        super(message);
+    }
+}
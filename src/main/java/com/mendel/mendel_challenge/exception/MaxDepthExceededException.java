@@ -0,0 +1,8 @@
+package com.mendel.mendel_challenge.exception;
+
+public class MaxDepthExceededException extends RuntimeException {
+
+    public MaxDepthExceededException(Long parentId, int maxDepth) {
+        super(String.format("Parent Transaction with id %d is already at the maximum depth of %d", parentId, maxDepth));
+    }
+}
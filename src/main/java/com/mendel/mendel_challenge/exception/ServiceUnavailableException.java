@@ -0,0 +1,8 @@
+package com.mendel.mendel_challenge.exception;
+
+public class ServiceUnavailableException extends RuntimeException {
+
+    public ServiceUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -4,8 +4,12 @@ package com.mendel.mendel_challenge.model;
 public class Transaction {
     private Long transactionId;
     private Double amount;
-    private String type;
+    private long amountUnits;
+    private int typeCode;
     private Long parentId;
+    private Long rootId;
+    private int depth;
+    private long createdAt;
 
     public Long getTransactionId() {
         return transactionId;
@@ -23,12 +27,21 @@ public class Transaction {
         this.amount = amount;
     }
 
-    public String getType() {
-        return type;
+    /** The amount in minor units, set in the exact-amount mode and 0 otherwise. */
+    public long getAmountUnits() {
+        return amountUnits;
     }
 
-    public void setType(String type) {
-        this.type = type;
+    public void setAmountUnits(long amountUnits) {
+        this.amountUnits = amountUnits;
+    }
+
+    public int getTypeCode() {
+        return typeCode;
+    }
+
+    public void setTypeCode(int typeCode) {
+        this.typeCode = typeCode;
     }
 
     public Long getParentId() {
@@ -38,4 +51,31 @@ public class Transaction {
     public void setParentId(Long parentId) {
         this.parentId = parentId;
     }
+
+    /** Id of the root of this transaction's tree; its own id for a root. */
+    public Long getRootId() {
+        return rootId;
+    }
+
+    public void setRootId(Long rootId) {
+        this.rootId = rootId;
+    }
+
+    /** Number of ancestors: 0 for a root. */
+    public int getDepth() {
+        return depth;
+    }
+
+    public void setDepth(int depth) {
+        this.depth = depth;
+    }
+
+    /** Ingest time in epoch milliseconds, or 0 when unknown. */
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(long createdAt) {
+        this.createdAt = createdAt;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,10 @@
+package com.mendel.mendel_challenge.persistence;
+
+public enum DurabilityMode {
+    /** Every append is written and fsynced before the request returns. */
+    SYNC,
+    /** Appends are group-committed: one fsync covers every record queued meanwhile, callers wait for it. */
+    BATCH,
+    /** Appends are queued and the request returns immediately; the log is fsynced periodically. */
+    ASYNC
+}
@@ -0,0 +1,420 @@
+package com.mendel.mendel_challenge.persistence;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.mendel.mendel_challenge.config.BackgroundThreads;
+import com.mendel.mendel_challenge.model.Transaction;
+import com.mendel.mendel_challenge.repository.AmountScale;
+import com.mendel.mendel_challenge.repository.TransactionRepository;
+import com.mendel.mendel_challenge.repository.TransactionTypeRegistry;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Append-only write-ahead log plus periodic compacted snapshots.
+ *
+ * <p>Files live in one directory and carry a generation number. The service
+ * appends to {@code wal-<g>.log}. A snapshot rotates the log to {@code g + 1},
+ * writes the whole store to {@code snapshot-<g + 1>.bin} and then deletes
+ * everything older. Records are logged before they are stored, and the
+ * rotation waits for logged records to be stored, so a snapshot never misses a
+ * record whose log it deletes. Recovery memory-maps the newest snapshot and loads it
+ * straight into the repository in parallel, then replays the logs from its
+ * generation onwards. A record may be both in the snapshot and in the newest
+ * log, which is why replay consumers skip ids they already have.
+ */
+@Component
+@ConditionalOnProperty(name = "transactions.persistence.enabled", havingValue = "true")
+public class FileTransactionJournal implements TransactionJournal {
+
+    private static final Logger logger = LoggerFactory.getLogger(FileTransactionJournal.class);
+    private static final Pattern FILE_NAME = Pattern.compile("(wal|snapshot)-(\\d+)\\.(log|bin)");
+
+    private final TransactionRepository transactionRepository;
+    private final TransactionTypeRegistry transactionTypeRegistry;
+    private final AmountScale amountScale;
+    private final BackgroundThreads backgroundThreads;
+    private final Path directory;
+    private final DurabilityMode durabilityMode;
+    private final int maxBatchSize;
+    private final long asyncFlushIntervalMillis;
+    private final long snapshotIntervalSeconds;
+    private final int recoveryParallelism;
+
+    private final ReentrantLock channelLock = new ReentrantLock();
+    private final ReentrantReadWriteLock snapshotGate = new ReentrantReadWriteLock();
+    private final BlockingQueue<PendingAppend> pending;
+    private FileChannel channel;
+    private long generation;
+
+    private volatile boolean running;
+    private Thread writer;
+    private volatile ScheduledExecutorService snapshotScheduler;
+
+    public FileTransactionJournal(TransactionRepository transactionRepository,
+                                  TransactionTypeRegistry transactionTypeRegistry,
+                                  AmountScale amountScale,
+                                  BackgroundThreads backgroundThreads,
+                                  @Value("${transactions.persistence.directory:./data}") Path directory,
+                                  @Value("${transactions.persistence.durability:batch}") DurabilityMode durabilityMode,
+                                  @Value("${transactions.persistence.batch.max-size:1024}") int maxBatchSize,
+                                  @Value("${transactions.persistence.async.flush-interval-ms:100}") long asyncFlushIntervalMillis,
+                                  @Value("${transactions.persistence.queue-capacity:65536}") int queueCapacity,
+                                  @Value("${transactions.persistence.snapshot.interval-seconds:300}") long snapshotIntervalSeconds,
+                                  @Value("${transactions.persistence.recovery.parallelism:0}") int recoveryParallelism) {
+        this.transactionRepository = transactionRepository;
+        this.transactionTypeRegistry = transactionTypeRegistry;
+        this.amountScale = amountScale;
+        this.backgroundThreads = backgroundThreads;
+        this.directory = directory;
+        this.durabilityMode = durabilityMode;
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.asyncFlushIntervalMillis = asyncFlushIntervalMillis;
+        this.snapshotIntervalSeconds = snapshotIntervalSeconds;
+        this.recoveryParallelism = recoveryParallelism > 0
+            ? recoveryParallelism
+            : Runtime.getRuntime().availableProcessors();
+        this.pending = new LinkedBlockingQueue<>(queueCapacity);
+    }
+
+    @PostConstruct
+    void start() throws IOException {
+        Files.createDirectories(directory);
+        generation = latestGeneration("wal", "snapshot") + 1;
+        channel = openLog(generation);
+        running = true;
+
+        if (durabilityMode != DurabilityMode.SYNC) {
+            writer = backgroundThreads.start("transaction-journal-writer", this::writeLoop);
+        }
+        logger.info("Transaction journal started: directory={}, generation={}, durability={}",
+            directory.toAbsolutePath(), generation, durabilityMode);
+    }
+
+    @Override
+    public void append(Transaction transaction, Runnable apply) {
+        appendAll(List.of(transaction), apply);
+    }
+
+    /**
+     * Holds the snapshot gate's read lock from the append until the batch is
+     * stored; {@link #snapshot()} rotates the log under the write lock, so it
+     * waits for every record already logged to reach the repository.
+     */
+    @Override
+    public void appendAll(List<Transaction> transactions, Runnable apply) {
+        snapshotGate.readLock().lock();
+        try {
+            write(transactions);
+            apply.run();
+        } finally {
+            snapshotGate.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void replay(Consumer<Transaction> consumer) {
+        try {
+            long snapshotGeneration = latestGeneration("snapshot");
+            long loaded = 0;
+            if (snapshotGeneration > 0) {
+                ForkJoinPool pool = new ForkJoinPool(recoveryParallelism);
+                try {
+                    loaded = MappedSnapshotFile.load(
+                        snapshotFile(snapshotGeneration), transactionRepository, transactionTypeRegistry, amountScale, pool);
+                } finally {
+                    pool.shutdown();
+                }
+            }
+            long replayed = 0;
+            for (long logGeneration : generations("wal")) {
+                if (logGeneration >= snapshotGeneration && logGeneration < generation) {
+                    replayed += TransactionRecordCodec.readAll(logFile(logGeneration), 0,
+                        payload -> consumer.accept(TransactionRecordCodec.decode(payload, transactionTypeRegistry)));
+                }
+            }
+            logger.info("Loaded {} snapshot records (generation {}) and replayed {} log records",
+                loaded, snapshotGeneration, replayed);
+            scheduleSnapshots();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not replay transaction journal", e);
+        }
+    }
+
+    /**
+     * Rotates the log and writes a compacted snapshot of the current store, then
+     * removes logs and snapshots the new snapshot supersedes.
+     */
+    public void snapshot() throws IOException {
+        long snapshotGeneration;
+        snapshotGate.writeLock().lock();
+        channelLock.lock();
+        try {
+            channel.force(false);
+            channel.close();
+            snapshotGeneration = ++generation;
+            channel = openLog(snapshotGeneration);
+        } finally {
+            channelLock.unlock();
+            snapshotGate.writeLock().unlock();
+        }
+
+        Path temporary = directory.resolve("snapshot-" + snapshotGeneration + ".tmp");
+        long records = MappedSnapshotFile.write(temporary, transactionRepository, transactionTypeRegistry);
+        Files.move(temporary, snapshotFile(snapshotGeneration), StandardCopyOption.ATOMIC_MOVE);
+
+        for (long old : generations("wal")) {
+            if (old < snapshotGeneration) {
+                Files.deleteIfExists(logFile(old));
+            }
+        }
+        for (long old : generations("snapshot")) {
+            if (old < snapshotGeneration) {
+                Files.deleteIfExists(snapshotFile(old));
+            }
+        }
+        logger.info("Wrote snapshot generation {} with {} transactions", snapshotGeneration, records);
+    }
+
+    @PreDestroy
+    void stop() throws IOException, InterruptedException {
+        running = false;
+        if (snapshotScheduler != null) {
+            snapshotScheduler.shutdownNow();
+        }
+        if (writer != null) {
+            // no interrupt: one arriving during a write or force closes the channel;
+            // the writer sees running=false within one poll interval
+            writer.join(asyncFlushIntervalMillis + TimeUnit.SECONDS.toMillis(5));
+        }
+        channelLock.lock();
+        try {
+            flushPending();
+            channel.force(true);
+            channel.close();
+        } finally {
+            channelLock.unlock();
+        }
+    }
+
+    private void write(List<Transaction> transactions) {
+        if (transactions.isEmpty()) {
+            return;
+        }
+        ByteBuffer[] records = new ByteBuffer[transactions.size()];
+        for (int i = 0; i < records.length; i++) {
+            Transaction transaction = transactions.get(i);
+            records[i] = TransactionRecordCodec.encode(
+                transaction, transactionTypeRegistry.nameOf(transaction.getTypeCode()));
+        }
+        switch (durabilityMode) {
+            case SYNC -> {
+                channelLock.lock();
+                try {
+                    writeFully(records);
+                    channel.force(false);
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Could not append transactions to journal", e);
+                } finally {
+                    channelLock.unlock();
+                }
+            }
+            case BATCH -> {
+                CompletableFuture<?>[] committed = new CompletableFuture<?>[records.length];
+                for (int i = 0; i < records.length; i++) {
+                    CompletableFuture<Void> future = new CompletableFuture<>();
+                    committed[i] = future;
+                    enqueue(new PendingAppend(records[i], future));
+                }
+                try {
+                    CompletableFuture.allOf(committed).join();
+                } catch (CompletionException e) {
+                    throw new UncheckedIOException("Could not append transactions to journal",
+                        e.getCause() instanceof IOException io ? io : new IOException(e.getCause()));
+                }
+            }
+            case ASYNC -> {
+                for (ByteBuffer record : records) {
+                    enqueue(new PendingAppend(record, null));
+                }
+            }
+        }
+    }
+
+    private void enqueue(PendingAppend append) {
+        if (!running) {
+            throw new IllegalStateException("Transaction journal is not running");
+        }
+        try {
+            pending.put(append);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while queueing a journal append", e);
+        }
+    }
+
+    private void writeLoop() {
+        long lastForce = System.nanoTime();
+        while (running) {
+            try {
+                PendingAppend first = pending.poll(asyncFlushIntervalMillis, TimeUnit.MILLISECONDS);
+                channelLock.lock();
+                try {
+                    boolean wrote = first != null && writeBatch(first);
+                    long now = System.nanoTime();
+                    if (wrote && durabilityMode == DurabilityMode.BATCH) {
+                        continue;
+                    }
+                    if (now - lastForce >= TimeUnit.MILLISECONDS.toNanos(asyncFlushIntervalMillis)) {
+                        channel.force(false);
+                        lastForce = now;
+                    }
+                } finally {
+                    channelLock.unlock();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (IOException e) {
+                logger.error("Transaction journal write failed", e);
+            }
+        }
+    }
+
+    /** Writes the first record plus whatever else is queued as one batch; BATCH mode fsyncs once for all of them. */
+    private boolean writeBatch(PendingAppend first) {
+        List<PendingAppend> batch = new ArrayList<>(Math.min(maxBatchSize, pending.size() + 1));
+        batch.add(first);
+        pending.drainTo(batch, maxBatchSize - 1);
+
+        ByteBuffer[] records = new ByteBuffer[batch.size()];
+        for (int i = 0; i < records.length; i++) {
+            records[i] = batch.get(i).record();
+        }
+        try {
+            writeFully(records);
+            if (durabilityMode == DurabilityMode.BATCH) {
+                channel.force(false);
+            }
+            for (PendingAppend append : batch) {
+                if (append.committed() != null) {
+                    append.committed().complete(null);
+                }
+            }
+        } catch (IOException e) {
+            logger.error("Transaction journal batch of {} records failed", batch.size(), e);
+            for (PendingAppend append : batch) {
+                if (append.committed() != null) {
+                    append.committed().completeExceptionally(e);
+                }
+            }
+        }
+        return true;
+    }
+
+    private void flushPending() {
+        PendingAppend next;
+        while ((next = pending.poll()) != null) {
+            writeBatch(next);
+        }
+    }
+
+    private void writeFully(ByteBuffer[] records) throws IOException {
+        long remaining = 0;
+        for (ByteBuffer record : records) {
+            remaining += record.remaining();
+        }
+        while (remaining > 0) {
+            remaining -= channel.write(records);
+        }
+    }
+
+    private FileChannel openLog(long logGeneration) throws IOException {
+        return FileChannel.open(logFile(logGeneration),
+            StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private Path logFile(long logGeneration) {
+        return directory.resolve("wal-" + logGeneration + ".log");
+    }
+
+    private Path snapshotFile(long snapshotGeneration) {
+        return directory.resolve("snapshot-" + snapshotGeneration + ".bin");
+    }
+
+    private long latestGeneration(String... kinds) throws IOException {
+        long latest = 0;
+        for (String kind : kinds) {
+            for (long candidate : generations(kind)) {
+                latest = Math.max(latest, candidate);
+            }
+        }
+        return latest;
+    }
+
+    private List<Long> generations(String kind) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files
+                .map(file -> FILE_NAME.matcher(file.getFileName().toString()))
+                .filter(Matcher::matches)
+                .filter(matcher -> matcher.group(1).equals(kind))
+                .map(matcher -> Long.parseLong(matcher.group(2)))
+                .sorted()
+                .toList();
+        }
+    }
+
+    /**
+     * Periodic snapshots start only once replay is complete: a snapshot of a
+     * half-loaded store would delete the logs still holding the rest.
+     */
+    private void scheduleSnapshots() {
+        if (snapshotIntervalSeconds > 0 && snapshotScheduler == null) {
+            snapshotScheduler = Executors.newSingleThreadScheduledExecutor(
+                backgroundThreads.factory("transaction-journal-snapshot"));
+            snapshotScheduler.scheduleWithFixedDelay(this::snapshotQuietly,
+                snapshotIntervalSeconds, snapshotIntervalSeconds, TimeUnit.SECONDS);
+        }
+    }
+
+    private void snapshotQuietly() {
+        try {
+            snapshot();
+        } catch (IOException | RuntimeException e) {
+            logger.error("Transaction snapshot failed", e);
+        }
+    }
+
+    private record PendingAppend(ByteBuffer record, CompletableFuture<Void> committed) {
+    }
+}
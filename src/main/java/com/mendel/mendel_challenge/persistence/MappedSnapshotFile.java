@@ -0,0 +1,274 @@
+package com.mendel.mendel_challenge.persistence;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.LongStream;
+
+import com.mendel.mendel_challenge.model.Transaction;
+import com.mendel.mendel_challenge.repository.AmountScale;
+import com.mendel.mendel_challenge.repository.TransactionRepository;
+import com.mendel.mendel_challenge.repository.TransactionTypeRegistry;
+
+/**
+ * Fixed-width snapshot that is read and post-processed through memory mappings.
+ *
+ * <pre>
+ * header (32 bytes):  int magic, int version, int recordBytes, int unused,
+ *                     long recordCount, long dictionaryOffset
+ * records (64 bytes): long id, double amount, long parentId, double subtreeSum,
+ *                     int parentRecord (-1 for roots), int typeIndex, long createdAt,
+ *                     long rootId, int depth, int subtreeNodes
+ * dictionary:         int typeCount, then per type short length + UTF-8 bytes
+ * </pre>
+ *
+ * Records are written parents first, so a backwards pass over the mapping can
+ * fold every record's subtree sum and node count into its parent. The totals stored in a snapshot
+ * are therefore consistent with exactly the records it contains, and loading
+ * needs no ancestor walks: records are independent and load in parallel.
+ *
+ * <p>Exact totals in minor units are not stored, since they depend on the
+ * configured scale: in the exact-amount mode a backward pass derives them from
+ * the stored amounts.
+ */
+final class MappedSnapshotFile {
+
+    private static final int MAGIC = 0x4d54534e;
+    private static final int VERSION = 4;
+    private static final int HEADER_BYTES = 32;
+    private static final int RECORD_BYTES = 64;
+    private static final long SEGMENT_BYTES = 1L << 30;
+    private static final int LOAD_CHUNK_RECORDS = 1 << 16;
+    private static final int NO_PARENT_RECORD = -1;
+
+    private MappedSnapshotFile() {
+    }
+
+    /**
+     * Writes every tree reachable from a root of the store.
+     *
+     * @return the number of records written
+     */
+    static long write(Path file, TransactionRepository transactionRepository,
+                      TransactionTypeRegistry transactionTypeRegistry) throws IOException {
+        try (FileChannel out = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocate(1 << 16);
+            out.position(HEADER_BYTES);
+
+            long recordCount = 0;
+            List<Transaction> stack = new ArrayList<>();
+            List<Integer> parentRecords = new ArrayList<>();
+            List<Integer> depths = new ArrayList<>();
+            for (Transaction root : transactionRepository.findAll()) {
+                if (root.getParentId() != null) {
+                    continue;
+                }
+                stack.add(root);
+                parentRecords.add(NO_PARENT_RECORD);
+                depths.add(0);
+                while (!stack.isEmpty()) {
+                    Transaction transaction = stack.remove(stack.size() - 1);
+                    int parentRecord = parentRecords.remove(parentRecords.size() - 1);
+                    int depth = depths.remove(depths.size() - 1);
+                    if (recordCount == Integer.MAX_VALUE) {
+                        throw new IOException("Snapshot exceeds " + Integer.MAX_VALUE + " records");
+                    }
+                    int record = (int) recordCount++;
+
+                    if (buffer.remaining() < RECORD_BYTES) {
+                        drain(buffer, out);
+                    }
+                    buffer.putLong(transaction.getTransactionId());
+                    buffer.putDouble(transaction.getAmount());
+                    buffer.putLong(transaction.getParentId() == null ? 0L : transaction.getParentId());
+                    buffer.putDouble(transaction.getAmount());
+                    buffer.putInt(parentRecord);
+                    buffer.putInt(transaction.getTypeCode());
+                    buffer.putLong(transaction.getCreatedAt());
+                    buffer.putLong(root.getTransactionId());
+                    buffer.putInt(depth);
+                    buffer.putInt(1);
+
+                    transactionRepository.forEachChild(transaction.getTransactionId(), child -> {
+                        stack.add(child);
+                        parentRecords.add(record);
+                        depths.add(depth + 1);
+                    });
+                }
+            }
+            drain(buffer, out);
+
+            long dictionaryOffset = out.position();
+            List<String> typeNames = transactionTypeRegistry.names();
+            buffer.putInt(typeNames.size());
+            for (String typeName : typeNames) {
+                byte[] bytes = typeName.getBytes(StandardCharsets.UTF_8);
+                if (buffer.remaining() < Short.BYTES + bytes.length) {
+                    drain(buffer, out);
+                }
+                buffer.putShort((short) bytes.length);
+                buffer.put(bytes);
+            }
+            drain(buffer, out);
+
+            buffer.putInt(MAGIC).putInt(VERSION).putInt(RECORD_BYTES).putInt(0)
+                .putLong(recordCount).putLong(dictionaryOffset).flip();
+            while (buffer.hasRemaining()) {
+                out.write(buffer, buffer.position());
+            }
+
+            accumulateSubtreeTotals(out, recordCount);
+            out.force(true);
+            return recordCount;
+        }
+    }
+
+    /**
+     * Loads every record into the repository, restoring the stored subtree totals.
+     *
+     * @return the number of records loaded
+     */
+    static long load(Path file, TransactionRepository transactionRepository,
+                     TransactionTypeRegistry transactionTypeRegistry, AmountScale amountScale,
+                     ForkJoinPool pool) throws IOException {
+        try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            while (header.hasRemaining() && in.read(header, header.position()) >= 0) {
+                // keep reading until the header is complete or the file ends
+            }
+            header.flip();
+            if (header.remaining() < HEADER_BYTES || header.getInt() != MAGIC) {
+                throw new IOException("Not a transaction snapshot: " + file);
+            }
+            int version = header.getInt();
+            int recordBytes = header.getInt();
+            if (version != VERSION || recordBytes != RECORD_BYTES) {
+                throw new IOException("Unsupported transaction snapshot version " + version + ": " + file);
+            }
+            long recordsPerSegment = SEGMENT_BYTES / RECORD_BYTES;
+            header.getInt();
+            long recordCount = header.getLong();
+            long dictionaryOffset = header.getLong();
+
+            int[] typeCodes = readDictionary(in, dictionaryOffset, transactionTypeRegistry);
+            MappedByteBuffer[] segments = map(in, FileChannel.MapMode.READ_ONLY, recordCount);
+            long[] subtreeUnits = amountScale.isEnabled()
+                ? deriveSubtreeUnits(segments, recordCount, amountScale)
+                : null;
+
+            long chunks = (recordCount + LOAD_CHUNK_RECORDS - 1) / LOAD_CHUNK_RECORDS;
+            pool.submit(() -> LongStream.range(0, chunks).parallel().forEach(chunk -> {
+                long from = chunk * LOAD_CHUNK_RECORDS;
+                long to = Math.min(recordCount, from + LOAD_CHUNK_RECORDS);
+                for (long record = from; record < to; record++) {
+                    ByteBuffer segment = segments[(int) (record / recordsPerSegment)];
+                    int offset = (int) (record % recordsPerSegment) * RECORD_BYTES;
+                    Transaction transaction = new Transaction();
+                    transaction.setTransactionId(segment.getLong(offset));
+                    transaction.setAmount(segment.getDouble(offset + 8));
+                    if (subtreeUnits != null) {
+                        transaction.setAmountUnits(amountScale.roundToUnits(transaction.getAmount()));
+                    }
+                    boolean hasParent = segment.getInt(offset + 32) != NO_PARENT_RECORD;
+                    transaction.setParentId(hasParent ? segment.getLong(offset + 16) : null);
+                    transaction.setTypeCode(typeCodes[segment.getInt(offset + 36)]);
+                    transaction.setCreatedAt(segment.getLong(offset + 40));
+                    transaction.setRootId(segment.getLong(offset + 48));
+                    transaction.setDepth(segment.getInt(offset + 56));
+                    double subtreeSum = segment.getDouble(offset + 24);
+                    long subtreeNodes = segment.getInt(offset + 60);
+
+                    transactionRepository.save(transaction);
+                    transactionRepository.addToSubtree(transaction.getTransactionId(),
+                        subtreeSum - transaction.getAmount(), subtreeNodes - 1);
+                    if (subtreeUnits != null) {
+                        transactionRepository.addToSubtreeUnits(transaction.getTransactionId(), subtreeUnits[(int) record]);
+                    }
+                }
+            })).join();
+            return recordCount;
+        }
+    }
+
+    /** Walks the records backwards, adding each subtree sum and node count to its parent's. */
+    private static void accumulateSubtreeTotals(FileChannel channel, long recordCount) throws IOException {
+        long recordsPerSegment = SEGMENT_BYTES / RECORD_BYTES;
+        MappedByteBuffer[] segments = map(channel, FileChannel.MapMode.READ_WRITE, recordCount);
+        for (long record = recordCount - 1; record >= 0; record--) {
+            ByteBuffer segment = segments[(int) (record / recordsPerSegment)];
+            int offset = (int) (record % recordsPerSegment) * RECORD_BYTES;
+            int parentRecord = segment.getInt(offset + 32);
+            if (parentRecord != NO_PARENT_RECORD) {
+                ByteBuffer parentSegment = segments[(int) (parentRecord / recordsPerSegment)];
+                int parentOffset = (int) (parentRecord % recordsPerSegment) * RECORD_BYTES;
+                parentSegment.putDouble(parentOffset + 24,
+                    parentSegment.getDouble(parentOffset + 24) + segment.getDouble(offset + 24));
+                parentSegment.putInt(parentOffset + 60, parentSegment.getInt(parentOffset + 60) + segment.getInt(offset + 60));
+            }
+        }
+        for (MappedByteBuffer segment : segments) {
+            segment.force();
+        }
+    }
+
+    /** Exact subtree totals in minor units, folded into parents in one backward pass. */
+    private static long[] deriveSubtreeUnits(MappedByteBuffer[] segments, long recordCount, AmountScale amountScale) {
+        long recordsPerSegment = SEGMENT_BYTES / RECORD_BYTES;
+        long[] subtreeUnits = new long[(int) recordCount];
+        for (int record = (int) recordCount - 1; record >= 0; record--) {
+            ByteBuffer segment = segments[(int) (record / recordsPerSegment)];
+            int offset = (int) (record % recordsPerSegment) * RECORD_BYTES;
+            long ownUnits = amountScale.roundToUnits(segment.getDouble(offset + 8));
+            long units = AmountScale.addUnits(subtreeUnits[record], ownUnits);
+            subtreeUnits[record] = units;
+            int parentRecord = segment.getInt(offset + 32);
+            if (parentRecord != NO_PARENT_RECORD) {
+                subtreeUnits[parentRecord] = AmountScale.addUnits(subtreeUnits[parentRecord], units);
+            }
+        }
+        return subtreeUnits;
+    }
+
+    private static MappedByteBuffer[] map(FileChannel channel, FileChannel.MapMode mode, long recordCount)
+            throws IOException {
+        long recordsPerSegment = SEGMENT_BYTES / RECORD_BYTES;
+        int segmentCount = (int) ((recordCount + recordsPerSegment - 1) / recordsPerSegment);
+        MappedByteBuffer[] segments = new MappedByteBuffer[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            long firstRecord = i * recordsPerSegment;
+            long records = Math.min(recordsPerSegment, recordCount - firstRecord);
+            segments[i] = channel.map(mode, HEADER_BYTES + firstRecord * RECORD_BYTES, records * RECORD_BYTES);
+        }
+        return segments;
+    }
+
+    /** Maps the snapshot's type indexes to codes of this process's registry. */
+    private static int[] readDictionary(FileChannel in, long dictionaryOffset,
+                                        TransactionTypeRegistry transactionTypeRegistry) throws IOException {
+        ByteBuffer dictionary = in.map(FileChannel.MapMode.READ_ONLY, dictionaryOffset, in.size() - dictionaryOffset);
+        int[] typeCodes = new int[dictionary.getInt()];
+        for (int i = 0; i < typeCodes.length; i++) {
+            byte[] bytes = new byte[dictionary.getShort()];
+            dictionary.get(bytes);
+            typeCodes[i] = transactionTypeRegistry.resolve(new String(bytes, StandardCharsets.UTF_8));
+        }
+        return typeCodes;
+    }
+
+    private static void drain(ByteBuffer buffer, FileChannel out) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+        buffer.clear();
+    }
+}
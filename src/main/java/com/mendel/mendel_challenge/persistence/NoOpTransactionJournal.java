@@ -0,0 +1,33 @@
+package com.mendel.mendel_challenge.persistence;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.mendel.mendel_challenge.model.Transaction;
+
+@Component
+@ConditionalOnProperty(name = "transactions.persistence.enabled", havingValue = "false", matchIfMissing = true)
+public class NoOpTransactionJournal implements TransactionJournal {
+
+    @Override
+    public void append(Transaction transaction, Runnable apply) {
+        apply.run();
+    }
+
+    @Override
+    public void appendAll(List<Transaction> transactions, Runnable apply) {
+        apply.run();
+    }
+
+    @Override
+    public void replay(Consumer<Transaction> consumer) {
+    }
+
+    @Override
+    public boolean isDurable() {
+        return false;
+    }
+}
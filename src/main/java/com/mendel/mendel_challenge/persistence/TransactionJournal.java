@@ -0,0 +1,42 @@
+package com.mendel.mendel_challenge.persistence;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+import com.mendel.mendel_challenge.model.Transaction;
+
+/**
+ * Durable record of every stored transaction, replayed on startup to rebuild
+ * the in-memory repository.
+ */
+public interface TransactionJournal {
+
+    /** Records a transaction, then runs {@code apply} to store it; see {@link #appendAll}. */
+    void append(Transaction transaction, Runnable apply);
+
+    /**
+     * Records a batch, paying for at most one fsync, then runs {@code apply} to
+     * store it. Blocks according to the durability mode; if the append fails,
+     * {@code apply} does not run and the exception propagates. No snapshot starts
+     * between the two, so every record in a log a snapshot supersedes is already
+     * in the store the snapshot copies.
+     */
+    void appendAll(List<Transaction> transactions, Runnable apply);
+
+    /**
+     * Restores the latest snapshot directly into the repository, including its
+     * materialized subtree sums, then feeds every later logged transaction to the
+     * consumer, parents before children. A logged transaction may already be in
+     * the snapshot, so the consumer must skip ids it already has. Periodic
+     * snapshots, if any, start only once a replay completes.
+     */
+    void replay(Consumer<Transaction> consumer);
+
+    /**
+     * False when nothing is recorded and {@code apply} runs at once, so writers
+     * need not claim an id across the append and can let the insert decide.
+     */
+    default boolean isDurable() {
+        return true;
+    }
+}
@@ -0,0 +1,111 @@
+package com.mendel.mendel_challenge.persistence;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+import com.mendel.mendel_challenge.model.Transaction;
+import com.mendel.mendel_challenge.repository.TransactionTypeRegistry;
+
+/**
+ * Binary layout of write-ahead log records:
+ * {@code [int payloadLength][int crc32c][payload]}, where the payload is
+ * {@code [long id][double amount][byte flags][long parentId][long createdAt][short typeLength][type UTF-8]}.
+ * Flag bit 0 marks a parent and bit 1 the presence of {@code createdAt}; records
+ * written before ingest times were recorded have neither bit 1 nor the field,
+ * and still decode, with an unknown ingest time.
+ * Types are written by name because registry codes are not stable across restarts.
+ */
+final class TransactionRecordCodec {
+
+    static final int HEADER_BYTES = Integer.BYTES * 2;
+
+    private static final byte HAS_PARENT = 1;
+    private static final byte HAS_CREATED_AT = 2;
+    /** Smallest fixed part, that of a record without {@code createdAt}. */
+    private static final int FIXED_PAYLOAD_BYTES = Long.BYTES + Double.BYTES + 1 + Long.BYTES + Short.BYTES;
+
+    private TransactionRecordCodec() {
+    }
+
+    static ByteBuffer encode(Transaction transaction, String typeName) {
+        byte[] type = typeName.getBytes(StandardCharsets.UTF_8);
+        int payloadLength = FIXED_PAYLOAD_BYTES + Long.BYTES + type.length;
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + payloadLength);
+        buffer.putInt(payloadLength);
+        buffer.putInt(0);
+        buffer.putLong(transaction.getTransactionId());
+        buffer.putDouble(transaction.getAmount());
+        buffer.put((byte) (HAS_CREATED_AT | (transaction.getParentId() == null ? 0 : HAS_PARENT)));
+        buffer.putLong(transaction.getParentId() == null ? 0L : transaction.getParentId());
+        buffer.putLong(transaction.getCreatedAt());
+        buffer.putShort((short) type.length);
+        buffer.put(type);
+        buffer.putInt(Integer.BYTES, checksum(buffer.array(), HEADER_BYTES, payloadLength));
+        return buffer.flip();
+    }
+
+    static Transaction decode(ByteBuffer payload, TransactionTypeRegistry typeRegistry) {
+        Transaction transaction = new Transaction();
+        transaction.setTransactionId(payload.getLong());
+        transaction.setAmount(payload.getDouble());
+        byte flags = payload.get();
+        long parentId = payload.getLong();
+        transaction.setParentId((flags & HAS_PARENT) != 0 ? parentId : null);
+        if ((flags & HAS_CREATED_AT) != 0) {
+            transaction.setCreatedAt(payload.getLong());
+        }
+        byte[] type = new byte[payload.getShort()];
+        payload.get(type);
+        transaction.setTypeCode(typeRegistry.resolve(new String(type, StandardCharsets.UTF_8)));
+        return transaction;
+    }
+
+    /**
+     * Reads records from the given offset until the end of the file or the first
+     * torn or corrupt record, which marks where an interrupted write stopped.
+     *
+     * @return the number of valid records read
+     */
+    static long readAll(Path file, long offset, Consumer<ByteBuffer> payloadConsumer) throws IOException {
+        long records = 0;
+        try (InputStream raw = Files.newInputStream(file);
+             DataInputStream in = new DataInputStream(new BufferedInputStream(raw, 1 << 16))) {
+            in.skipNBytes(offset);
+            while (true) {
+                int payloadLength;
+                int crc;
+                byte[] payload;
+                try {
+                    payloadLength = in.readInt();
+                    crc = in.readInt();
+                    if (payloadLength < FIXED_PAYLOAD_BYTES || payloadLength > FIXED_PAYLOAD_BYTES + Long.BYTES + Short.MAX_VALUE) {
+                        return records;
+                    }
+                    payload = in.readNBytes(payloadLength);
+                } catch (EOFException e) {
+                    return records;
+                }
+                if (payload.length < payloadLength || checksum(payload, 0, payloadLength) != crc) {
+                    return records;
+                }
+                payloadConsumer.accept(ByteBuffer.wrap(payload));
+                records++;
+            }
+        }
+    }
+
+    private static int checksum(byte[] bytes, int offset, int length) {
+        CRC32C crc = new CRC32C();
+        crc.update(bytes, offset, length);
+        return (int) crc.getValue();
+    }
+}
@@ -0,0 +1,103 @@
+package com.mendel.mendel_challenge.repository;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Fixed-point view of amounts for the exact-amount mode. An amount is a long
+ * count of minor units (cents at scale 2) and totals are added with
+ * overflow-checked long arithmetic, so sums over any number of transactions
+ * are exact instead of drifting in the last digits of a double.
+ *
+ * <p>Amounts arrive as JSON doubles and are converted once, on ingest or
+ * recovery, to the minor units stored with each transaction; sums only ever
+ * add those longs. A double parsed from a decimal with at most {@code scale}
+ * fraction digits converts back exactly: {@code units / 10^scale} is
+ * correctly rounded to that same double, which is what {@link #toUnits} checks
+ * before falling back to BigDecimal.
+ */
+@Component
+public class AmountScale {
+
+    /** Marks a materialized unit total that no longer fits in a long; absorbing under {@link #addUnits}. */
+    public static final long OVERFLOW = Long.MIN_VALUE;
+
+    private static final int MAX_SCALE = 9;
+    private static final double EXACT_DOUBLE_LIMIT = 0x1p53;
+
+    private final boolean enabled;
+    private final int scale;
+    private final double factor;
+
+    public AmountScale(@Value("${transactions.amount.exact.enabled:false}") boolean enabled,
+                       @Value("${transactions.amount.exact.scale:2}") int scale) {
+        if (scale < 0 || scale > MAX_SCALE) {
+            throw new IllegalArgumentException("transactions.amount.exact.scale must be between 0 and " + MAX_SCALE);
+        }
+        this.enabled = enabled;
+        this.scale = scale;
+        this.factor = Math.pow(10, scale);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int scale() {
+        return scale;
+    }
+
+    /**
+     * Minor units of the amount.
+     *
+     * @throws ArithmeticException if the amount has more fraction digits than the
+     *         scale allows or its units do not fit in a long
+     */
+    public long toUnits(double amount) {
+        double scaled = amount * factor;
+        if (Math.abs(scaled) < EXACT_DOUBLE_LIMIT) {
+            long units = Math.round(scaled);
+            if (units / factor == amount) {
+                return units;
+            }
+        }
+        return BigDecimal.valueOf(amount).movePointRight(scale).longValueExact();
+    }
+
+    /**
+     * Like {@link #toUnits}, but rounds extra fraction digits half-even. Used for
+     * transactions restored from data written before the exact mode was enabled.
+     */
+    public long roundToUnits(double amount) {
+        try {
+            return toUnits(amount);
+        } catch (ArithmeticException e) {
+            return BigDecimal.valueOf(amount).setScale(scale, RoundingMode.HALF_EVEN).movePointRight(scale)
+                .longValueExact();
+        }
+    }
+
+    public BigDecimal toAmount(long units) {
+        return BigDecimal.valueOf(units, scale);
+    }
+
+    /** Converts an integral count of minor units, such as an overflowed total, to an amount. */
+    public BigDecimal toAmount(BigDecimal units) {
+        return units.movePointLeft(scale).setScale(scale);
+    }
+
+    /** Adds two unit totals, returning {@link #OVERFLOW} if either is overflowed or the sum does not fit. */
+    public static long addUnits(long total, long units) {
+        if (total == OVERFLOW || units == OVERFLOW) {
+            return OVERFLOW;
+        }
+        try {
+            return Math.addExact(total, units);
+        } catch (ArithmeticException e) {
+            return OVERFLOW;
+        }
+    }
+}
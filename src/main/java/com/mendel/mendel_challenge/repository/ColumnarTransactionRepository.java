@@ -0,0 +1,571 @@
+package com.mendel.mendel_challenge.repository;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+import com.mendel.mendel_challenge.model.Transaction;
+
+/**
+ * Compact alternative to {@link InMemoryTransactionRepository}: every field lives
+ * in a primitive column indexed by slot, ids are resolved through an
+ * open-addressing long -> slot index, and the parent and type indexes are
+ * intrusive linked lists threaded through int columns. Measured over a million
+ * transactions, that is about 100 bytes per transaction, against about 470 for
+ * {@link InMemoryTransactionRepository}, where every entry, boxed key, index
+ * node and subtree aggregate is an object of its own. The two minor-unit
+ * columns of the exact-amount mode are only allocated when that mode is
+ * enabled, adding 16 bytes.
+ * Enabled with {@code transactions.repository.type=columnar}.
+ */
+@Repository
+@ConditionalOnProperty(name = "transactions.repository.type", havingValue = "columnar")
+public class ColumnarTransactionRepository implements TransactionRepository {
+
+    private static final int NONE = -1;
+    private static final long NO_PARENT = Long.MIN_VALUE;
+    private static final VarHandle LONG_ARRAY = MethodHandles.arrayElementVarHandle(long[].class);
+    private static final VarHandle INT_ARRAY = MethodHandles.arrayElementVarHandle(int[].class);
+
+    private final int initialCapacity;
+    private final boolean exactAmounts;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private LongIntHashIndex slotsById;
+    private int size;
+    /** Slots with at least one linked child, i.e. the size of the parent index. */
+    private int parentCount;
+
+    private long[] ids;
+    private double[] amounts;
+    /** Minor units (exact-amount mode only, null otherwise). */
+    private long[] amountUnits;
+    private long[] parentIds;
+    private int[] typeCodes;
+    private long[] createdAts;
+    /** Root id, or NO_PARENT when the caller did not set one. */
+    private long[] rootIds;
+    private int[] depths;
+    /** Raw bits of the materialized subtree sum, updated with CAS under the read lock. */
+    private long[] subtreeSumBits;
+    /** Materialized subtree node count, updated with getAndAdd under the read lock; slots are ints, so counts fit. */
+    private int[] subtreeNodes;
+    /** Exact subtree total in minor units (exact-amount mode only), updated with CAS under the read lock. */
+    private long[] subtreeUnits;
+
+    private int[] firstChild;
+    private int[] nextSibling;
+    private int[] childCounts;
+    private int[] nextOfType;
+
+    private int[] firstOfType;
+    private int[] typeCounts;
+
+    /**
+     * Children saved before their parent (parallel snapshot loads) wait here,
+     * keyed by parent id, until the parent arrives.
+     */
+    private final Map<Long, List<Integer>> orphansByParent = new HashMap<>();
+
+    private final TimeBucketIndex timeBuckets = new TimeBucketIndex();
+
+    public ColumnarTransactionRepository(
+            @Value("${transactions.repository.columnar.initial-capacity:1024}") int initialCapacity,
+            @Value("${transactions.amount.exact.enabled:false}") boolean exactAmounts) {
+        this.initialCapacity = Math.max(16, initialCapacity);
+        this.exactAmounts = exactAmounts;
+        allocate(this.initialCapacity);
+    }
+
+    @Override
+    public void save(Transaction transaction) {
+        lock.writeLock().lock();
+        try {
+            long id = transaction.getTransactionId();
+            double amount = transaction.getAmount();
+            int slot = slotsById.get(id);
+            if (slot != NONE) {
+                double previousSum = Double.longBitsToDouble(subtreeSumBits[slot]);
+                unlinkChild(slot);
+                unlinkType(slot);
+                timeBuckets.remove(typeCodes[slot], createdAts[slot], amounts[slot]);
+                subtreeSumBits[slot] = Double.doubleToRawLongBits(previousSum - amounts[slot] + amount);
+            } else {
+                ensureCapacity(size + 1);
+                slot = size++;
+                ids[slot] = id;
+                firstChild[slot] = NONE;
+                childCounts[slot] = 0;
+                subtreeSumBits[slot] = Double.doubleToRawLongBits(amount);
+                subtreeNodes[slot] = 1;
+                if (exactAmounts) {
+                    subtreeUnits[slot] = 0;
+                }
+                slotsById.put(id, slot);
+                adoptOrphans(slot);
+            }
+            amounts[slot] = amount;
+            if (exactAmounts) {
+                amountUnits[slot] = transaction.getAmountUnits();
+            }
+            parentIds[slot] = transaction.getParentId() == null ? NO_PARENT : transaction.getParentId();
+            typeCodes[slot] = transaction.getTypeCode();
+            createdAts[slot] = transaction.getCreatedAt();
+            rootIds[slot] = transaction.getRootId() == null ? NO_PARENT : transaction.getRootId();
+            depths[slot] = transaction.getDepth();
+            linkChild(slot);
+            linkType(slot);
+            timeBuckets.add(typeCodes[slot], createdAts[slot], amount);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean saveIfAbsent(Transaction transaction) {
+        lock.writeLock().lock();
+        try {
+            if (slotsById.get(transaction.getTransactionId()) != NONE) {
+                return false;
+            }
+            save(transaction);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Optional<Transaction> findById(Long id) {
+        lock.readLock().lock();
+        try {
+            int slot = slotsById.get(id);
+            return slot == NONE ? Optional.empty() : Optional.of(toTransaction(slot));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Transaction> findByType(int typeCode) {
+        lock.readLock().lock();
+        try {
+            List<Transaction> transactions = new ArrayList<>();
+            for (int slot = firstSlotOfType(typeCode); slot != NONE; slot = nextOfType[slot]) {
+                transactions.add(toTransaction(slot));
+            }
+            return transactions;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Long> findIdsByType(int typeCode) {
+        lock.readLock().lock();
+        try {
+            List<Long> transactionIds = new ArrayList<>();
+            for (int slot = firstSlotOfType(typeCode); slot != NONE; slot = nextOfType[slot]) {
+                transactionIds.add(ids[slot]);
+            }
+            return transactionIds;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Cursors are slots: the type list only grows at its head, so the rest of the list after a slot never changes. */
+    @Override
+    public Long forEachIdOfType(int typeCode, Long cursor, int limit, LongConsumer action) {
+        lock.readLock().lock();
+        try {
+            int slot;
+            if (cursor == null) {
+                slot = firstSlotOfType(typeCode);
+            } else {
+                if (cursor < 0 || cursor >= size || typeCodes[cursor.intValue()] != typeCode) {
+                    throw new IllegalArgumentException("Cursor " + cursor + " is not a position of type " + typeCode);
+                }
+                slot = nextOfType[cursor.intValue()];
+            }
+            int last = NONE;
+            for (int count = 0; count < limit && slot != NONE; count++) {
+                action.accept(ids[slot]);
+                last = slot;
+                slot = nextOfType[slot];
+            }
+            return slot == NONE ? null : (long) last;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public long countByType(int typeCode) {
+        lock.readLock().lock();
+        try {
+            return typeCode >= 0 && typeCode < typeCounts.length ? typeCounts[typeCode] : 0;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Transaction> findByParentId(Long parentId) {
+        List<Transaction> children = new ArrayList<>();
+        forEachChild(parentId, children::add);
+        return children;
+    }
+
+    @Override
+    public void forEachChild(Long parentId, Consumer<Transaction> action) {
+        lock.readLock().lock();
+        try {
+            int parentSlot = slotsById.get(parentId);
+            if (parentSlot == NONE) {
+                return;
+            }
+            for (int slot = firstChild[parentSlot]; slot != NONE; slot = nextSibling[slot]) {
+                action.accept(toTransaction(slot));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Children are threaded through nextSibling, so stepping to the next one is a single read. */
+    @Override
+    public Optional<Transaction> findNextChild(Long parentId, Long afterChildId) {
+        lock.readLock().lock();
+        try {
+            int parentSlot = slotsById.get(parentId);
+            if (parentSlot == NONE) {
+                return Optional.empty();
+            }
+            int slot;
+            if (afterChildId == null) {
+                slot = firstChild[parentSlot];
+            } else {
+                int afterSlot = slotsById.get(afterChildId);
+                if (afterSlot == NONE || parentIds[afterSlot] != parentId) {
+                    return Optional.empty();
+                }
+                slot = nextSibling[afterSlot];
+            }
+            return slot == NONE ? Optional.empty() : Optional.of(toTransaction(slot));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public int countChildren(Long parentId) {
+        lock.readLock().lock();
+        try {
+            int parentSlot = slotsById.get(parentId);
+            return parentSlot == NONE ? 0 : childCounts[parentSlot];
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void addToSubtree(Long transactionId, double amount, long nodes) {
+        lock.readLock().lock();
+        try {
+            int slot = slotsById.get(transactionId);
+            if (slot == NONE) {
+                return;
+            }
+            if (nodes != 0) {
+                INT_ARRAY.getAndAdd(subtreeNodes, slot, (int) nodes);
+            }
+            long current;
+            long updated;
+            do {
+                current = (long) LONG_ARRAY.getVolatile(subtreeSumBits, slot);
+                updated = Double.doubleToRawLongBits(Double.longBitsToDouble(current) + amount);
+            } while (!LONG_ARRAY.compareAndSet(subtreeSumBits, slot, current, updated));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Optional<Double> findSubtreeSum(Long transactionId) {
+        lock.readLock().lock();
+        try {
+            int slot = slotsById.get(transactionId);
+            return slot == NONE
+                ? Optional.empty()
+                : Optional.of(Double.longBitsToDouble((long) LONG_ARRAY.getVolatile(subtreeSumBits, slot)));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public long countSubtreeNodes(Long transactionId) {
+        lock.readLock().lock();
+        try {
+            int slot = slotsById.get(transactionId);
+            return slot == NONE ? 0 : (int) INT_ARRAY.getVolatile(subtreeNodes, slot);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Ignored unless the exact-amount mode is enabled, since its columns are not allocated otherwise. */
+    @Override
+    public void addToSubtreeUnits(Long transactionId, long units) {
+        if (!exactAmounts) {
+            return;
+        }
+        lock.readLock().lock();
+        try {
+            int slot = slotsById.get(transactionId);
+            if (slot == NONE) {
+                return;
+            }
+            long current;
+            do {
+                current = (long) LONG_ARRAY.getVolatile(subtreeUnits, slot);
+            } while (current != AmountScale.OVERFLOW
+                && !LONG_ARRAY.compareAndSet(subtreeUnits, slot, current, AmountScale.addUnits(current, units)));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public OptionalLong findSubtreeUnits(Long transactionId) {
+        if (!exactAmounts) {
+            return OptionalLong.empty();
+        }
+        lock.readLock().lock();
+        try {
+            int slot = slotsById.get(transactionId);
+            long units = slot == NONE ? AmountScale.OVERFLOW : (long) LONG_ARRAY.getVolatile(subtreeUnits, slot);
+            return units == AmountScale.OVERFLOW ? OptionalLong.empty() : OptionalLong.of(units);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public TimeRangeTotals totalsByType(int typeCode, long fromMillis, long toMillis) {
+        return timeBuckets.totals(typeCode, fromMillis, toMillis);
+    }
+
+    @Override
+    public List<Transaction> findAll() {
+        lock.readLock().lock();
+        try {
+            List<Transaction> transactions = new ArrayList<>(size);
+            for (int slot = 0; slot < size; slot++) {
+                transactions.add(toTransaction(slot));
+            }
+            return transactions;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public long count() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public long countParents() {
+        lock.readLock().lock();
+        try {
+            return parentCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void deleteAll() {
+        lock.writeLock().lock();
+        try {
+            orphansByParent.clear();
+            timeBuckets.clear();
+            allocate(initialCapacity);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private Transaction toTransaction(int slot) {
+        Transaction transaction = new Transaction();
+        transaction.setTransactionId(ids[slot]);
+        transaction.setAmount(amounts[slot]);
+        if (exactAmounts) {
+            transaction.setAmountUnits(amountUnits[slot]);
+        }
+        transaction.setTypeCode(typeCodes[slot]);
+        transaction.setParentId(parentIds[slot] == NO_PARENT ? null : parentIds[slot]);
+        transaction.setCreatedAt(createdAts[slot]);
+        transaction.setRootId(rootIds[slot] == NO_PARENT ? null : rootIds[slot]);
+        transaction.setDepth(depths[slot]);
+        return transaction;
+    }
+
+    private void linkChild(int slot) {
+        if (parentIds[slot] == NO_PARENT) {
+            return;
+        }
+        int parentSlot = slotsById.get(parentIds[slot]);
+        if (parentSlot == NONE) {
+            nextSibling[slot] = NONE;
+            orphansByParent.computeIfAbsent(parentIds[slot], k -> new ArrayList<>()).add(slot);
+            return;
+        }
+        nextSibling[slot] = firstChild[parentSlot];
+        firstChild[parentSlot] = slot;
+        if (childCounts[parentSlot]++ == 0) {
+            parentCount++;
+        }
+    }
+
+    private void unlinkChild(int slot) {
+        if (parentIds[slot] == NO_PARENT) {
+            return;
+        }
+        int parentSlot = slotsById.get(parentIds[slot]);
+        if (parentSlot == NONE) {
+            List<Integer> orphans = orphansByParent.get(parentIds[slot]);
+            if (orphans != null) {
+                orphans.remove(Integer.valueOf(slot));
+            }
+            return;
+        }
+        if (firstChild[parentSlot] == slot) {
+            firstChild[parentSlot] = nextSibling[slot];
+        } else {
+            int previous = firstChild[parentSlot];
+            while (previous != NONE && nextSibling[previous] != slot) {
+                previous = nextSibling[previous];
+            }
+            if (previous == NONE) {
+                return;
+            }
+            nextSibling[previous] = nextSibling[slot];
+        }
+        if (--childCounts[parentSlot] == 0) {
+            parentCount--;
+        }
+    }
+
+    private void adoptOrphans(int parentSlot) {
+        List<Integer> orphans = orphansByParent.remove(ids[parentSlot]);
+        if (orphans != null) {
+            for (int orphan : orphans) {
+                linkChild(orphan);
+            }
+        }
+    }
+
+    private void linkType(int slot) {
+        int code = typeCodes[slot];
+        if (code >= firstOfType.length) {
+            int length = Math.max(code + 1, firstOfType.length << 1);
+            int previousLength = firstOfType.length;
+            firstOfType = Arrays.copyOf(firstOfType, length);
+            Arrays.fill(firstOfType, previousLength, length, NONE);
+            typeCounts = Arrays.copyOf(typeCounts, length);
+        }
+        nextOfType[slot] = firstOfType[code];
+        firstOfType[code] = slot;
+        typeCounts[code]++;
+    }
+
+    private void unlinkType(int slot) {
+        int code = typeCodes[slot];
+        if (firstOfType[code] == slot) {
+            firstOfType[code] = nextOfType[slot];
+        } else {
+            int previous = firstOfType[code];
+            while (previous != NONE && nextOfType[previous] != slot) {
+                previous = nextOfType[previous];
+            }
+            if (previous == NONE) {
+                return;
+            }
+            nextOfType[previous] = nextOfType[slot];
+        }
+        typeCounts[code]--;
+    }
+
+    private int firstSlotOfType(int typeCode) {
+        return typeCode >= 0 && typeCode < firstOfType.length ? firstOfType[typeCode] : NONE;
+    }
+
+    private void ensureCapacity(int required) {
+        if (required <= ids.length) {
+            return;
+        }
+        int capacity = Math.max(required, ids.length << 1);
+        ids = Arrays.copyOf(ids, capacity);
+        amounts = Arrays.copyOf(amounts, capacity);
+        if (exactAmounts) {
+            amountUnits = Arrays.copyOf(amountUnits, capacity);
+            subtreeUnits = Arrays.copyOf(subtreeUnits, capacity);
+        }
+        parentIds = Arrays.copyOf(parentIds, capacity);
+        typeCodes = Arrays.copyOf(typeCodes, capacity);
+        createdAts = Arrays.copyOf(createdAts, capacity);
+        rootIds = Arrays.copyOf(rootIds, capacity);
+        depths = Arrays.copyOf(depths, capacity);
+        subtreeSumBits = Arrays.copyOf(subtreeSumBits, capacity);
+        subtreeNodes = Arrays.copyOf(subtreeNodes, capacity);
+        firstChild = Arrays.copyOf(firstChild, capacity);
+        nextSibling = Arrays.copyOf(nextSibling, capacity);
+        childCounts = Arrays.copyOf(childCounts, capacity);
+        nextOfType = Arrays.copyOf(nextOfType, capacity);
+    }
+
+    private void allocate(int capacity) {
+        slotsById = new LongIntHashIndex(capacity);
+        size = 0;
+        parentCount = 0;
+        ids = new long[capacity];
+        amounts = new double[capacity];
+        amountUnits = exactAmounts ? new long[capacity] : null;
+        parentIds = new long[capacity];
+        typeCodes = new int[capacity];
+        createdAts = new long[capacity];
+        rootIds = new long[capacity];
+        depths = new int[capacity];
+        subtreeSumBits = new long[capacity];
+        subtreeNodes = new int[capacity];
+        subtreeUnits = exactAmounts ? new long[capacity] : null;
+        firstChild = new int[capacity];
+        nextSibling = new int[capacity];
+        childCounts = new int[capacity];
+        nextOfType = new int[capacity];
+        firstOfType = new int[16];
+        Arrays.fill(firstOfType, NONE);
+        typeCounts = new int[16];
+    }
+}
@@ -1,24 +1,101 @@
 package com.mendel.mendel_challenge.repository;
 
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableSet;
 import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
 
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Repository;
 
 import com.mendel.mendel_challenge.model.Transaction;
 
 @Repository
+@ConditionalOnProperty(name = "transactions.repository.type", havingValue = "in-memory", matchIfMissing = true)
 public class InMemoryTransactionRepository implements TransactionRepository {
 
     private final Map<Long, Transaction> storage = new ConcurrentHashMap<>();
 
+    /**
+     * Secondary index parentId -> ids of its direct children, so child lookups cost
+     * O(children) instead of a scan over the whole store. Sorted so that a tree
+     * walk can step from one child to the next without copying the set.
+     */
+    private final Map<Long, NavigableSet<Long>> childrenByParent = new ConcurrentHashMap<>();
+
+    /**
+     * Index type code -> ids of the transactions with that type, sorted so that
+     * paginated scans can resume after the last id they returned.
+     */
+    private final Map<Integer, NavigableSet<Long>> idsByType = new ConcurrentHashMap<>();
+
+    /** Per-type counts, since the size of a skip-list set is a full scan. */
+    private final Map<Integer, LongAdder> typeCounts = new ConcurrentHashMap<>();
+
+    /** Materialized subtree sums and node counts (the node plus every descendant). */
+    private final Map<Long, SubtreeAggregate> subtrees = new ConcurrentHashMap<>();
+
+    private final TimeBucketIndex timeBuckets = new TimeBucketIndex();
+
+    /** Writers share the read side; deleteAll takes the write side to clear everything at once. */
+    private final ReadWriteLock clearLock = new ReentrantReadWriteLock();
+
     @Override
     public void save(Transaction transaction) {
-        storage.put(transaction.getTransactionId(), transaction);
+        clearLock.readLock().lock();
+        try {
+            // compute() holds the bin lock for this id, so storage and index change together
+            storage.compute(transaction.getTransactionId(), (id, previous) -> {
+                if (previous != null) {
+                    unlinkChild(previous);
+                    unlinkType(previous);
+                    timeBuckets.remove(previous.getTypeCode(), previous.getCreatedAt(), previous.getAmount());
+                    subtree(id).add(transaction.getAmount() - previous.getAmount(), 0);
+                } else {
+                    subtree(id).add(transaction.getAmount(), 1);
+                }
+                linkChild(transaction);
+                linkType(transaction);
+                timeBuckets.add(transaction.getTypeCode(), transaction.getCreatedAt(), transaction.getAmount());
+                return transaction;
+            });
+        } finally {
+            clearLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Inserts only if the id is new, with a single putIfAbsent on the hot path.
+     * Indexes are linked after the insert; the subtree aggregate is created with
+     * computeIfAbsent on both sides, so a child that sees this node before its
+     * aggregate exists still adds to the right one.
+     */
+    @Override
+    public boolean saveIfAbsent(Transaction transaction) {
+        clearLock.readLock().lock();
+        try {
+            if (storage.putIfAbsent(transaction.getTransactionId(), transaction) != null) {
+                return false;
+            }
+            subtree(transaction.getTransactionId()).add(transaction.getAmount(), 1);
+            linkChild(transaction);
+            linkType(transaction);
+            timeBuckets.add(transaction.getTypeCode(), transaction.getCreatedAt(), transaction.getAmount());
+            return true;
+        } finally {
+            clearLock.readLock().unlock();
+        }
     }
 
     @Override
@@ -27,17 +104,134 @@ public class InMemoryTransactionRepository implements TransactionRepository {
     }
 
     @Override
-    public List<Transaction> findByType(String type) {
-        return storage.values().stream()
-                .filter(t -> t.getType().equalsIgnoreCase(type))
-                .collect(Collectors.toList());
+    public List<Transaction> findByType(int typeCode) {
+        Set<Long> ids = idsByType.get(typeCode);
+        if (ids == null) {
+            return new ArrayList<>();
+        }
+        List<Transaction> transactions = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Transaction transaction = storage.get(id);
+            if (transaction != null) {
+                transactions.add(transaction);
+            }
+        }
+        return transactions;
+    }
+
+    @Override
+    public List<Long> findIdsByType(int typeCode) {
+        Set<Long> ids = idsByType.get(typeCode);
+        return ids == null ? new ArrayList<>() : new ArrayList<>(ids);
+    }
+
+    @Override
+    public Long forEachIdOfType(int typeCode, Long cursor, int limit, LongConsumer action) {
+        NavigableSet<Long> ids = idsByType.get(typeCode);
+        if (ids == null) {
+            return null;
+        }
+        Iterator<Long> iterator = (cursor == null ? ids : ids.tailSet(cursor, false)).iterator();
+        Long last = null;
+        for (int count = 0; count < limit && iterator.hasNext(); count++) {
+            last = iterator.next();
+            action.accept(last);
+        }
+        return iterator.hasNext() ? last : null;
+    }
+
+    @Override
+    public long countByType(int typeCode) {
+        LongAdder count = typeCounts.get(typeCode);
+        return count == null ? 0 : count.sum();
     }
 
     @Override
     public List<Transaction> findByParentId(Long parentId) {
-        return storage.values().stream()
-                .filter(t -> t.getParentId() != null && t.getParentId().equals(parentId))
-                .collect(Collectors.toList());
+        Set<Long> childIds = childrenByParent.get(parentId);
+        if (childIds == null) {
+            return new ArrayList<>();
+        }
+        List<Transaction> children = new ArrayList<>(childIds.size());
+        for (Long childId : childIds) {
+            Transaction child = storage.get(childId);
+            if (child != null) {
+                children.add(child);
+            }
+        }
+        return children;
+    }
+
+    @Override
+    public void forEachChild(Long parentId, Consumer<Transaction> action) {
+        Set<Long> childIds = childrenByParent.get(parentId);
+        if (childIds == null) {
+            return;
+        }
+        for (Long childId : childIds) {
+            Transaction child = storage.get(childId);
+            if (child != null) {
+                action.accept(child);
+            }
+        }
+    }
+
+    @Override
+    public Optional<Transaction> findNextChild(Long parentId, Long afterChildId) {
+        NavigableSet<Long> childIds = childrenByParent.get(parentId);
+        if (childIds == null) {
+            return Optional.empty();
+        }
+        Long childId = afterChildId == null ? first(childIds) : childIds.higher(afterChildId);
+        while (childId != null) {
+            Transaction child = storage.get(childId);
+            if (child != null) {
+                return Optional.of(child);
+            }
+            childId = childIds.higher(childId);
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public int countChildren(Long parentId) {
+        Set<Long> childIds = childrenByParent.get(parentId);
+        return childIds == null ? 0 : childIds.size();
+    }
+
+    @Override
+    public void addToSubtree(Long transactionId, double amount, long nodes) {
+        subtree(transactionId).add(amount, nodes);
+    }
+
+    @Override
+    public Optional<Double> findSubtreeSum(Long transactionId) {
+        SubtreeAggregate subtree = subtrees.get(transactionId);
+        return subtree == null ? Optional.empty() : Optional.of(subtree.sum());
+    }
+
+    @Override
+    public long countSubtreeNodes(Long transactionId) {
+        SubtreeAggregate subtree = subtrees.get(transactionId);
+        return subtree == null ? 0 : subtree.nodes();
+    }
+
+    @Override
+    public void addToSubtreeUnits(Long transactionId, long units) {
+        subtree(transactionId).addUnits(units);
+    }
+
+    @Override
+    public OptionalLong findSubtreeUnits(Long transactionId) {
+        SubtreeAggregate subtree = subtrees.get(transactionId);
+        return subtree == null || subtree.units() == AmountScale.OVERFLOW
+            ? OptionalLong.empty()
+            : OptionalLong.of(subtree.units());
+    }
+
+    @Override
+    public TimeRangeTotals totalsByType(int typeCode, long fromMillis, long toMillis) {
+        return timeBuckets.totals(typeCode, fromMillis, toMillis);
     }
 
     @Override
@@ -45,8 +239,80 @@ public class InMemoryTransactionRepository implements TransactionRepository {
         return new ArrayList<>(storage.values());
     }
 
+    @Override
+    public long count() {
+        return storage.size();
+    }
+
+    @Override
+    public long countParents() {
+        return childrenByParent.size();
+    }
+
     @Override
     public void deleteAll() {
-        storage.clear();
+        clearLock.writeLock().lock();
+        try {
+            storage.clear();
+            childrenByParent.clear();
+            idsByType.clear();
+            typeCounts.clear();
+            subtrees.clear();
+            timeBuckets.clear();
+        } finally {
+            clearLock.writeLock().unlock();
+        }
+    }
+
+    /** first() throws on an empty set, which a concurrent unlink can leave behind for a moment. */
+    private static Long first(NavigableSet<Long> ids) {
+        return ids.ceiling(Long.MIN_VALUE);
+    }
+
+    private SubtreeAggregate subtree(Long transactionId) {
+        return subtrees.computeIfAbsent(transactionId, k -> new SubtreeAggregate());
+    }
+
+    /**
+     * The add happens inside compute(), under the same bin lock as the removal of
+     * an emptied set in unlinkChild, so a link can never land in a dropped set.
+     */
+    private void linkChild(Transaction transaction) {
+        if (transaction.getParentId() != null) {
+            childrenByParent.compute(transaction.getParentId(), (parentId, childIds) -> {
+                NavigableSet<Long> ids = childIds != null ? childIds : new ConcurrentSkipListSet<>();
+                ids.add(transaction.getTransactionId());
+                return ids;
+            });
+        }
+    }
+
+    private void unlinkChild(Transaction transaction) {
+        if (transaction.getParentId() != null) {
+            childrenByParent.computeIfPresent(transaction.getParentId(), (parentId, childIds) -> {
+                childIds.remove(transaction.getTransactionId());
+                return childIds.isEmpty() ? null : childIds;
+            });
+        }
+    }
+
+    /**
+     * Unlike linkChild, the add happens outside the map callback: a handful of
+     * types takes most inserts, and holding the bin lock for each add would
+     * serialize them per type. Type sets are never removed, so an add can never
+     * land in a dropped set, and the count only moves when the set changed.
+     */
+    private void linkType(Transaction transaction) {
+        int typeCode = transaction.getTypeCode();
+        if (idsByType.computeIfAbsent(typeCode, k -> new ConcurrentSkipListSet<>()).add(transaction.getTransactionId())) {
+            typeCounts.computeIfAbsent(typeCode, k -> new LongAdder()).increment();
+        }
+    }
+
+    private void unlinkType(Transaction transaction) {
+        NavigableSet<Long> ids = idsByType.get(transaction.getTypeCode());
+        if (ids != null && ids.remove(transaction.getTransactionId())) {
+            typeCounts.computeIfAbsent(transaction.getTypeCode(), k -> new LongAdder()).decrement();
+        }
     }
 }
@@ -0,0 +1,538 @@
+package com.mendel.mendel_challenge.repository;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+import com.mendel.mendel_challenge.model.Transaction;
+
+/**
+ * Partitions transactions by a hash of their id into independently locked
+ * shards, each holding plain (non-concurrent) maps behind its own read-write
+ * lock. A transaction lives in the shard of its id and is listed as a child in
+ * the shard of its parent's id, so an insert takes at most two shard locks, one
+ * after the other and never both at once; inserts into unrelated trees almost
+ * always land on different shards. Enabled with
+ * {@code transactions.repository.type=sharded}.
+ *
+ * <p>Hashing ids rather than root ids spreads a single large tree over every
+ * shard too, and needs no lookup of the root on insert.
+ */
+@Repository
+@ConditionalOnProperty(name = "transactions.repository.type", havingValue = "sharded")
+public class ShardedTransactionRepository implements TransactionRepository {
+
+    private static final long GOLDEN_RATIO = 0x9E3779B97F4A7C15L;
+    /** Ids of a type each shard hands to a paged merge at a time. */
+    private static final int MERGE_BATCH = 64;
+
+    private final Shard[] shards;
+    private final int mask;
+    /** Shared by all shards; its buckets are concurrent adders. */
+    private final TimeBucketIndex timeBuckets = new TimeBucketIndex();
+
+    public ShardedTransactionRepository(@Value("${transactions.repository.sharded.shards:0}") int shardCount) {
+        int requested = shardCount > 0 ? shardCount : 4 * Runtime.getRuntime().availableProcessors();
+        int size = Integer.highestOneBit(Math.min(requested, 1 << 16));
+        if (size < requested) {
+            size <<= 1;
+        }
+        this.shards = new Shard[size];
+        this.mask = size - 1;
+        for (int i = 0; i < size; i++) {
+            shards[i] = new Shard();
+        }
+    }
+
+    int shardCount() {
+        return shards.length;
+    }
+
+    /**
+     * Stores the transaction in its shard, then links it under its parent. A
+     * replaced transaction is unlinked from its old parent first.
+     */
+    @Override
+    public void save(Transaction transaction) {
+        long id = transaction.getTransactionId();
+        Shard shard = shardFor(id);
+        Transaction previous;
+        shard.lock.writeLock().lock();
+        try {
+            previous = shard.transactions.put(id, transaction);
+            if (previous != null) {
+                shard.unlinkType(previous);
+                timeBuckets.remove(previous.getTypeCode(), previous.getCreatedAt(), previous.getAmount());
+                shard.subtree(id).add(transaction.getAmount() - previous.getAmount(), 0);
+            } else {
+                shard.subtree(id).add(transaction.getAmount(), 1);
+            }
+            shard.linkType(transaction);
+            timeBuckets.add(transaction.getTypeCode(), transaction.getCreatedAt(), transaction.getAmount());
+        } finally {
+            shard.lock.writeLock().unlock();
+        }
+        if (previous != null) {
+            unlinkChild(previous);
+        }
+        linkChild(transaction);
+    }
+
+    @Override
+    public boolean saveIfAbsent(Transaction transaction) {
+        long id = transaction.getTransactionId();
+        Shard shard = shardFor(id);
+        shard.lock.writeLock().lock();
+        try {
+            if (shard.transactions.putIfAbsent(id, transaction) != null) {
+                return false;
+            }
+            shard.subtree(id).add(transaction.getAmount(), 1);
+            shard.linkType(transaction);
+            timeBuckets.add(transaction.getTypeCode(), transaction.getCreatedAt(), transaction.getAmount());
+        } finally {
+            shard.lock.writeLock().unlock();
+        }
+        linkChild(transaction);
+        return true;
+    }
+
+    @Override
+    public Optional<Transaction> findById(Long id) {
+        Shard shard = shardFor(id);
+        shard.lock.readLock().lock();
+        try {
+            return Optional.ofNullable(shard.transactions.get(id));
+        } finally {
+            shard.lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Transaction> findByType(int typeCode) {
+        List<Transaction> transactions = new ArrayList<>();
+        for (Shard shard : shards) {
+            shard.lock.readLock().lock();
+            try {
+                Set<Long> ids = shard.idsByType.get(typeCode);
+                if (ids != null) {
+                    for (Long id : ids) {
+                        transactions.add(shard.transactions.get(id));
+                    }
+                }
+            } finally {
+                shard.lock.readLock().unlock();
+            }
+        }
+        transactions.sort(Comparator.comparing(Transaction::getTransactionId));
+        return transactions;
+    }
+
+    @Override
+    public List<Long> findIdsByType(int typeCode) {
+        List<Long> ids = new ArrayList<>();
+        for (Shard shard : shards) {
+            shard.lock.readLock().lock();
+            try {
+                Set<Long> shardIds = shard.idsByType.get(typeCode);
+                if (shardIds != null) {
+                    ids.addAll(shardIds);
+                }
+            } finally {
+                shard.lock.readLock().unlock();
+            }
+        }
+        ids.sort(null);
+        return ids;
+    }
+
+    /**
+     * Ids come out in ascending order and the cursor is the last id passed, as in
+     * {@link InMemoryTransactionRepository}. The shards' sorted id sets are merged
+     * through a heap; each shard hands over small batches, read under its lock and
+     * refilled from where the last batch ended, so a page costs
+     * O(shards x batch) memory whatever the limit.
+     */
+    @Override
+    public Long forEachIdOfType(int typeCode, Long cursor, int limit, LongConsumer action) {
+        int batchSize = Math.max(1, Math.min(limit, MERGE_BATCH));
+        PriorityQueue<ShardCursor> heads = new PriorityQueue<>(shards.length, Comparator.comparingLong(ShardCursor::head));
+        for (Shard shard : shards) {
+            ShardCursor shardCursor = new ShardCursor(shard, typeCode, cursor, batchSize);
+            if (shardCursor.advance()) {
+                heads.add(shardCursor);
+            }
+        }
+        Long last = null;
+        for (int passed = 0; passed < limit && !heads.isEmpty(); passed++) {
+            ShardCursor head = heads.poll();
+            last = head.head();
+            action.accept(last);
+            if (head.advance()) {
+                heads.add(head);
+            }
+        }
+        return heads.isEmpty() ? null : last;
+    }
+
+    @Override
+    public long countByType(int typeCode) {
+        long count = 0;
+        for (Shard shard : shards) {
+            shard.lock.readLock().lock();
+            try {
+                Set<Long> ids = shard.idsByType.get(typeCode);
+                count += ids == null ? 0 : ids.size();
+            } finally {
+                shard.lock.readLock().unlock();
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public List<Transaction> findByParentId(Long parentId) {
+        List<Transaction> children = new ArrayList<>();
+        forEachChild(parentId, children::add);
+        return children;
+    }
+
+    /** Children are resolved in their own shards after the parent's shard lock is released. */
+    @Override
+    public void forEachChild(Long parentId, Consumer<Transaction> action) {
+        for (long childId : childIdsOf(parentId)) {
+            Shard shard = shardFor(childId);
+            Transaction child;
+            shard.lock.readLock().lock();
+            try {
+                child = shard.transactions.get(childId);
+            } finally {
+                shard.lock.readLock().unlock();
+            }
+            if (child != null) {
+                action.accept(child);
+            }
+        }
+    }
+
+    /** The next child id is read under the parent's shard lock, the child itself under its own. */
+    @Override
+    public Optional<Transaction> findNextChild(Long parentId, Long afterChildId) {
+        Long childId = afterChildId;
+        while (true) {
+            Shard parentShard = shardFor(parentId);
+            parentShard.lock.readLock().lock();
+            try {
+                NavigableSet<Long> childIds = parentShard.childrenByParent.get(parentId);
+                childId = childIds == null ? null
+                    : childId == null ? childIds.first() : childIds.higher(childId);
+            } finally {
+                parentShard.lock.readLock().unlock();
+            }
+            if (childId == null) {
+                return Optional.empty();
+            }
+            Shard shard = shardFor(childId);
+            shard.lock.readLock().lock();
+            try {
+                Transaction child = shard.transactions.get(childId);
+                if (child != null) {
+                    return Optional.of(child);
+                }
+            } finally {
+                shard.lock.readLock().unlock();
+            }
+        }
+    }
+
+    @Override
+    public int countChildren(Long parentId) {
+        Shard shard = shardFor(parentId);
+        shard.lock.readLock().lock();
+        try {
+            Set<Long> childIds = shard.childrenByParent.get(parentId);
+            return childIds == null ? 0 : childIds.size();
+        } finally {
+            shard.lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void addToSubtree(Long transactionId, double amount, long nodes) {
+        Shard shard = shardFor(transactionId);
+        shard.lock.readLock().lock();
+        try {
+            shard.subtree(transactionId).add(amount, nodes);
+        } finally {
+            shard.lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Optional<Double> findSubtreeSum(Long transactionId) {
+        Shard shard = shardFor(transactionId);
+        shard.lock.readLock().lock();
+        try {
+            SubtreeAggregate subtree = shard.subtrees.get(transactionId);
+            return subtree == null ? Optional.empty() : Optional.of(subtree.sum());
+        } finally {
+            shard.lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public long countSubtreeNodes(Long transactionId) {
+        Shard shard = shardFor(transactionId);
+        shard.lock.readLock().lock();
+        try {
+            SubtreeAggregate subtree = shard.subtrees.get(transactionId);
+            return subtree == null ? 0 : subtree.nodes();
+        } finally {
+            shard.lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void addToSubtreeUnits(Long transactionId, long units) {
+        Shard shard = shardFor(transactionId);
+        shard.lock.readLock().lock();
+        try {
+            shard.subtree(transactionId).addUnits(units);
+        } finally {
+            shard.lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public OptionalLong findSubtreeUnits(Long transactionId) {
+        Shard shard = shardFor(transactionId);
+        shard.lock.readLock().lock();
+        try {
+            SubtreeAggregate subtree = shard.subtrees.get(transactionId);
+            return subtree == null || subtree.units() == AmountScale.OVERFLOW
+                ? OptionalLong.empty()
+                : OptionalLong.of(subtree.units());
+        } finally {
+            shard.lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public TimeRangeTotals totalsByType(int typeCode, long fromMillis, long toMillis) {
+        return timeBuckets.totals(typeCode, fromMillis, toMillis);
+    }
+
+    @Override
+    public List<Transaction> findAll() {
+        List<Transaction> transactions = new ArrayList<>();
+        for (Shard shard : shards) {
+            shard.lock.readLock().lock();
+            try {
+                transactions.addAll(shard.transactions.values());
+            } finally {
+                shard.lock.readLock().unlock();
+            }
+        }
+        return transactions;
+    }
+
+    @Override
+    public long count() {
+        long count = 0;
+        for (Shard shard : shards) {
+            shard.lock.readLock().lock();
+            try {
+                count += shard.transactions.size();
+            } finally {
+                shard.lock.readLock().unlock();
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public long countParents() {
+        long count = 0;
+        for (Shard shard : shards) {
+            shard.lock.readLock().lock();
+            try {
+                count += shard.childrenByParent.size();
+            } finally {
+                shard.lock.readLock().unlock();
+            }
+        }
+        return count;
+    }
+
+    /** Takes every write lock in shard order, so the store is cleared atomically. */
+    @Override
+    public void deleteAll() {
+        for (Shard shard : shards) {
+            shard.lock.writeLock().lock();
+        }
+        try {
+            for (Shard shard : shards) {
+                shard.clear();
+            }
+            timeBuckets.clear();
+        } finally {
+            for (int i = shards.length - 1; i >= 0; i--) {
+                shards[i].lock.writeLock().unlock();
+            }
+        }
+    }
+
+    private Shard shardFor(long id) {
+        return shards[(int) ((id * GOLDEN_RATIO) >>> 32) & mask];
+    }
+
+    private long[] childIdsOf(Long parentId) {
+        Shard shard = shardFor(parentId);
+        shard.lock.readLock().lock();
+        try {
+            Set<Long> childIds = shard.childrenByParent.get(parentId);
+            if (childIds == null) {
+                return new long[0];
+            }
+            long[] copy = new long[childIds.size()];
+            int i = 0;
+            for (Long childId : childIds) {
+                copy[i++] = childId;
+            }
+            return copy;
+        } finally {
+            shard.lock.readLock().unlock();
+        }
+    }
+
+    private void linkChild(Transaction transaction) {
+        Long parentId = transaction.getParentId();
+        if (parentId == null) {
+            return;
+        }
+        Shard shard = shardFor(parentId);
+        shard.lock.writeLock().lock();
+        try {
+            shard.childrenByParent.computeIfAbsent(parentId, k -> new TreeSet<>()).add(transaction.getTransactionId());
+        } finally {
+            shard.lock.writeLock().unlock();
+        }
+    }
+
+    private void unlinkChild(Transaction transaction) {
+        Long parentId = transaction.getParentId();
+        if (parentId == null) {
+            return;
+        }
+        Shard shard = shardFor(parentId);
+        shard.lock.writeLock().lock();
+        try {
+            shard.childrenByParent.computeIfPresent(parentId, (k, childIds) -> {
+                childIds.remove(transaction.getTransactionId());
+                return childIds.isEmpty() ? null : childIds;
+            });
+        } finally {
+            shard.lock.writeLock().unlock();
+        }
+    }
+
+    /** One shard's position in a paged merge of its ids of a type. */
+    private static final class ShardCursor {
+
+        private final Shard shard;
+        private final int typeCode;
+        private final long[] batch;
+        private Long after;
+        private int position;
+        private int count;
+
+        ShardCursor(Shard shard, int typeCode, Long after, int batchSize) {
+            this.shard = shard;
+            this.typeCode = typeCode;
+            this.after = after;
+            this.batch = new long[batchSize];
+        }
+
+        long head() {
+            return batch[position];
+        }
+
+        /** Moves to the next id, reading another batch under the shard lock when this one is used up. */
+        boolean advance() {
+            if (++position < count) {
+                return true;
+            }
+            position = 0;
+            count = 0;
+            shard.lock.readLock().lock();
+            try {
+                NavigableSet<Long> ids = shard.idsByType.get(typeCode);
+                if (ids != null) {
+                    Iterator<Long> iterator = (after == null ? ids : ids.tailSet(after, false)).iterator();
+                    while (count < batch.length && iterator.hasNext()) {
+                        batch[count++] = iterator.next();
+                    }
+                }
+            } finally {
+                shard.lock.readLock().unlock();
+            }
+            if (count > 0) {
+                after = batch[count - 1];
+            }
+            return count > 0;
+        }
+    }
+
+    private static final class Shard {
+
+        final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        final Map<Long, Transaction> transactions = new HashMap<>();
+        /**
+         * Children of the parents whose id hashes to this shard, wherever the children
+         * live; sorted so that a tree walk can step from one child to the next.
+         */
+        final Map<Long, NavigableSet<Long>> childrenByParent = new HashMap<>();
+        final Map<Integer, NavigableSet<Long>> idsByType = new HashMap<>();
+        /** Concurrent so that propagations can create and add to aggregates under the read lock. */
+        final Map<Long, SubtreeAggregate> subtrees = new ConcurrentHashMap<>();
+
+        SubtreeAggregate subtree(Long transactionId) {
+            return subtrees.computeIfAbsent(transactionId, k -> new SubtreeAggregate());
+        }
+
+        void linkType(Transaction transaction) {
+            idsByType.computeIfAbsent(transaction.getTypeCode(), k -> new TreeSet<>()).add(transaction.getTransactionId());
+        }
+
+        void unlinkType(Transaction transaction) {
+            idsByType.computeIfPresent(transaction.getTypeCode(), (typeCode, ids) -> {
+                ids.remove(transaction.getTransactionId());
+                return ids.isEmpty() ? null : ids;
+            });
+        }
+
+        void clear() {
+            transactions.clear();
+            childrenByParent.clear();
+            idsByType.clear();
+            subtrees.clear();
+        }
+    }
+}
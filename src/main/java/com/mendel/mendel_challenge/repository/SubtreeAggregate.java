@@ -0,0 +1,57 @@
+package com.mendel.mendel_challenge.repository;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Materialized totals of one node's subtree (the node plus every descendant):
+ * amount sum and node count, plus the exact total in minor units when the
+ * exact-amount mode feeds it. Adders keep concurrent propagations from
+ * different children of the same node lock-free; the unit total needs an
+ * overflow check per add, so it is a CAS loop on a plain field instead.
+ */
+final class SubtreeAggregate {
+
+    private static final VarHandle UNITS;
+
+    static {
+        try {
+            UNITS = MethodHandles.lookup().findVarHandle(SubtreeAggregate.class, "units", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final DoubleAdder sum = new DoubleAdder();
+    private final LongAdder nodes = new LongAdder();
+    private volatile long units;
+
+    void add(double amount, long nodeCount) {
+        sum.add(amount);
+        if (nodeCount != 0) {
+            nodes.add(nodeCount);
+        }
+    }
+
+    void addUnits(long delta) {
+        long current;
+        do {
+            current = units;
+        } while (current != AmountScale.OVERFLOW
+            && !UNITS.compareAndSet(this, current, AmountScale.addUnits(current, delta)));
+    }
+
+    double sum() {
+        return sum.sum();
+    }
+
+    long nodes() {
+        return nodes.sum();
+    }
+
+    long units() {
+        return units;
+    }
+}
@@ -0,0 +1,98 @@
+package com.mendel.mendel_challenge.repository;
+
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Count and amount total per type per minute of ingest time, rolled up into
+ * per-hour buckets as they are updated. A range query reads the hour buckets
+ * it covers whole and the minute buckets at its two edges, so it costs at most
+ * 118 minute buckets plus one per hour, whatever the number of transactions.
+ * Ranges have minute resolution: both bounds are truncated to the minute.
+ *
+ * <p>Buckets are adders in concurrent maps, so the owning repository may
+ * update them under a shared lock. Transactions without an ingest time
+ * (restored from logs written before timestamps were recorded) are not
+ * bucketed.
+ */
+final class TimeBucketIndex {
+
+    static final long MINUTE_MILLIS = 60_000L;
+    private static final long MINUTES_PER_HOUR = 60;
+
+    private final Map<Integer, TypeBuckets> bucketsByType = new ConcurrentHashMap<>();
+
+    void add(int typeCode, long createdAt, double amount) {
+        update(typeCode, createdAt, 1, amount);
+    }
+
+    void remove(int typeCode, long createdAt, double amount) {
+        update(typeCode, createdAt, -1, -amount);
+    }
+
+    /** Totals of the transactions ingested in {@code [fromMillis, toMillis)}, at minute resolution. */
+    TimeRangeTotals totals(int typeCode, long fromMillis, long toMillis) {
+        TypeBuckets buckets = bucketsByType.get(typeCode);
+        long fromMinute = Math.floorDiv(fromMillis, MINUTE_MILLIS);
+        long toMinute = Math.floorDiv(toMillis, MINUTE_MILLIS);
+        if (buckets == null || fromMinute >= toMinute) {
+            return TimeRangeTotals.EMPTY;
+        }
+        Totals totals = new Totals();
+        long firstWholeHour = Math.ceilDiv(fromMinute, MINUTES_PER_HOUR);
+        long endWholeHour = Math.floorDiv(toMinute, MINUTES_PER_HOUR);
+        if (firstWholeHour < endWholeHour) {
+            totals.add(buckets.minutes.subMap(fromMinute, firstWholeHour * MINUTES_PER_HOUR));
+            totals.add(buckets.hours.subMap(firstWholeHour, endWholeHour));
+            totals.add(buckets.minutes.subMap(endWholeHour * MINUTES_PER_HOUR, toMinute));
+        } else {
+            totals.add(buckets.minutes.subMap(fromMinute, toMinute));
+        }
+        return new TimeRangeTotals(totals.count, totals.sum);
+    }
+
+    void clear() {
+        bucketsByType.clear();
+    }
+
+    private void update(int typeCode, long createdAt, long count, double amount) {
+        if (createdAt <= 0) {
+            return;
+        }
+        long minute = Math.floorDiv(createdAt, MINUTE_MILLIS);
+        TypeBuckets buckets = bucketsByType.computeIfAbsent(typeCode, k -> new TypeBuckets());
+        buckets.minutes.computeIfAbsent(minute, k -> new Bucket()).add(count, amount);
+        buckets.hours.computeIfAbsent(Math.floorDiv(minute, MINUTES_PER_HOUR), k -> new Bucket()).add(count, amount);
+    }
+
+    private static final class TypeBuckets {
+        private final ConcurrentSkipListMap<Long, Bucket> minutes = new ConcurrentSkipListMap<>();
+        private final ConcurrentSkipListMap<Long, Bucket> hours = new ConcurrentSkipListMap<>();
+    }
+
+    private static final class Bucket {
+        private final LongAdder count = new LongAdder();
+        private final DoubleAdder sum = new DoubleAdder();
+
+        void add(long transactions, double amount) {
+            count.add(transactions);
+            sum.add(amount);
+        }
+    }
+
+    private static final class Totals {
+        private long count;
+        private double sum;
+
+        void add(NavigableMap<Long, Bucket> buckets) {
+            for (Bucket bucket : buckets.values()) {
+                count += bucket.count.sum();
+                sum += bucket.sum.sum();
+            }
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.mendel.mendel_challenge.repository;
+
+/** Number and amount total of the transactions of one type ingested in a time range. */
+public record TimeRangeTotals(long count, double sum) {
+
+    public static final TimeRangeTotals EMPTY = new TimeRangeTotals(0, 0.0);
+}
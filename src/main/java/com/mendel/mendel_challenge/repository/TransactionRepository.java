@@ -2,14 +2,76 @@ package com.mendel.mendel_challenge.repository;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
 
 import com.mendel.mendel_challenge.model.Transaction;
 
 public interface TransactionRepository {
     void save(Transaction transaction);
+    boolean saveIfAbsent(Transaction transaction);
     Optional<Transaction> findById(Long id);
-    List<Transaction> findByType(String type);
+    List<Transaction> findByType(int typeCode);
+    List<Long> findIdsByType(int typeCode);
+
+    /**
+     * Passes up to {@code limit} ids of the type that follow {@code cursor} to the
+     * action, in an order the repository keeps stable while transactions are
+     * inserted. A null cursor starts at the beginning. Ids inserted during a scan
+     * may or may not be returned.
+     *
+     * @return the cursor to resume after the last id passed, or null when no ids remain
+     * @throws IllegalArgumentException if the cursor does not belong to this type
+     */
+    Long forEachIdOfType(int typeCode, Long cursor, int limit, LongConsumer action);
+
+    long countByType(int typeCode);
     List<Transaction> findByParentId(Long parentId);
+    void forEachChild(Long parentId, Consumer<Transaction> action);
+
+    /**
+     * Returns the child of the parent that follows {@code afterChildId}, or the
+     * first child when it is null, in an order the repository keeps stable while
+     * transactions are inserted. Walking a tree one child at a time this way needs
+     * no copy of a child list. Children inserted during a walk may or may not be
+     * returned.
+     */
+    Optional<Transaction> findNextChild(Long parentId, Long afterChildId);
+
+    int countChildren(Long parentId);
+
+    /**
+     * Adds to the materialized subtree sum and node count of a transaction.
+     * Saving a new transaction already counts its own amount and the node itself.
+     */
+    void addToSubtree(Long transactionId, double amount, long nodes);
+
+    Optional<Double> findSubtreeSum(Long transactionId);
+
+    /** Nodes in the transaction's subtree, itself included; 0 if it is unknown. */
+    long countSubtreeNodes(Long transactionId);
+
+    /**
+     * Adds minor units to the exact subtree total kept for the exact-amount mode.
+     * Unlike sums and counts, saving does not seed it; callers add each node's
+     * own units too. Totals that overflow a long stay overflowed.
+     */
+    void addToSubtreeUnits(Long transactionId, long units);
+
+    /** Exact subtree total in minor units; empty if the transaction is unknown or its total overflowed. */
+    OptionalLong findSubtreeUnits(Long transactionId);
+
+
+    /**
+     * Count and amount total of the transactions of the type ingested in
+     * {@code [fromMillis, toMillis)}, answered from per-minute and per-hour
+     * buckets. Both bounds are truncated to the minute.
+     */
+    TimeRangeTotals totalsByType(int typeCode, long fromMillis, long toMillis);
+
     List<Transaction> findAll();
+    long count();
+    long countParents();
     void deleteAll();
 }
\ No newline at end of file
@@ -0,0 +1,75 @@
+package com.mendel.mendel_challenge.repository;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Canonical dictionary of transaction types. Names are case-folded and mapped
+ * to dense int codes, so stored transactions share one String per type and
+ * type matching is an int compare. Codes are never reused or removed, so
+ * callers register a name only for a write that will be stored.
+ */
+@Component
+public class TransactionTypeRegistry {
+
+    public static final int UNKNOWN = -1;
+
+    private final Map<String, Integer> codesByName = new ConcurrentHashMap<>();
+    private final ReentrantLock registerLock = new ReentrantLock();
+    /** Names by code; grows by doubling, and only the first {@link #size} slots are set. */
+    private volatile String[] names = new String[16];
+    private volatile int size;
+
+    /** Returns the code for the type, registering it on first use. */
+    public int resolve(String type) {
+        String name = normalize(type);
+        Integer code = codesByName.get(name);
+        if (code != null) {
+            return code;
+        }
+        registerLock.lock();
+        try {
+            code = codesByName.get(name);
+            if (code == null) {
+                code = size;
+                String[] current = names;
+                if (code == current.length) {
+                    current = Arrays.copyOf(current, code * 2);
+                }
+                current[code] = name;
+                names = current;
+                // published through the map and size only once the slot is set
+                codesByName.put(name, code);
+                size = code + 1;
+            }
+            return code;
+        } finally {
+            registerLock.unlock();
+        }
+    }
+
+    /** Returns the code for an already registered type, or {@link #UNKNOWN}. */
+    public int find(String type) {
+        Integer code = codesByName.get(normalize(type));
+        return code == null ? UNKNOWN : code;
+    }
+
+    public String nameOf(int code) {
+        return names[code];
+    }
+
+    public List<String> names() {
+        int count = size;
+        return List.of(Arrays.copyOf(names, count));
+    }
+
+    private static String normalize(String type) {
+        return type.toUpperCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,141 @@
+package com.mendel.mendel_challenge.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mendel.mendel_challenge.dto.BulkTransactionItemRequest;
+import com.mendel.mendel_challenge.dto.BulkTransactionItemResult;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+/**
+ * Streams a bulk ingest body (a JSON array or newline-delimited JSON objects)
+ * through the service in fixed-size chunks and streams the per-item results
+ * back, so neither the request nor the response is ever held in memory whole.
+ */
+@Component
+public class BulkTransactionIngester {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkTransactionIngester.class);
+
+    private final TransactionService transactionService;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final int chunkSize;
+
+    public BulkTransactionIngester(TransactionService transactionService,
+                                   ObjectMapper objectMapper,
+                                   Validator validator,
+                                   @Value("${transactions.bulk.chunk-size:1000}") int chunkSize) {
+        this.transactionService = transactionService;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.chunkSize = Math.max(1, chunkSize);
+    }
+
+    /**
+     * Writes {@code {"results":[...],"accepted":n,"rejected":m}} to the output,
+     * plus an {@code "error"} field if the body stopped being valid JSON. Items
+     * failing field validation are reported as soon as they are read, the rest
+     * when their chunk is applied, so results carry their item index. If a
+     * chunk fails, the exception propagates and the output is left truncated,
+     * so the client cannot mistake it for a complete result.
+     */
+    public void ingest(InputStream body, OutputStream output) throws IOException {
+        long index = 0;
+        long accepted = 0;
+        String error = null;
+
+        long rejected;
+        try (JsonParser parser = objectMapper.createParser(body);
+             JsonGenerator generator = objectMapper.createGenerator(output)) {
+            // a failure mid-stream leaves the body truncated instead of closing it as if complete
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT);
+            generator.writeStartObject();
+            generator.writeArrayFieldStart("results");
+
+            List<BulkTransactionItemRequest> chunk = new ArrayList<>(chunkSize);
+            List<Long> chunkIndexes = new ArrayList<>(chunkSize);
+            try {
+                JsonToken token = parser.nextToken();
+                boolean array = token == JsonToken.START_ARRAY;
+                if (array) {
+                    token = parser.nextToken();
+                }
+                while (token != null && token != JsonToken.END_ARRAY) {
+                    BulkTransactionItemRequest item = parser.readValueAs(BulkTransactionItemRequest.class);
+                    String violation = item == null ? "Item must be a JSON object" : firstViolation(item);
+                    if (violation != null) {
+                        writeResult(generator, index,
+                            BulkTransactionItemResult.error(item == null ? null : item.getTransactionId(), violation));
+                    } else {
+                        chunk.add(item);
+                        chunkIndexes.add(index);
+                        if (chunk.size() == chunkSize) {
+                            accepted += applyChunk(generator, chunk, chunkIndexes);
+                        }
+                    }
+                    index++;
+                    token = parser.nextToken();
+                }
+            } catch (JsonProcessingException e) {
+                error = "Malformed bulk body at item " + index + ": " + e.getOriginalMessage();
+            }
+            accepted += applyChunk(generator, chunk, chunkIndexes);
+            rejected = index - accepted;
+
+            generator.writeEndArray();
+            generator.writeNumberField("accepted", accepted);
+            generator.writeNumberField("rejected", rejected);
+            if (error != null) {
+                generator.writeStringField("error", error);
+            }
+            generator.writeEndObject();
+        }
+        logger.info("Bulk ingest finished: items={}, accepted={}, rejected={}", index, accepted, rejected);
+    }
+
+    private long applyChunk(JsonGenerator generator, List<BulkTransactionItemRequest> chunk,
+                            List<Long> chunkIndexes) throws IOException {
+        if (chunk.isEmpty()) {
+            return 0;
+        }
+        List<BulkTransactionItemResult> results = transactionService.putNewTransactions(chunk);
+        long accepted = 0;
+        for (int i = 0; i < results.size(); i++) {
+            BulkTransactionItemResult result = results.get(i);
+            writeResult(generator, chunkIndexes.get(i), result);
+            if (BulkTransactionItemResult.STATUS_OK.equals(result.getStatus())) {
+                accepted++;
+            }
+        }
+        chunk.clear();
+        chunkIndexes.clear();
+        return accepted;
+    }
+
+    private void writeResult(JsonGenerator generator, long index, BulkTransactionItemResult result) throws IOException {
+        result.setIndex(index);
+        generator.writeObject(result);
+    }
+
+    private String firstViolation(BulkTransactionItemRequest item) {
+        Set<ConstraintViolation<BulkTransactionItemRequest>> violations = validator.validate(item);
+        return violations.isEmpty() ? null : violations.iterator().next().getMessage();
+    }
+}
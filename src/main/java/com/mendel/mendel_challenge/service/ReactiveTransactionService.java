@@ -0,0 +1,207 @@
+package com.mendel.mendel_challenge.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Service;
+
+import com.mendel.mendel_challenge.dto.GetSumTransactionResponse;
+import com.mendel.mendel_challenge.dto.GetSumsTransactionResponse;
+import com.mendel.mendel_challenge.dto.GetTransactionChangesResponse;
+import com.mendel.mendel_challenge.dto.GetTransactionResponse;
+import com.mendel.mendel_challenge.dto.GetTransactionTotalsResponse;
+import com.mendel.mendel_challenge.dto.GetTransactionTypesResponse;
+import com.mendel.mendel_challenge.dto.GetTransactionsByTypeResponse;
+import com.mendel.mendel_challenge.dto.PutNewTransactionRequest;
+import com.mendel.mendel_challenge.dto.PutNewTransactionResponse;
+import com.mendel.mendel_challenge.dto.SubtreeNode;
+import com.mendel.mendel_challenge.dto.TransactionChange;
+import com.mendel.mendel_challenge.exception.ChangeFeedExpiredException;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Non-blocking facade over {@link TransactionService} for the WebFlux stack.
+ * Reads only touch in-memory indexes and complete on the calling event-loop
+ * thread. Writes can wait for the journal's fsync, so they run on the
+ * bounded elastic scheduler and never stall the event loop.
+ */
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveTransactionService {
+
+    /** Type ids fetched per downstream request when streaming. */
+    private static final int STREAM_PAGE_SIZE = 4096;
+    private static final int BULK_READ_AHEAD_BUFFERS = 4;
+    private static final int CHANGES_PAGE_SIZE = 1000;
+
+    private final TransactionService transactionService;
+    private final BulkTransactionIngester bulkTransactionIngester;
+    private final TransactionChangeFeed changeFeed;
+    private final Scheduler blockingScheduler = Schedulers.boundedElastic();
+    private final long heartbeatMillis;
+
+    public ReactiveTransactionService(TransactionService transactionService,
+                                      BulkTransactionIngester bulkTransactionIngester,
+                                      TransactionChangeFeed changeFeed,
+                                      @Value("${transactions.feed.heartbeat:15s}") Duration heartbeat) {
+        this.transactionService = transactionService;
+        this.bulkTransactionIngester = bulkTransactionIngester;
+        this.changeFeed = changeFeed;
+        this.heartbeatMillis = Math.clamp(heartbeat.toMillis(), 1, 60_000);
+    }
+
+    public Mono<PutNewTransactionResponse> putNewTransaction(PutNewTransactionRequest request, long transactionId) {
+        return Mono.fromCallable(() -> transactionService.putNewTransaction(request, transactionId))
+            .subscribeOn(blockingScheduler);
+    }
+
+    /**
+     * Streams the bulk body through {@link BulkTransactionIngester} on the
+     * blocking scheduler. The request is read at most a few buffers ahead of
+     * the ingester, and results are emitted as the ingester writes them. An
+     * unfinished recovery fails the flux before its first buffer, so the
+     * client gets a 503 instead of a committed 200.
+     */
+    public Flux<DataBuffer> putNewTransactions(Flux<DataBuffer> body, DataBufferFactory bufferFactory) {
+        return Flux.defer(() -> {
+            transactionService.ensureRecovered();
+            return DataBufferUtils.outputStreamPublisher(output -> {
+                try (InputStream input = DataBufferUtils.subscriberInputStream(body, BULK_READ_AHEAD_BUFFERS)) {
+                    bulkTransactionIngester.ingest(input, output);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }, bufferFactory, blockingScheduler::schedule);
+        });
+    }
+
+    public Mono<GetTransactionsByTypeResponse> getTransactionsByType(String type) {
+        return Mono.fromSupplier(() -> transactionService.getTransactionsByType(type));
+    }
+
+    public Mono<GetTransactionsByTypeResponse> getTransactionsByType(String type, String cursor, int limit) {
+        return Mono.fromSupplier(() -> transactionService.getTransactionsByType(type, cursor, limit));
+    }
+
+    /**
+     * Every id of the type, one page of the type index per downstream request,
+     * so a slow client holds back the scan instead of buffering the whole list.
+     * The first page is emitted even when empty,
+     * so an error such as an unfinished recovery surfaces before any output.
+     */
+    public Flux<List<Long>> getTransactionIdPagesByType(String type) {
+        return Flux.<List<Long>, PageState>generate(PageState::new, (state, sink) -> {
+            GetTransactionsByTypeResponse page =
+                transactionService.getTransactionsByType(type, state.cursor, STREAM_PAGE_SIZE);
+            sink.next(page.getTransactionIds());
+            if (page.getNextCursor() == null) {
+                sink.complete();
+            }
+            state.cursor = page.getNextCursor();
+            return state;
+        });
+    }
+
+    public Mono<GetTransactionTypesResponse> getTransactionTypes() {
+        return Mono.fromSupplier(transactionService::getTransactionTypes);
+    }
+
+    public Mono<GetTransactionTotalsResponse> getTransactionTotals(String type, Instant from, Instant to) {
+        return Mono.fromSupplier(() -> transactionService.getTransactionTotals(type, from, to));
+    }
+
+    public Mono<GetTransactionResponse> getTransaction(Long transactionId) {
+        return Mono.fromSupplier(() -> transactionService.getTransaction(transactionId));
+    }
+
+    /**
+     * The subtree walk is pulled one node per downstream request, so a slow
+     * client holds back the walk instead of buffering the subtree. Invalid
+     * arguments or an unknown transaction fail before the first node.
+     */
+    public Flux<SubtreeNode> getSubtree(Long transactionId, String order, int limit, Integer maxDepth) {
+        return Flux.fromStream(() -> transactionService.streamSubtree(transactionId, order, limit, maxDepth));
+    }
+
+    public Mono<GetSumTransactionResponse> getSumByTransactionId(Long transactionId) {
+        return Mono.fromSupplier(() -> transactionService.getSumByTransactionId(transactionId));
+    }
+
+    public Mono<GetSumsTransactionResponse> getSumsByTransactionIds(List<Long> transactionIds) {
+        return Mono.fromSupplier(() -> transactionService.getSumsByTransactionIds(transactionIds));
+    }
+
+    /** Long polls wait on the feed, so they run on the blocking scheduler. */
+    public Mono<GetTransactionChangesResponse> getTransactionChanges(Long after, int limit, long waitMillis) {
+        return Mono.fromCallable(() -> transactionService.getTransactionChanges(after, limit, waitMillis))
+            .subscribeOn(blockingScheduler);
+    }
+
+    /**
+     * Server-sent events for the inserts after {@code after}, or from now on
+     * when it is absent: the feed is long-polled a page at a time on the
+     * blocking scheduler, one poll per page, and each insert becomes a
+     * {@code transaction} event whose id is its sequence. An idle heartbeat
+     * yields a comment. The first page is read before anything is emitted, so a
+     * disabled or expired feed fails the request with its usual status; falling
+     * behind later ends the stream with an {@code expired} event. Each stream
+     * holds one of the feed's subscriber slots, so too many get 503.
+     */
+    public Flux<ServerSentEvent<Object>> streamTransactionChanges(Long after) {
+        return Flux.using(() -> {
+            changeFeed.openSubscription();
+            return changeFeed;
+        }, feed -> changes(after), TransactionChangeFeed::closeSubscription);
+    }
+
+    private Flux<ServerSentEvent<Object>> changes(Long after) {
+        return Mono.fromSupplier(() -> transactionService.getTransactionChanges(after, CHANGES_PAGE_SIZE, 0))
+            .flatMapMany(first -> {
+                AtomicLong cursor = new AtomicLong(first.getLastSequence());
+                Flux<GetTransactionChangesResponse> next = Mono.fromCallable(() ->
+                        transactionService.getTransactionChanges(cursor.get(), CHANGES_PAGE_SIZE, heartbeatMillis))
+                    .subscribeOn(blockingScheduler)
+                    .doOnNext(page -> cursor.set(page.getLastSequence()))
+                    .repeat();
+                return Flux.concat(Mono.just(first), next)
+                    .concatMapIterable(ReactiveTransactionService::toEvents)
+                    .onErrorResume(ChangeFeedExpiredException.class, e -> Mono.just(
+                        ServerSentEvent.builder().event("expired").data((Object) e.getMessage()).build()));
+            });
+    }
+
+    private static List<ServerSentEvent<Object>> toEvents(GetTransactionChangesResponse page) {
+        if (page.getChanges().isEmpty()) {
+            return List.of(ServerSentEvent.builder().comment("heartbeat").build());
+        }
+        List<ServerSentEvent<Object>> events = new ArrayList<>(page.getChanges().size());
+        for (TransactionChange change : page.getChanges()) {
+            events.add(ServerSentEvent.builder()
+                .event("transaction")
+                .id(Long.toString(change.getSequence()))
+                .data((Object) change)
+                .build());
+        }
+        return events;
+    }
+
+    private static final class PageState {
+        private String cursor;
+    }
+}
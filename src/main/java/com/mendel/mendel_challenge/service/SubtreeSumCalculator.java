@@ -0,0 +1,268 @@
+package com.mendel.mendel_challenge.service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.mendel.mendel_challenge.model.Transaction;
+import com.mendel.mendel_challenge.repository.AmountScale;
+import com.mendel.mendel_challenge.repository.TransactionRepository;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Recomputes subtree totals by walking the parent -> children index with an
+ * explicit primitive stack, so chain depth is bounded by heap, not by the
+ * thread stack. Optionally splits nodes with a very large fan-out across a
+ * ForkJoinPool.
+ */
+@Component
+public class SubtreeSumCalculator {
+
+    private final TransactionRepository transactionRepository;
+    private final TransactionMetrics transactionMetrics;
+    private final AmountScale amountScale;
+    private final boolean parallelEnabled;
+    private final int parallelThreshold;
+    private final ForkJoinPool pool;
+
+    public SubtreeSumCalculator(TransactionRepository transactionRepository,
+                                TransactionMetrics transactionMetrics,
+                                AmountScale amountScale,
+                                @Value("${transactions.sum.parallel.enabled:false}") boolean parallelEnabled,
+                                @Value("${transactions.sum.parallel.threshold:10000}") int parallelThreshold,
+                                @Value("${transactions.sum.parallel.parallelism:0}") int parallelism) {
+        this.transactionRepository = transactionRepository;
+        this.transactionMetrics = transactionMetrics;
+        this.amountScale = amountScale;
+        this.parallelEnabled = parallelEnabled;
+        this.parallelThreshold = Math.max(2, parallelThreshold);
+        this.pool = parallelEnabled
+            ? new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors())
+            : null;
+    }
+
+    /**
+     * Returns the sum of the amounts of every descendant of the given transaction,
+     * excluding the transaction itself. The stored subtree size bounds the walk up
+     * front, so subtrees smaller than the parallel threshold never pay for a task.
+     */
+    public double sumDescendants(long transactionId) {
+        if (!parallelEnabled || transactionRepository.countSubtreeNodes(transactionId) < parallelThreshold) {
+            Traversal traversal = new Traversal(null, null);
+            traversal.push(transactionId);
+            traversal.run();
+            transactionMetrics.recordSumTraversal(traversal.visited);
+            return traversal.sum;
+        }
+        LongAdder visited = new LongAdder();
+        double sum = pool.invoke(new DescendantsSumTask(new long[] { transactionId }, 0, 1, visited));
+        transactionMetrics.recordSumTraversal(visited.sum());
+        return sum;
+    }
+
+    /**
+     * Returns the subtree total (own amount plus every descendant) of each given
+     * transaction in one sequential pass that visits every node at most once.
+     * Transactions are processed deepest first, so a requested transaction nested
+     * inside another requested subtree is finished before the outer walk reaches
+     * it, and the outer walk adds its total instead of descending again.
+     */
+    public Map<Long, Double> sumSubtrees(List<Transaction> transactions) {
+        List<Transaction> deepestFirst = new ArrayList<>(transactions);
+        deepestFirst.sort(Comparator.comparingInt(Transaction::getDepth).reversed());
+        Map<Long, Double> totals = new HashMap<>(deepestFirst.size() * 2);
+        long visited = 0;
+        for (Transaction transaction : deepestFirst) {
+            if (totals.containsKey(transaction.getTransactionId())) {
+                continue;
+            }
+            Traversal traversal = new Traversal(null, null, totals, false);
+            traversal.push(transaction.getTransactionId());
+            traversal.run();
+            visited += traversal.visited;
+            totals.put(transaction.getTransactionId(), transaction.getAmount() + traversal.sum);
+        }
+        transactionMetrics.recordSumTraversal(visited);
+        return totals;
+    }
+
+    /**
+     * Exact subtree total (own amount plus every descendant) for the exact-amount
+     * mode: minor units added with {@link Math#addExact}, carried into a
+     * BigDecimal only when a long would overflow. Always sequential.
+     */
+    public BigDecimal sumSubtreeExact(Transaction transaction) {
+        Traversal traversal = new Traversal(null, null, null, true);
+        traversal.addUnits(transaction.getAmountUnits());
+        traversal.push(transaction.getTransactionId());
+        traversal.run();
+        transactionMetrics.recordSumTraversal(traversal.visited);
+        return traversal.carry == null
+            ? amountScale.toAmount(traversal.units)
+            : amountScale.toAmount(traversal.carry.add(BigDecimal.valueOf(traversal.units)));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Depth-first walk over a growable long[] stack. The instance is its own child
+     * callback, so visiting a node allocates nothing beyond what the store needs.
+     */
+    private final class Traversal implements Consumer<Transaction> {
+
+        private final List<DescendantsSumTask> forked;
+        private final LongAdder forkedVisited;
+        private final Map<Long, Double> finished;
+        private final boolean exact;
+        private long[] stack = new long[64];
+        private int size;
+        private double sum;
+        private long units;
+        /** Minor units carried out of {@code units} on overflow, null until then. */
+        private BigDecimal carry;
+        private long visited;
+
+        Traversal(List<DescendantsSumTask> forked, LongAdder forkedVisited) {
+            this(forked, forkedVisited, null, false);
+        }
+
+        /** A non-null {@code finished} map supplies subtree totals that are added instead of walked. */
+        Traversal(List<DescendantsSumTask> forked, LongAdder forkedVisited, Map<Long, Double> finished,
+                  boolean exact) {
+            this.forked = forked;
+            this.forkedVisited = forkedVisited;
+            this.finished = finished;
+            this.exact = exact;
+        }
+
+        void push(long transactionId) {
+            if (size == stack.length) {
+                stack = Arrays.copyOf(stack, size << 1);
+            }
+            stack[size++] = transactionId;
+        }
+
+        void run() {
+            while (size > 0) {
+                long transactionId = stack[--size];
+                visited++;
+                if (forked != null && transactionRepository.countChildren(transactionId) >= parallelThreshold) {
+                    fork(transactionId);
+                } else {
+                    transactionRepository.forEachChild(transactionId, this);
+                }
+            }
+        }
+
+        @Override
+        public void accept(Transaction child) {
+            Double subtreeTotal = finished == null ? null : finished.get(child.getTransactionId());
+            if (subtreeTotal != null) {
+                sum += subtreeTotal;
+                return;
+            }
+            if (exact) {
+                addUnits(child.getAmountUnits());
+            } else {
+                sum += child.getAmount();
+            }
+            push(child.getTransactionId());
+        }
+
+        void addUnits(long amountUnits) {
+            try {
+                units = Math.addExact(units, amountUnits);
+            } catch (ArithmeticException e) {
+                carry = (carry == null ? BigDecimal.ZERO : carry).add(BigDecimal.valueOf(units));
+                units = amountUnits;
+            }
+        }
+
+        private void fork(long transactionId) {
+            ChildCollector children = new ChildCollector(transactionRepository.countChildren(transactionId));
+            transactionRepository.forEachChild(transactionId, children);
+            sum += children.sum;
+            DescendantsSumTask task = new DescendantsSumTask(children.ids, 0, children.size, forkedVisited);
+            task.fork();
+            forked.add(task);
+        }
+    }
+
+    private static final class ChildCollector implements Consumer<Transaction> {
+
+        private long[] ids;
+        private int size;
+        private double sum;
+
+        ChildCollector(int expected) {
+            this.ids = new long[Math.max(expected, 16)];
+        }
+
+        @Override
+        public void accept(Transaction child) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size << 1);
+            }
+            ids[size++] = child.getTransactionId();
+            sum += child.getAmount();
+        }
+    }
+
+    /** Sums the descendants of roots[from, to), halving the range while it is above the threshold. */
+    private final class DescendantsSumTask extends RecursiveTask<Double> {
+
+        private final long[] roots;
+        private final int from;
+        private final int to;
+        private final LongAdder visited;
+
+        DescendantsSumTask(long[] roots, int from, int to, LongAdder visited) {
+            this.roots = roots;
+            this.from = from;
+            this.to = to;
+            this.visited = visited;
+        }
+
+        @Override
+        protected Double compute() {
+            if (to - from > parallelThreshold) {
+                int middle = (from + to) >>> 1;
+                DescendantsSumTask left = new DescendantsSumTask(roots, from, middle, visited);
+                left.fork();
+                double right = new DescendantsSumTask(roots, middle, to, visited).compute();
+                return left.join() + right;
+            }
+
+            List<DescendantsSumTask> forked = new ArrayList<>();
+            Traversal traversal = new Traversal(forked, visited);
+            for (int i = from; i < to; i++) {
+                traversal.push(roots[i]);
+            }
+            traversal.run();
+            visited.add(traversal.visited);
+
+            double sum = traversal.sum;
+            for (DescendantsSumTask task : forked) {
+                sum += task.join();
+            }
+            return sum;
+        }
+    }
+}
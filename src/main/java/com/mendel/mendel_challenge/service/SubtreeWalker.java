@@ -0,0 +1,142 @@
+package com.mendel.mendel_challenge.service;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+
+import com.mendel.mendel_challenge.model.Transaction;
+import com.mendel.mendel_challenge.repository.TransactionRepository;
+
+/**
+ * Walks the subtree under a transaction one node at a time through
+ * {@link TransactionRepository#findNextChild}, holding only the current node,
+ * its level and, breadth first, the first node found on the level being
+ * emitted. Memory stays constant whatever the size or shape of the subtree:
+ * moving on from a node descends to its first child, or else steps to the next
+ * sibling of the nearest ancestor that has one, reading parents back from the
+ * store instead of keeping a stack.
+ *
+ * <p>Depth first emits the subtree in pre-order. Breadth first emits each level
+ * with a pre-order pass limited to that level, starting at the first node of
+ * the level above, since no deeper node comes before it in pre-order. The
+ * passes climb back through the upper levels instead of queueing a whole
+ * level, so breadth first to depth d costs O(d x nodes) steps against depth
+ * first's O(nodes); on a chain that is quadratic, which is why callers bound d.
+ */
+final class SubtreeWalker<T> implements Iterator<T> {
+
+    /** Builds the emitted value from a node and its level below the walk's root (0 for the root). */
+    interface NodeMapper<T> {
+        T map(Transaction transaction, int level);
+    }
+
+    private final TransactionRepository transactionRepository;
+    private final boolean breadthFirst;
+    private final int maxLevel;
+    private final NodeMapper<T> mapper;
+    private int remaining;
+    private boolean started;
+    private Transaction current;
+    private int level;
+    /** Breadth first: the level being emitted and the first node emitted on it. */
+    private int targetLevel;
+    private Transaction firstOfLevel;
+    private T next;
+
+    SubtreeWalker(TransactionRepository transactionRepository, Transaction root, boolean breadthFirst,
+                  int maxLevel, int limit, NodeMapper<T> mapper) {
+        this.transactionRepository = transactionRepository;
+        this.breadthFirst = breadthFirst;
+        this.maxLevel = maxLevel;
+        this.mapper = mapper;
+        this.remaining = limit;
+        this.current = root;
+        this.firstOfLevel = root;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null) {
+            next = fetch();
+        }
+        return next != null;
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        T value = next;
+        next = null;
+        return value;
+    }
+
+    private T fetch() {
+        if (remaining <= 0) {
+            return null;
+        }
+        if (started) {
+            Transaction node = breadthFirst ? nextBreadthFirst() : advance(maxLevel) ? current : null;
+            if (node == null) {
+                remaining = 0;
+                return null;
+            }
+        }
+        started = true;
+        remaining--;
+        return mapper.map(current, level);
+    }
+
+    private Transaction nextBreadthFirst() {
+        while (true) {
+            if (advance(targetLevel)) {
+                if (level == targetLevel) {
+                    if (firstOfLevel == null) {
+                        firstOfLevel = current;
+                    }
+                    return current;
+                }
+                continue;
+            }
+            // the level is done: the next one starts below the first node of this one
+            if (firstOfLevel == null || targetLevel >= maxLevel) {
+                return null;
+            }
+            current = firstOfLevel;
+            level = targetLevel;
+            firstOfLevel = null;
+            targetLevel++;
+        }
+    }
+
+    /** Moves to the next node in pre-order that is at most {@code deepest} levels below the root. */
+    private boolean advance(int deepest) {
+        if (level < deepest) {
+            Optional<Transaction> child = transactionRepository.findNextChild(current.getTransactionId(), null);
+            if (child.isPresent()) {
+                current = child.get();
+                level++;
+                return true;
+            }
+        }
+        Transaction node = current;
+        int nodeLevel = level;
+        while (nodeLevel > 0) {
+            Optional<Transaction> sibling =
+                transactionRepository.findNextChild(node.getParentId(), node.getTransactionId());
+            if (sibling.isPresent()) {
+                current = sibling.get();
+                level = nodeLevel;
+                return true;
+            }
+            Optional<Transaction> parent = transactionRepository.findById(node.getParentId());
+            if (parent.isEmpty()) {
+                return false;
+            }
+            node = parent.get();
+            nodeLevel--;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,286 @@
+package com.mendel.mendel_challenge.service;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Bounded cache of subtree sums by transaction id with approximate LRU
+ * eviction. Reads take no lock: each of the independently locked segments keeps
+ * its entries in a concurrent map, and a hit only sets the entry's reference
+ * bit, which the CLOCK eviction of a writer later reads and clears.
+ *
+ * <p>An insert invalidates only the entries on the new node's ancestor path.
+ * Every entry carries a version, assigned from its segment's counter when the
+ * entry is created: a reader takes the version before computing and its result
+ * is only stored if the same entry is still there, so a sum computed before a
+ * concurrent insert can never be cached after that insert's invalidation, and
+ * invalidating one id never discards an in-flight sum of another.
+ *
+ * <p>Disabled unless {@code transactions.sum.cache.enabled=true}; every
+ * operation is then a no-op.
+ */
+@Component
+public class SumCache {
+
+    /**
+     * Estimated heap cost of one entry with compressed oops: the ConcurrentHashMap
+     * node (32 bytes), the boxed key (16), the {@link Entry} (40), the boxed sum
+     * (16), its clock slot (4) and its share of a table kept at most 75% full (8),
+     * rounded up. The budget is divided by this, so it bounds the entry count
+     * rather than measuring the heap.
+     */
+    static final long ENTRY_BYTES = 120;
+
+    private static final int SEGMENTS = 16;
+    private static final String CACHE_NAME = "transaction-sums";
+
+    private final boolean enabled;
+    private final Segment[] segments = new Segment[SEGMENTS];
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+
+    public SumCache(MeterRegistry meterRegistry,
+                    @Value("${transactions.sum.cache.enabled:false}") boolean enabled,
+                    @Value("${transactions.sum.cache.max-memory:64MB}") DataSize maxMemory) {
+        this.enabled = enabled;
+        int entriesPerSegment = (int) Math.max(1, Math.min(Integer.MAX_VALUE, maxMemory.toBytes() / ENTRY_BYTES / SEGMENTS));
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment(entriesPerSegment);
+        }
+
+        // the standard Micrometer cache meter names, tagged with this cache's name
+        this.hits = Counter.builder("cache.gets").tag("cache", CACHE_NAME).tag("result", "hit")
+            .description("Sum lookups answered from the cache").register(meterRegistry);
+        this.misses = Counter.builder("cache.gets").tag("cache", CACHE_NAME).tag("result", "miss")
+            .description("Sum lookups that computed the sum").register(meterRegistry);
+        this.evictions = Counter.builder("cache.evictions").tag("cache", CACHE_NAME)
+            .description("Entries evicted to stay within the memory budget").register(meterRegistry);
+        Gauge.builder("cache.size", this, SumCache::size).tag("cache", CACHE_NAME)
+            .description("Cached sums").register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /** Returns the cached sum, or {@code null} on a miss (always when disabled). */
+    public Double get(long transactionId) {
+        if (!enabled) {
+            return null;
+        }
+        Double sum = segmentFor(transactionId).get(transactionId);
+        (sum == null ? misses : hits).increment();
+        return sum;
+    }
+
+    /**
+     * Returns the version to pass to {@link #put} for a sum about to be
+     * computed, creating an empty entry for the id if it has none.
+     */
+    public long stamp(long transactionId) {
+        return enabled ? segmentFor(transactionId).stamp(transactionId) : 0;
+    }
+
+    /** Caches the sum unless the id was invalidated or evicted since {@code stamp} was taken. */
+    public void put(long transactionId, double sum, long stamp) {
+        if (enabled) {
+            segmentFor(transactionId).put(transactionId, sum, stamp);
+        }
+    }
+
+    public void invalidate(long transactionId) {
+        if (enabled) {
+            segmentFor(transactionId).invalidate(transactionId);
+        }
+    }
+
+    public void clear() {
+        for (Segment segment : segments) {
+            segment.clear();
+        }
+    }
+
+    public long size() {
+        long size = 0;
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    private Segment segmentFor(long transactionId) {
+        long hash = transactionId * 0x9E3779B97F4A7C15L;
+        return segments[(int) (hash >>> 60)];
+    }
+
+    /** A cached sum, or an empty entry while the first sum for the id is computed. */
+    private static final class Entry {
+
+        private final long transactionId;
+        private final long version;
+        /** Position in the segment's clock, guarded by the segment lock. */
+        private int slot;
+        private volatile Double sum;
+        private volatile boolean referenced = true;
+
+        Entry(long transactionId, long version) {
+            this.transactionId = transactionId;
+            this.version = version;
+        }
+    }
+
+    /**
+     * Readers only touch the concurrent map and the entry's reference bit;
+     * writers take the lock and evict with the CLOCK policy: the hand sweeps
+     * the slots, clearing reference bits, and evicts the first entry not read
+     * since the hand last passed it.
+     */
+    private final class Segment {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final ConcurrentHashMap<Long, Entry> entries = new ConcurrentHashMap<>();
+        private final int maxEntries;
+        private Entry[] slots = new Entry[16];
+        /** Slots handed out so far; below {@code maxEntries} a new entry takes the next one instead of evicting. */
+        private int used;
+        /** Slots emptied by invalidation, reused before any other. */
+        private int[] freeSlots = new int[16];
+        private int freeCount;
+        private int hand;
+        private long nextVersion;
+        /** Entries holding a sum, i.e. excluding those still being computed. */
+        private volatile int cached;
+
+        Segment(int maxEntries) {
+            this.maxEntries = maxEntries;
+        }
+
+        Double get(long transactionId) {
+            Entry entry = entries.get(transactionId);
+            if (entry == null) {
+                return null;
+            }
+            // skip the write when already set, so hot entries do not bounce their cache line
+            if (!entry.referenced) {
+                entry.referenced = true;
+            }
+            return entry.sum;
+        }
+
+        long stamp(long transactionId) {
+            Entry entry = entries.get(transactionId);
+            if (entry != null) {
+                return entry.version;
+            }
+            lock.lock();
+            try {
+                entry = entries.get(transactionId);
+                if (entry == null) {
+                    entry = new Entry(transactionId, ++nextVersion);
+                    entry.slot = takeSlot();
+                    slots[entry.slot] = entry;
+                    entries.put(transactionId, entry);
+                }
+                return entry.version;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void put(long transactionId, double sum, long version) {
+            lock.lock();
+            try {
+                Entry entry = entries.get(transactionId);
+                if (entry != null && entry.version == version) {
+                    if (entry.sum == null) {
+                        cached++;
+                    }
+                    entry.sum = sum;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        // a later stamp creates a new entry with a new version, so puts holding the old one are dropped
+        void invalidate(long transactionId) {
+            if (!entries.containsKey(transactionId)) {
+                return;
+            }
+            lock.lock();
+            try {
+                Entry entry = entries.remove(transactionId);
+                if (entry != null) {
+                    release(entry);
+                    if (freeCount == freeSlots.length) {
+                        freeSlots = Arrays.copyOf(freeSlots, freeCount << 1);
+                    }
+                    freeSlots[freeCount++] = entry.slot;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void clear() {
+            lock.lock();
+            try {
+                entries.clear();
+                Arrays.fill(slots, null);
+                used = 0;
+                freeCount = 0;
+                hand = 0;
+                cached = 0;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        int size() {
+            return cached;
+        }
+
+        private int takeSlot() {
+            if (freeCount > 0) {
+                return freeSlots[--freeCount];
+            }
+            if (used < maxEntries) {
+                if (used == slots.length) {
+                    slots = Arrays.copyOf(slots, (int) Math.min(maxEntries, (long) used << 1));
+                }
+                return used++;
+            }
+            // every slot is taken, so the hand finds a victim within two sweeps
+            while (true) {
+                Entry candidate = slots[hand];
+                int slot = hand;
+                hand = hand + 1 == used ? 0 : hand + 1;
+                if (candidate.referenced) {
+                    candidate.referenced = false;
+                } else {
+                    entries.remove(candidate.transactionId);
+                    release(candidate);
+                    evictions.increment();
+                    return slot;
+                }
+            }
+        }
+
+        private void release(Entry entry) {
+            slots[entry.slot] = null;
+            if (entry.sum != null) {
+                cached--;
+            }
+        }
+    }
+}
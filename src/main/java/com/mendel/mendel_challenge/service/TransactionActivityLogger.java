@@ -0,0 +1,96 @@
+package com.mendel.mendel_challenge.service;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.mendel.mendel_challenge.config.BackgroundThreads;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Logs one aggregated line per interval instead of one line per request. It
+ * reads the HTTP timers and write counters that are maintained anyway, so the
+ * request path pays nothing for it. Idle intervals are not logged. Enabled with
+ * {@code transactions.logging.summary.enabled=true}.
+ */
+@Component
+@ConditionalOnProperty(name = "transactions.logging.summary.enabled", havingValue = "true")
+public class TransactionActivityLogger {
+
+    private static final Logger logger = LoggerFactory.getLogger(TransactionActivityLogger.class);
+
+    private final MeterRegistry meterRegistry;
+    private final BackgroundThreads backgroundThreads;
+    private final long intervalSeconds;
+    private ScheduledExecutorService scheduler;
+
+    // only touched by the scheduler thread
+    private long lastRequests;
+    private double lastRequestSeconds;
+    private double lastCreated;
+    private double lastDuplicate;
+    private double lastMissingParent;
+
+    public TransactionActivityLogger(MeterRegistry meterRegistry,
+                                     BackgroundThreads backgroundThreads,
+                                     @Value("${transactions.logging.summary.interval-seconds:1}") long intervalSeconds) {
+        this.meterRegistry = meterRegistry;
+        this.backgroundThreads = backgroundThreads;
+        this.intervalSeconds = Math.max(1, intervalSeconds);
+    }
+
+    @PostConstruct
+    void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(backgroundThreads.factory("transaction-activity-summary"));
+        scheduler.scheduleAtFixedRate(this::logSummary, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        scheduler.shutdownNow();
+    }
+
+    void logSummary() {
+        long requests = 0;
+        double requestSeconds = 0;
+        for (Timer timer : meterRegistry.find("http.server.requests").timers()) {
+            requests += timer.count();
+            requestSeconds += timer.totalTime(TimeUnit.SECONDS);
+        }
+        double created = writes("created");
+        double duplicate = writes("duplicate");
+        double missingParent = writes("missing_parent");
+
+        long intervalRequests = requests - lastRequests;
+        if (intervalRequests > 0) {
+            double meanMillis = (requestSeconds - lastRequestSeconds) * 1000 / intervalRequests;
+            logger.info("Last {}s: requests={}, meanLatencyMs={}, created={}, duplicate={}, missingParent={}",
+                intervalSeconds, intervalRequests, String.format("%.2f", meanMillis),
+                (long) (created - lastCreated), (long) (duplicate - lastDuplicate),
+                (long) (missingParent - lastMissingParent));
+        }
+
+        lastRequests = requests;
+        lastRequestSeconds = requestSeconds;
+        lastCreated = created;
+        lastDuplicate = duplicate;
+        lastMissingParent = missingParent;
+    }
+
+    private double writes(String outcome) {
+        Counter counter = meterRegistry.find("transactions.writes").tag("outcome", outcome).counter();
+        return counter == null ? 0 : counter.count();
+    }
+}
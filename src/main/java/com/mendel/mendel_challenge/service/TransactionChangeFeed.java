@@ -0,0 +1,191 @@
+package com.mendel.mendel_challenge.service;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.mendel.mendel_challenge.exception.ChangeFeedExpiredException;
+import com.mendel.mendel_challenge.exception.ServiceUnavailableException;
+import com.mendel.mendel_challenge.model.Transaction;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * In-process change feed: every transaction the service inserts gets the next
+ * sequence number and is kept in a fixed-size ring, so subscribers can follow
+ * inserts from any sequence still retained instead of rescanning types.
+ *
+ * <p>Writers claim a sequence with one atomic increment and publish into their
+ * slot without a lock. A slot only moves forward, so a writer that stalls for
+ * a whole lap never overwrites a newer entry. Readers walk sequences in order
+ * and stop at the first one not yet published, so changes are delivered in
+ * sequence order even when inserts finish out of order. Long-polling readers
+ * wait on a condition that publishers only signal while someone waits.
+ *
+ * <p>Memory is bounded by the capacity. A subscriber that falls more than one
+ * lap behind finds its next sequence overwritten and gets a
+ * {@link ChangeFeedExpiredException}. Sequences start at 1 in every process and
+ * are not persisted: transactions restored at startup are not replayed into
+ * the feed, and a sequence from an earlier process is rejected the same way.
+ *
+ * <p>Streaming subscribers each hold a thread (or a blocking-scheduler worker)
+ * for as long as they are connected, so they must claim one of a fixed number
+ * of subscriber slots first.
+ */
+@Component
+public class TransactionChangeFeed {
+
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    private final boolean enabled;
+    private final int mask;
+    private final AtomicReferenceArray<Change> slots;
+    private final AtomicLong lastClaimed = new AtomicLong();
+    private final AtomicInteger waiters = new AtomicInteger();
+    private final ReentrantLock waitLock = new ReentrantLock();
+    private final Condition published = waitLock.newCondition();
+    private final Counter expired;
+    private final int maxSubscribers;
+    private final AtomicInteger subscribers = new AtomicInteger();
+
+    public TransactionChangeFeed(MeterRegistry meterRegistry,
+                                 @Value("${transactions.feed.enabled:true}") boolean enabled,
+                                 @Value("${transactions.feed.capacity:65536}") int capacity,
+                                 @Value("${transactions.feed.max-subscribers:64}") int maxSubscribers) {
+        int slotCount = 2;
+        while (slotCount < Math.min(capacity, MAX_CAPACITY)) {
+            slotCount <<= 1;
+        }
+        this.enabled = enabled;
+        this.mask = slotCount - 1;
+        this.slots = new AtomicReferenceArray<>(enabled ? slotCount : 0);
+        this.maxSubscribers = maxSubscribers;
+        this.expired = Counter.builder("transactions.feed.expired")
+            .description("Change feed reads that asked for a sequence no longer retained")
+            .register(meterRegistry);
+        Gauge.builder("transactions.feed.sequence", lastClaimed, AtomicLong::get)
+            .description("Last sequence number handed out by the change feed")
+            .register(meterRegistry);
+        Gauge.builder("transactions.feed.subscribers", subscribers, AtomicInteger::get)
+            .description("Change stream subscribers currently connected")
+            .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /** Last sequence handed out; changes up to it may still be in flight. */
+    public long head() {
+        return lastClaimed.get();
+    }
+
+    /**
+     * Claims a streaming subscriber slot, to be given back with
+     * {@link #closeSubscription()} when the stream ends.
+     *
+     * @throws ServiceUnavailableException if every slot is taken
+     */
+    public void openSubscription() {
+        if (subscribers.incrementAndGet() > maxSubscribers) {
+            subscribers.decrementAndGet();
+            throw new ServiceUnavailableException(String.format(
+                "Too many change stream subscribers; at most %d may be connected", maxSubscribers));
+        }
+    }
+
+    public void closeSubscription() {
+        subscribers.decrementAndGet();
+    }
+
+    /** Appends an inserted transaction. A no-op when the feed is disabled. */
+    public void publish(Transaction transaction) {
+        if (!enabled) {
+            return;
+        }
+        long sequence = lastClaimed.incrementAndGet();
+        slots.accumulateAndGet((int) (sequence & mask), new Change(sequence, transaction),
+            (current, change) -> current == null || current.sequence() < change.sequence() ? change : current);
+        if (waiters.get() > 0) {
+            waitLock.lock();
+            try {
+                published.signalAll();
+            } finally {
+                waitLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Passes up to {@code limit} changes after sequence {@code after} to the
+     * action, in order, waiting up to {@code timeoutNanos} for the first one.
+     *
+     * @return the sequence of the last change passed, or {@code after} if none arrived in time
+     * @throws ChangeFeedExpiredException if the change after {@code after} is no
+     *         longer retained, or {@code after} was never issued by this process
+     */
+    public long read(long after, int limit, long timeoutNanos, Consumer<Change> action) {
+        long head = lastClaimed.get();
+        if (after < 0 || after > head) {
+            expired.increment();
+            throw new ChangeFeedExpiredException(String.format(
+                "Sequence %d was not issued by this process; the change feed is at %d", after, head));
+        }
+        long next = after + 1;
+        if (timeoutNanos > 0 && !isPublished(next)) {
+            awaitPublished(next, timeoutNanos);
+        }
+        long last = after;
+        for (int count = 0; count < limit; count++, next++) {
+            Change change = slots.get((int) (next & mask));
+            if (change == null || change.sequence() < next) {
+                break;
+            }
+            if (change.sequence() > next) {
+                if (count > 0) {
+                    // report the gap on the next read, after the changes already passed
+                    break;
+                }
+                expired.increment();
+                throw new ChangeFeedExpiredException(String.format(
+                    "Changes after sequence %d are no longer retained; the change feed is at %d", after, head()));
+            }
+            action.accept(change);
+            last = next;
+        }
+        return last;
+    }
+
+    private boolean isPublished(long sequence) {
+        Change change = slots.get((int) (sequence & mask));
+        return change != null && change.sequence() >= sequence;
+    }
+
+    private void awaitPublished(long sequence, long timeoutNanos) {
+        waitLock.lock();
+        waiters.incrementAndGet();
+        try {
+            long remaining = timeoutNanos;
+            while (remaining > 0 && !isPublished(sequence)) {
+                remaining = published.awaitNanos(remaining);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            waiters.decrementAndGet();
+            waitLock.unlock();
+        }
+    }
+
+    /** One inserted transaction and the sequence number it was published under. */
+    public record Change(long sequence, Transaction transaction) {
+    }
+}
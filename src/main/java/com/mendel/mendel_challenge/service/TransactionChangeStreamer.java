@@ -0,0 +1,107 @@
+package com.mendel.mendel_challenge.service;
+
+import java.io.IOException;
+import java.time.Duration;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.mendel.mendel_challenge.config.BackgroundThreads;
+import com.mendel.mendel_challenge.dto.GetTransactionChangesResponse;
+import com.mendel.mendel_challenge.dto.TransactionChange;
+import com.mendel.mendel_challenge.exception.ChangeFeedExpiredException;
+
+/**
+ * Pushes the change feed to a server-sent events subscriber. Each subscriber
+ * gets its own background thread that long-polls the feed a page at a time and
+ * writes each insert as a {@code transaction} event whose id is its sequence,
+ * so a reconnecting client resumes through {@code Last-Event-ID}. An idle
+ * subscriber gets a comment line every heartbeat, which is also how a closed
+ * connection is noticed. A subscriber that falls behind the feed gets an
+ * {@code expired} event and the stream ends. Subscribers claim a slot of the
+ * feed first, which caps the threads streams can hold.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class TransactionChangeStreamer {
+
+    private static final Logger logger = LoggerFactory.getLogger(TransactionChangeStreamer.class);
+    private static final int PAGE_SIZE = 1000;
+
+    private final TransactionService transactionService;
+    private final TransactionChangeFeed changeFeed;
+    private final BackgroundThreads backgroundThreads;
+    private final long heartbeatMillis;
+
+    public TransactionChangeStreamer(TransactionService transactionService,
+                                     TransactionChangeFeed changeFeed,
+                                     BackgroundThreads backgroundThreads,
+                                     @Value("${transactions.feed.heartbeat:15s}") Duration heartbeat) {
+        this.transactionService = transactionService;
+        this.changeFeed = changeFeed;
+        this.backgroundThreads = backgroundThreads;
+        this.heartbeatMillis = Math.clamp(heartbeat.toMillis(), 1, 60_000);
+    }
+
+    /**
+     * Opens a stream of the inserts after {@code after}, or from now on when
+     * it is absent. The first page is read before returning, so a disabled or
+     * already expired feed fails the request with its usual status instead of
+     * an empty stream; so do too many subscribers, with 503.
+     */
+    public SseEmitter stream(Long after) {
+        changeFeed.openSubscription();
+        boolean started = false;
+        try {
+            GetTransactionChangesResponse first = transactionService.getTransactionChanges(after, PAGE_SIZE, 0);
+            SseEmitter emitter = new SseEmitter(0L);
+            backgroundThreads.start("transaction-changes", () -> {
+                try {
+                    pump(emitter, first);
+                } finally {
+                    changeFeed.closeSubscription();
+                }
+            });
+            started = true;
+            return emitter;
+        } finally {
+            if (!started) {
+                changeFeed.closeSubscription();
+            }
+        }
+    }
+
+    private void pump(SseEmitter emitter, GetTransactionChangesResponse page) {
+        try {
+            while (true) {
+                if (page.getChanges().isEmpty()) {
+                    emitter.send(SseEmitter.event().comment("heartbeat"));
+                }
+                for (TransactionChange change : page.getChanges()) {
+                    emitter.send(SseEmitter.event()
+                        .name("transaction")
+                        .id(Long.toString(change.getSequence()))
+                        .data(change));
+                }
+                page = transactionService.getTransactionChanges(page.getLastSequence(), PAGE_SIZE, heartbeatMillis);
+            }
+        } catch (ChangeFeedExpiredException e) {
+            try {
+                emitter.send(SseEmitter.event().name("expired").data(e.getMessage()));
+                emitter.complete();
+            } catch (IOException | IllegalStateException closed) {
+                logger.debug("Change stream subscriber went away before the expiry was sent");
+            }
+        } catch (IOException | IllegalStateException e) {
+            // the subscriber disconnected or the emitter timed out
+            logger.debug("Change stream subscriber went away: {}", e.getMessage());
+        } catch (RuntimeException e) {
+            logger.warn("Change stream stopped", e);
+            emitter.completeWithError(e);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.mendel.mendel_challenge.service;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.stereotype.Component;
+
+import com.mendel.mendel_challenge.repository.TransactionRepository;
+import com.mendel.mendel_challenge.repository.TransactionTypeRegistry;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Domain meters for the transaction store. Request latency per endpoint comes
+ * from Spring's {@code http.server.requests} timer; this class adds write
+ * outcomes, store and index sizes, tree depth and traversal cost.
+ */
+@Component
+public class TransactionMetrics {
+
+    private final Counter created;
+    private final Counter duplicate;
+    private final Counter missingParent;
+    private final Counter tooDeep;
+    private final DistributionSummary visitedNodes;
+    private final AtomicInteger maxDepth = new AtomicInteger();
+
+    public TransactionMetrics(MeterRegistry meterRegistry,
+                              TransactionRepository transactionRepository,
+                              TransactionTypeRegistry transactionTypeRegistry) {
+        this.created = writes(meterRegistry, "created");
+        this.duplicate = writes(meterRegistry, "duplicate");
+        this.missingParent = writes(meterRegistry, "missing_parent");
+        this.tooDeep = writes(meterRegistry, "too_deep");
+        this.visitedNodes = DistributionSummary.builder("transactions.sum.visited.nodes")
+            .description("Nodes visited by a subtree sum traversal")
+            .baseUnit("nodes")
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+
+        Gauge.builder("transactions.store.size", transactionRepository, TransactionRepository::count)
+            .description("Stored transactions")
+            .register(meterRegistry);
+        Gauge.builder("transactions.index.size", transactionRepository, TransactionRepository::countParents)
+            .description("Entries in a secondary index")
+            .tag("index", "parent")
+            .register(meterRegistry);
+        Gauge.builder("transactions.index.size", transactionRepository,
+                repository -> countTypes(repository, transactionTypeRegistry))
+            .description("Entries in a secondary index")
+            .tag("index", "type")
+            .register(meterRegistry);
+        Gauge.builder("transactions.tree.max.depth", maxDepth, AtomicInteger::get)
+            .description("Deepest transaction written or replayed from the log since startup; roots have depth 0")
+            .register(meterRegistry);
+    }
+
+    public void recordCreated(int depth) {
+        created.increment();
+        recordDepth(depth);
+    }
+
+    /** Tracks depth for transactions restored from the journal, which are not counted as writes. */
+    public void recordDepth(int depth) {
+        maxDepth.accumulateAndGet(depth, Math::max);
+    }
+
+    public void recordDuplicate() {
+        duplicate.increment();
+    }
+
+    public void recordMissingParent() {
+        missingParent.increment();
+    }
+
+    public void recordTooDeep() {
+        tooDeep.increment();
+    }
+
+    public void recordSumTraversal(long nodes) {
+        visitedNodes.record(nodes);
+    }
+
+    /** Types with at least one stored transaction; the registry outlives a cleared store, so it over-counts. */
+    private static long countTypes(TransactionRepository transactionRepository,
+                                   TransactionTypeRegistry transactionTypeRegistry) {
+        int registered = transactionTypeRegistry.names().size();
+        long types = 0;
+        for (int typeCode = 0; typeCode < registered; typeCode++) {
+            if (transactionRepository.countByType(typeCode) > 0) {
+                types++;
+            }
+        }
+        return types;
+    }
+
+    private static Counter writes(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("transactions.writes")
+            .description("Transaction writes by outcome")
+            .tag("outcome", outcome)
+            .register(meterRegistry);
+    }
+}
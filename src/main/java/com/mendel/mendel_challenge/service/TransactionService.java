@@ -1,12 +1,35 @@
 package com.mendel.mendel_challenge.service;
 
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import com.mendel.mendel_challenge.dto.BulkTransactionItemRequest;
+import com.mendel.mendel_challenge.dto.BulkTransactionItemResult;
 import com.mendel.mendel_challenge.dto.GetSumTransactionResponse;
+import com.mendel.mendel_challenge.dto.GetSumsTransactionResponse;
+import com.mendel.mendel_challenge.dto.GetTransactionChangesResponse;
+import com.mendel.mendel_challenge.dto.GetTransactionResponse;
+import com.mendel.mendel_challenge.dto.GetTransactionTotalsResponse;
+import com.mendel.mendel_challenge.dto.GetTransactionTypesResponse;
 import com.mendel.mendel_challenge.dto.GetTransactionsByTypeResponse;
 import com.mendel.mendel_challenge.dto.PutNewTransactionRequest;
 import com.mendel.mendel_challenge.dto.PutNewTransactionResponse;
+import com.mendel.mendel_challenge.dto.SubtreeNode;
 
 public interface TransactionService {
     PutNewTransactionResponse putNewTransaction(PutNewTransactionRequest request, long transactionId);
+    List<BulkTransactionItemResult> putNewTransactions(List<BulkTransactionItemRequest> items);
     GetTransactionsByTypeResponse getTransactionsByType(String type);
+    GetTransactionsByTypeResponse getTransactionsByType(String type, String cursor, int limit);
+    LongStream streamTransactionIdsByType(String type);
+    GetTransactionTypesResponse getTransactionTypes();
+    GetTransactionTotalsResponse getTransactionTotals(String type, Instant from, Instant to);
+    GetTransactionResponse getTransaction(Long transactionId);
+    Stream<SubtreeNode> streamSubtree(Long transactionId, String order, int limit, Integer maxDepth);
     GetSumTransactionResponse getSumByTransactionId(Long transactionId);
+    GetSumsTransactionResponse getSumsByTransactionIds(List<Long> transactionIds);
+    GetTransactionChangesResponse getTransactionChanges(Long after, int limit, long waitMillis);
+    void ensureRecovered();
 }
\ No newline at end of file
@@ -1,99 +1,818 @@
 package com.mendel.mendel_challenge.service;
 
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.OptionalLong;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.LongConsumer;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.LivenessState;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 
+import com.mendel.mendel_challenge.config.BackgroundThreads;
+import com.mendel.mendel_challenge.dto.BulkTransactionItemRequest;
+import com.mendel.mendel_challenge.dto.BulkTransactionItemResult;
 import com.mendel.mendel_challenge.dto.GetSumTransactionResponse;
+import com.mendel.mendel_challenge.dto.GetSumsTransactionResponse;
+import com.mendel.mendel_challenge.dto.GetTransactionChangesResponse;
+import com.mendel.mendel_challenge.dto.GetTransactionResponse;
+import com.mendel.mendel_challenge.dto.GetTransactionTotalsResponse;
+import com.mendel.mendel_challenge.dto.GetTransactionTypesResponse;
 import com.mendel.mendel_challenge.dto.GetTransactionsByTypeResponse;
 import com.mendel.mendel_challenge.dto.PutNewTransactionRequest;
 import com.mendel.mendel_challenge.dto.PutNewTransactionResponse;
+import com.mendel.mendel_challenge.dto.SubtreeNode;
+import com.mendel.mendel_challenge.dto.TransactionChange;
+import com.mendel.mendel_challenge.dto.TransactionTypeCount;
+import com.mendel.mendel_challenge.exception.BadRequestException;
+import com.mendel.mendel_challenge.exception.MaxDepthExceededException;
 import com.mendel.mendel_challenge.exception.ResourceAlreadyExistsException;
 import com.mendel.mendel_challenge.exception.ResourceNotFoundException;
+import com.mendel.mendel_challenge.exception.ServiceUnavailableException;
 import com.mendel.mendel_challenge.model.Transaction;
+import com.mendel.mendel_challenge.persistence.TransactionJournal;
+import com.mendel.mendel_challenge.repository.AmountScale;
+import com.mendel.mendel_challenge.repository.TimeRangeTotals;
 import com.mendel.mendel_challenge.repository.TransactionRepository;
+import com.mendel.mendel_challenge.repository.TransactionTypeRegistry;
+
+import jakarta.annotation.PostConstruct;
 
 
 @Service
 public class TransactionServiceImpl implements TransactionService {
 
     private static final Logger logger = LoggerFactory.getLogger(TransactionServiceImpl.class);
+    private static final double SUM_TOLERANCE = 1e-6;
+    private static final int MAX_PAGE_SIZE = 10_000;
+    private static final int STREAM_PAGE_SIZE = 4096;
+    private static final int CURSOR_BYTES = Integer.BYTES + Long.BYTES;
+    private static final Duration DEFAULT_TOTALS_RANGE = Duration.ofHours(1);
+    private static final long MAX_CHANGES_WAIT_MILLIS = 60_000;
+    private static final int MAX_SUBTREE_NODES = 10_000_000;
+    /** Breadth first revisits the levels above each level it emits, so its depth is bounded. */
+    private static final int MAX_BFS_DEPTH = 64;
+
     private final TransactionRepository transactionRepository;
+    private final TransactionTypeRegistry transactionTypeRegistry;
+    private final AmountScale amountScale;
+    private final SubtreeSumCalculator subtreeSumCalculator;
+    private final SumCache sumCache;
+    private final TransactionJournal transactionJournal;
+    private final TransactionChangeFeed changeFeed;
+    private final TransactionMetrics transactionMetrics;
+    private final BackgroundThreads backgroundThreads;
+    private final ApplicationEventPublisher eventPublisher;
+    private final boolean sumConsistencyCheck;
+    private final boolean backgroundRecovery;
+    private final int maxDepth;
+    /** Ids claimed by a write that has not stored them yet; only used with a durable journal. */
+    private final Set<Long> pendingIds = ConcurrentHashMap.newKeySet();
+    private volatile boolean recovering;
 
-    public TransactionServiceImpl(TransactionRepository transactionRepository) {
+    public TransactionServiceImpl(TransactionRepository transactionRepository,
+                                  TransactionTypeRegistry transactionTypeRegistry,
+                                  AmountScale amountScale,
+                                  SubtreeSumCalculator subtreeSumCalculator,
+                                  SumCache sumCache,
+                                  TransactionJournal transactionJournal,
+                                  TransactionChangeFeed changeFeed,
+                                  TransactionMetrics transactionMetrics,
+                                  BackgroundThreads backgroundThreads,
+                                  ApplicationEventPublisher eventPublisher,
+                                  @Value("${transactions.sum.consistency-check:false}") boolean sumConsistencyCheck,
+                                  @Value("${transactions.persistence.recovery.background:false}") boolean backgroundRecovery,
+                                  @Value("${transactions.tree.max-depth:0}") int maxDepth) {
         this.transactionRepository = transactionRepository;
+        this.transactionTypeRegistry = transactionTypeRegistry;
+        this.amountScale = amountScale;
+        this.subtreeSumCalculator = subtreeSumCalculator;
+        this.sumCache = sumCache;
+        this.transactionJournal = transactionJournal;
+        this.changeFeed = changeFeed;
+        this.transactionMetrics = transactionMetrics;
+        this.backgroundThreads = backgroundThreads;
+        this.eventPublisher = eventPublisher;
+        this.sumConsistencyCheck = sumConsistencyCheck;
+        this.backgroundRecovery = backgroundRecovery;
+        this.maxDepth = maxDepth;
+    }
+
+    /**
+     * Rebuilds the store from the journal. In background mode the application
+     * starts immediately, reports REFUSING_TRAFFIC and answers 503 until the
+     * snapshot and log tail are loaded; if loading fails it reports a BROKEN
+     * liveness state so that it is restarted. Otherwise a failure fails startup.
+     */
+    @PostConstruct
+    void recover() {
+        if (!backgroundRecovery) {
+            transactionJournal.replay(this::restore);
+            return;
+        }
+        recovering = true;
+        backgroundThreads.start("transaction-recovery", () -> {
+            try {
+                transactionJournal.replay(this::restore);
+            } catch (RuntimeException e) {
+                logger.error("Transaction recovery failed", e);
+                AvailabilityChangeEvent.publish(eventPublisher, this, LivenessState.BROKEN);
+                return;
+            }
+            recovering = false;
+            AvailabilityChangeEvent.publish(eventPublisher, this, ReadinessState.ACCEPTING_TRAFFIC);
+        });
+    }
+
+    /** Keeps the application out of rotation if startup finishes before recovery does. */
+    @EventListener
+    void onReadinessChange(AvailabilityChangeEvent<ReadinessState> event) {
+        if (recovering && event.getState() == ReadinessState.ACCEPTING_TRAFFIC) {
+            AvailabilityChangeEvent.publish(eventPublisher, this, ReadinessState.REFUSING_TRAFFIC);
+        }
     }
 
     @Override
     public PutNewTransactionResponse putNewTransaction(PutNewTransactionRequest request, long transactionId) {
-        logger.info("Processing new transaction with ID: {}", transactionId);
-
-        if (transactionRepository.findById(transactionId).isPresent()) {
-            logger.warn("Transaction with ID {} already exists", transactionId);
-            throw new ResourceAlreadyExistsException("Transaction", transactionId);
+        ensureRecovered();
+        long amountUnits;
+        try {
+            amountUnits = amountUnitsOf(request.getAmount());
+        } catch (ArithmeticException e) {
+            throw new BadRequestException(amountScaleMessage());
         }
 
+        Transaction parent = null;
         if (request.getParentId() != null) {
-            if (transactionRepository.findById(request.getParentId()).isEmpty()) {
+            parent = transactionRepository.findById(request.getParentId()).orElse(null);
+            if (parent == null) {
                 logger.warn("Parent transaction with ID {} not found", request.getParentId());
+                transactionMetrics.recordMissingParent();
                 throw new ResourceNotFoundException("Parent Transaction", request.getParentId());
             }
+            if (exceedsMaxDepth(parent)) {
+                logger.warn("Parent transaction with ID {} is at the maximum depth", request.getParentId());
+                transactionMetrics.recordTooDeep();
+                throw new MaxDepthExceededException(request.getParentId(), maxDepth);
+            }
         }
 
         Transaction transaction = new Transaction();
         transaction.setTransactionId(transactionId);
         transaction.setAmount(request.getAmount());
-        transaction.setType(request.getType());
+        transaction.setAmountUnits(amountUnits);
         transaction.setParentId(request.getParentId());
-        
-        transactionRepository.save(transaction);
-        logger.info("Transaction created successfully: id={}, type={}, amount={}, parentId={}", 
-            transactionId, request.getType(), request.getAmount(), request.getParentId());
+        transaction.setCreatedAt(System.currentTimeMillis());
+        placeInTree(transaction, parent);
+
+        int depth;
+        if (transactionJournal.isDurable()) {
+            // the id is claimed before it is journaled, so two writers can never both log it
+            if (!reserve(transactionId)) {
+                throw duplicate(transactionId);
+            }
+            transaction.setTypeCode(transactionTypeRegistry.resolve(request.getType()));
+            int[] stored = new int[1];
+            try {
+                transactionJournal.append(transaction, () -> stored[0] = store(transaction));
+            } finally {
+                pendingIds.remove(transactionId);
+            }
+            depth = stored[0];
+        } else {
+            // nothing is journaled, so the insert itself claims the id
+            int typeCode = unclaimedTypeCode(request.getType(), transactionId);
+            if (typeCode == TransactionTypeRegistry.UNKNOWN) {
+                throw duplicate(transactionId);
+            }
+            transaction.setTypeCode(typeCode);
+            depth = insert(transaction);
+            if (depth < 0) {
+                throw duplicate(transactionId);
+            }
+        }
+        changeFeed.publish(transaction);
+        transactionMetrics.recordCreated(depth);
+        // guarded: four arguments would otherwise allocate a varargs array and box the id on every PUT
+        if (logger.isDebugEnabled()) {
+            logger.debug("Transaction created successfully: id={}, type={}, amount={}, parentId={}",
+                transactionId, request.getType(), request.getAmount(), request.getParentId());
+        }
 
         return new PutNewTransactionResponse("ok");
     }
 
+    /**
+     * Applies one chunk of a bulk ingest. Items are checked in order against the
+     * store and against the items accepted before them in the chunk, so a parent
+     * may appear earlier in the same batch and its depth limit applies the same
+     * way. With a durable journal, accepted items are journaled together and
+     * then saved in one pass, and their ids stay claimed until then. Without
+     * one, each item is saved as soon as it is checked, and the insert itself
+     * is the duplicate check.
+     */
+    @Override
+    public List<BulkTransactionItemResult> putNewTransactions(List<BulkTransactionItemRequest> items) {
+        ensureRecovered();
+
+        long createdAt = System.currentTimeMillis();
+        List<BulkTransactionItemResult> results = new ArrayList<>(items.size());
+        List<Transaction> accepted = new ArrayList<>(items.size());
+        Map<Long, Transaction> acceptedById = new HashMap<>();
+        // ids of rejected items; with a durable journal this chunk still holds their claim
+        Set<Long> rejectedIds = new HashSet<>();
+        List<Long> reserved = new ArrayList<>(items.size());
+        boolean durable = transactionJournal.isDurable();
+        try {
+            for (BulkTransactionItemRequest item : items) {
+                Long transactionId = item.getTransactionId();
+                Long parentId = item.getParentId();
+                if (acceptedById.containsKey(transactionId)) {
+                    results.add(BulkTransactionItemResult.error(transactionId,
+                        String.format("Transaction id %d is repeated in the batch", transactionId)));
+                    transactionMetrics.recordDuplicate();
+                    continue;
+                }
+                // a repeat of a rejected item is checked again on its own
+                boolean claimed = rejectedIds.remove(transactionId);
+                if (durable && !claimed) {
+                    if (!reserve(transactionId)) {
+                        results.add(BulkTransactionItemResult.error(transactionId,
+                            String.format("Transaction already exists with id: %d", transactionId)));
+                        transactionMetrics.recordDuplicate();
+                        continue;
+                    }
+                    reserved.add(transactionId);
+                }
+                long amountUnits;
+                try {
+                    amountUnits = amountUnitsOf(item.getAmount());
+                } catch (ArithmeticException e) {
+                    results.add(BulkTransactionItemResult.error(transactionId, amountScaleMessage()));
+                    rejectedIds.add(transactionId);
+                    continue;
+                }
+                Transaction parent = null;
+                if (parentId != null) {
+                    parent = acceptedById.get(parentId);
+                    if (parent == null) {
+                        parent = transactionRepository.findById(parentId).orElse(null);
+                    }
+                    if (parent == null) {
+                        results.add(BulkTransactionItemResult.error(transactionId,
+                            String.format("Parent Transaction not found with id: %d", parentId)));
+                        transactionMetrics.recordMissingParent();
+                        rejectedIds.add(transactionId);
+                        continue;
+                    }
+                    if (exceedsMaxDepth(parent)) {
+                        results.add(BulkTransactionItemResult.error(transactionId,
+                            new MaxDepthExceededException(parentId, maxDepth).getMessage()));
+                        transactionMetrics.recordTooDeep();
+                        rejectedIds.add(transactionId);
+                        continue;
+                    }
+                }
+
+                Transaction transaction = new Transaction();
+                transaction.setTransactionId(transactionId);
+                transaction.setAmount(item.getAmount());
+                transaction.setAmountUnits(amountUnits);
+                transaction.setParentId(parentId);
+                transaction.setCreatedAt(createdAt);
+                placeInTree(transaction, parent);
+                if (durable) {
+                    transaction.setTypeCode(transactionTypeRegistry.resolve(item.getType()));
+                    accepted.add(transaction);
+                } else {
+                    int typeCode = unclaimedTypeCode(item.getType(), transactionId);
+                    transaction.setTypeCode(typeCode);
+                    int depth = typeCode == TransactionTypeRegistry.UNKNOWN ? -1 : insert(transaction);
+                    if (depth < 0) {
+                        results.add(BulkTransactionItemResult.error(transactionId,
+                            String.format("Transaction already exists with id: %d", transactionId)));
+                        transactionMetrics.recordDuplicate();
+                        continue;
+                    }
+                    changeFeed.publish(transaction);
+                    transactionMetrics.recordCreated(depth);
+                }
+                acceptedById.put(transactionId, transaction);
+                results.add(BulkTransactionItemResult.ok(transactionId));
+            }
+
+            int[] depths = new int[accepted.size()];
+            transactionJournal.appendAll(accepted, () -> {
+                for (int i = 0; i < accepted.size(); i++) {
+                    depths[i] = store(accepted.get(i));
+                }
+            });
+            for (int i = 0; i < accepted.size(); i++) {
+                changeFeed.publish(accepted.get(i));
+                transactionMetrics.recordCreated(depths[i]);
+            }
+        } finally {
+            pendingIds.removeAll(reserved);
+        }
+
+        return results;
+    }
+
     @Override
     public GetTransactionsByTypeResponse getTransactionsByType(String type) {
-        logger.info("Getting transactions by type: {}", type);
+        ensureRecovered();
+        logger.debug("Getting transactions by type: {}", type);
 
-        List<Transaction> transactions = transactionRepository.findByType(type);
-        
-        List<Long> transactionIds = transactions.stream()
-                .map(Transaction::getTransactionId)
-                .collect(Collectors.toList());
+        int typeCode = transactionTypeRegistry.find(type);
+        List<Long> transactionIds = typeCode == TransactionTypeRegistry.UNKNOWN
+            ? new ArrayList<>()
+            : transactionRepository.findIdsByType(typeCode);
 
         return new GetTransactionsByTypeResponse(transactionIds);
     }
 
     @Override
-    public GetSumTransactionResponse getSumByTransactionId(Long transactionId) {
-        logger.info("Getting sum for transaction ID: {}", transactionId);
+    public GetTransactionsByTypeResponse getTransactionsByType(String type, String cursor, int limit) {
+        ensureRecovered();
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new BadRequestException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+
+        int typeCode = transactionTypeRegistry.find(type);
+        Long position = cursor == null ? null : decodeCursor(cursor, typeCode);
+        if (typeCode == TransactionTypeRegistry.UNKNOWN) {
+            return new GetTransactionsByTypeResponse(new ArrayList<>(), null);
+        }
+
+        List<Long> transactionIds = new ArrayList<>(Math.min(limit, STREAM_PAGE_SIZE));
+        Long next;
+        try {
+            next = transactionRepository.forEachIdOfType(typeCode, position, limit, transactionIds::add);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+        return new GetTransactionsByTypeResponse(transactionIds, next == null ? null : encodeCursor(typeCode, next));
+    }
+
+    /**
+     * Lazily yields every id of the type, one repository page at a time.
+     * Recovery and the type are checked before this returns, so callers can
+     * fail before touching their response. Each page is copied out first, so a
+     * slow consumer (a client reading the response) never runs while the
+     * repository holds a lock.
+     */
+    @Override
+    public LongStream streamTransactionIdsByType(String type) {
+        ensureRecovered();
+        int typeCode = transactionTypeRegistry.find(type);
+        if (typeCode == TransactionTypeRegistry.UNKNOWN) {
+            return LongStream.empty();
+        }
+        return StreamSupport.longStream(
+            Spliterators.spliteratorUnknownSize(new IdPages(typeCode), Spliterator.ORDERED | Spliterator.DISTINCT),
+            false);
+    }
+
+    @Override
+    public GetTransactionTypesResponse getTransactionTypes() {
+        ensureRecovered();
+        List<String> names = transactionTypeRegistry.names();
+        List<TransactionTypeCount> types = new ArrayList<>(names.size());
+        for (int typeCode = 0; typeCode < names.size(); typeCode++) {
+            // the registry outlives a cleared store, so types without transactions are left out
+            long count = transactionRepository.countByType(typeCode);
+            if (count > 0) {
+                types.add(new TransactionTypeCount(names.get(typeCode), count));
+            }
+        }
+        return new GetTransactionTypesResponse(types);
+    }
+
+    /**
+     * Answers from the repository's time buckets. Bounds are truncated to the
+     * minute; without {@code to} the range ends after the current minute, and
+     * without {@code from} it covers the hour before {@code to}.
+     */
+    @Override
+    public GetTransactionTotalsResponse getTransactionTotals(String type, Instant from, Instant to) {
+        ensureRecovered();
+        Instant end = to != null
+            ? to.truncatedTo(ChronoUnit.MINUTES)
+            : Instant.now().truncatedTo(ChronoUnit.MINUTES).plus(1, ChronoUnit.MINUTES);
+        Instant start = from != null ? from.truncatedTo(ChronoUnit.MINUTES) : end.minus(DEFAULT_TOTALS_RANGE);
+        if (start.isAfter(end)) {
+            throw new BadRequestException("from must not be after to");
+        }
 
+        int typeCode = transactionTypeRegistry.find(type);
+        if (typeCode == TransactionTypeRegistry.UNKNOWN) {
+            return new GetTransactionTotalsResponse(type, start, end, 0, 0.0);
+        }
+        TimeRangeTotals totals = transactionRepository.totalsByType(typeCode, start.toEpochMilli(), end.toEpochMilli());
+        return new GetTransactionTotalsResponse(transactionTypeRegistry.nameOf(typeCode), start, end,
+            totals.count(), totals.sum());
+    }
+
+    @Override
+    public GetTransactionResponse getTransaction(Long transactionId) {
+        ensureRecovered();
         Transaction transaction = transactionRepository.findById(transactionId)
+            .orElseThrow(() -> new ResourceNotFoundException("Transaction", transactionId));
+        return new GetTransactionResponse(transaction.getTransactionId(), transaction.getAmount(),
+            transactionTypeRegistry.nameOf(transaction.getTypeCode()), transaction.getParentId(),
+            transaction.getRootId(), transaction.getDepth(),
+            transactionRepository.countSubtreeNodes(transactionId),
+            transaction.getCreatedAt() > 0 ? Instant.ofEpochMilli(transaction.getCreatedAt()) : null);
+    }
+
+    /**
+     * Lazily walks the subtree under the transaction, depth first in pre-order
+     * or breadth first, with constant memory (see {@link SubtreeWalker}). The
+     * arguments and the transaction are checked here, so errors surface before
+     * the first node is written. Depths are relative to the transaction.
+     */
+    @Override
+    public Stream<SubtreeNode> streamSubtree(Long transactionId, String order, int limit, Integer maxDepth) {
+        ensureRecovered();
+        boolean breadthFirst = "bfs".equalsIgnoreCase(order);
+        if (!breadthFirst && !"dfs".equalsIgnoreCase(order)) {
+            throw new BadRequestException("order must be dfs or bfs");
+        }
+        if (limit < 1 || limit > MAX_SUBTREE_NODES) {
+            throw new BadRequestException("limit must be between 1 and " + MAX_SUBTREE_NODES);
+        }
+        if (maxDepth != null && maxDepth < 0) {
+            throw new BadRequestException("maxDepth must not be negative");
+        }
+        if (breadthFirst && (maxDepth == null || maxDepth > MAX_BFS_DEPTH)) {
+            throw new BadRequestException("bfs requires maxDepth between 0 and " + MAX_BFS_DEPTH);
+        }
+
+        Transaction root = findTransaction(transactionId);
+        SubtreeWalker<SubtreeNode> walker = new SubtreeWalker<>(transactionRepository, root, breadthFirst,
+            maxDepth == null ? Integer.MAX_VALUE : maxDepth, limit,
+            (transaction, level) -> new SubtreeNode(transaction.getTransactionId(), transaction.getAmount(),
+                transactionTypeRegistry.nameOf(transaction.getTypeCode()), transaction.getParentId(), level));
+        return StreamSupport.stream(
+            Spliterators.spliteratorUnknownSize(walker, Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    @Override
+    public GetSumTransactionResponse getSumByTransactionId(Long transactionId) {
+        ensureRecovered();
+        logger.debug("Getting sum for transaction ID: {}", transactionId);
+        if (amountScale.isEnabled()) {
+            BigDecimal exactSum = exactSum(findTransaction(transactionId));
+            return new GetSumTransactionResponse(exactSum.doubleValue(), exactSum);
+        }
+
+        Double cached = sumCache.get(transactionId);
+        if (cached != null) {
+            return new GetSumTransactionResponse(cached);
+        }
+
+        Transaction transaction = findTransaction(transactionId);
+        // stamped once the id is known to exist, so unknown ids leave no empty entries behind
+        long cacheStamp = sumCache.stamp(transactionId);
+        double sum = transactionRepository.findSubtreeSum(transactionId).orElse(transaction.getAmount());
+
+        if (sumConsistencyCheck) {
+            double recomputed = transaction.getAmount() + subtreeSumCalculator.sumDescendants(transactionId);
+            if (Math.abs(recomputed - sum) > SUM_TOLERANCE * Math.max(1.0, Math.abs(recomputed))) {
+                logger.warn("Materialized sum mismatch for transaction ID {}: materialized={}, recomputed={}",
+                    transactionId, sum, recomputed);
+                sum = recomputed;
+            }
+        }
+
+        sumCache.put(transactionId, sum, cacheStamp);
+        return new GetSumTransactionResponse(sum);
+    }
+
+    /**
+     * Answers a batch of sums without failing on unknown ids. Each materialized
+     * total is a single lookup; with the consistency check enabled, the whole
+     * batch is recomputed in one shared pass instead of one walk per id, so
+     * overlapping subtrees are traversed once. In the exact-amount mode every
+     * sum also comes back as an exact decimal.
+     */
+    @Override
+    public GetSumsTransactionResponse getSumsByTransactionIds(List<Long> transactionIds) {
+        ensureRecovered();
+        List<Transaction> known = new ArrayList<>(transactionIds.size());
+        List<Long> unknownIds = new ArrayList<>();
+        for (Long transactionId : new LinkedHashSet<>(transactionIds)) {
+            transactionRepository.findById(transactionId)
+                .ifPresentOrElse(known::add, () -> unknownIds.add(transactionId));
+        }
+
+        Map<Long, Double> sums = new LinkedHashMap<>(known.size() * 2);
+        if (amountScale.isEnabled()) {
+            Map<Long, BigDecimal> exactSums = new LinkedHashMap<>(known.size() * 2);
+            for (Transaction transaction : known) {
+                BigDecimal exactSum = exactSum(transaction);
+                sums.put(transaction.getTransactionId(), exactSum.doubleValue());
+                exactSums.put(transaction.getTransactionId(), exactSum);
+            }
+            return new GetSumsTransactionResponse(sums, exactSums, unknownIds);
+        }
+        Map<Long, Double> recomputed = sumConsistencyCheck ? subtreeSumCalculator.sumSubtrees(known) : null;
+        for (Transaction transaction : known) {
+            Long transactionId = transaction.getTransactionId();
+            double sum = transactionRepository.findSubtreeSum(transactionId).orElse(transaction.getAmount());
+            if (recomputed != null) {
+                double expected = recomputed.get(transactionId);
+                if (Math.abs(expected - sum) > SUM_TOLERANCE * Math.max(1.0, Math.abs(expected))) {
+                    logger.warn("Materialized sum mismatch for transaction ID {}: materialized={}, recomputed={}",
+                        transactionId, sum, expected);
+                    sum = expected;
+                }
+            }
+            sums.put(transactionId, sum);
+        }
+        return new GetSumsTransactionResponse(sums, unknownIds);
+    }
+
+    /**
+     * Reads the change feed after {@code after}, or from the current head when
+     * it is absent, waiting up to {@code waitMillis} for the first insert so
+     * clients can long-poll. An empty page returns the same sequence back.
+     */
+    @Override
+    public GetTransactionChangesResponse getTransactionChanges(Long after, int limit, long waitMillis) {
+        ensureRecovered();
+        if (!changeFeed.isEnabled()) {
+            throw new ResourceNotFoundException("The change feed is disabled");
+        }
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new BadRequestException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        if (waitMillis < 0 || waitMillis > MAX_CHANGES_WAIT_MILLIS) {
+            throw new BadRequestException("waitMs must be between 0 and " + MAX_CHANGES_WAIT_MILLIS);
+        }
+
+        List<TransactionChange> changes = new ArrayList<>(Math.min(limit, STREAM_PAGE_SIZE));
+        long last = changeFeed.read(after != null ? after : changeFeed.head(), limit,
+            TimeUnit.MILLISECONDS.toNanos(waitMillis), change -> {
+                Transaction transaction = change.transaction();
+                changes.add(new TransactionChange(change.sequence(), transaction.getTransactionId(),
+                    transaction.getAmount(), transactionTypeRegistry.nameOf(transaction.getTypeCode()),
+                    transaction.getParentId(), Instant.ofEpochMilli(transaction.getCreatedAt())));
+            });
+        return new GetTransactionChangesResponse(changes, last);
+    }
+
+    private Transaction findTransaction(Long transactionId) {
+        return transactionRepository.findById(transactionId)
             .orElseThrow(() -> {
                 logger.warn("Transaction with ID {} not found", transactionId);
                 return new ResourceNotFoundException("Transaction", transactionId);
             });
+    }
 
-        Double sum = transaction.getAmount() + calculateRecursiveSum(transactionId);
+    /**
+     * Exact subtree total from the materialized minor units. A total that
+     * overflowed a long, or any total under the consistency check, is recomputed
+     * by traversal.
+     */
+    private BigDecimal exactSum(Transaction transaction) {
+        OptionalLong units = transactionRepository.findSubtreeUnits(transaction.getTransactionId());
+        BigDecimal sum = units.isPresent() ? amountScale.toAmount(units.getAsLong()) : null;
+        if (sum == null || sumConsistencyCheck) {
+            BigDecimal recomputed = subtreeSumCalculator.sumSubtreeExact(transaction);
+            if (sum != null && sum.compareTo(recomputed) != 0) {
+                logger.warn("Materialized exact sum mismatch for transaction ID {}: materialized={}, recomputed={}",
+                    transaction.getTransactionId(), sum, recomputed);
+            }
+            sum = recomputed;
+        }
+        return sum;
+    }
 
-        return new GetSumTransactionResponse(sum);
+    /**
+     * Minor units stored with a new transaction: 0 unless the exact-amount mode
+     * is enabled, in which case amounts must convert to whole minor units.
+     *
+     * @throws ArithmeticException if the amount has too many fraction digits
+     */
+    private long amountUnitsOf(double amount) {
+        return amountScale.isEnabled() ? amountScale.toUnits(amount) : 0;
+    }
+
+    private String amountScaleMessage() {
+        return String.format("Amount must have at most %d decimal places", amountScale.scale());
+    }
+
+
+    /** Cursors carry the type code, so a token cannot be replayed against another type. */
+    private static String encodeCursor(int typeCode, long position) {
+        ByteBuffer buffer = ByteBuffer.allocate(CURSOR_BYTES).putInt(typeCode).putLong(position);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
     }
 
-    private Double calculateRecursiveSum(Long parentId) {
-        List<Transaction> children = transactionRepository.findByParentId(parentId);
-        double sum = 0.0;
-        
-        for (Transaction child : children) {
-            sum += child.getAmount();
-            sum += calculateRecursiveSum(child.getTransactionId());
+    private static long decodeCursor(String cursor, int typeCode) {
+        byte[] bytes;
+        try {
+            bytes = Base64.getUrlDecoder().decode(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid cursor");
         }
-        
-        return sum;
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        if (bytes.length != CURSOR_BYTES || buffer.getInt() != typeCode) {
+            throw new BadRequestException("Invalid cursor");
+        }
+        return buffer.getLong();
     }
-}
 
+    /**
+     * Throws {@link ServiceUnavailableException} until recovery has finished, so
+     * streaming endpoints can fail before they commit a status.
+     */
+    @Override
+    public void ensureRecovered() {
+        if (recovering) {
+            throw new ServiceUnavailableException("Transaction store is still recovering");
+        }
+    }
+
+    /**
+     * Log records do not carry the root and depth, so they are derived again
+     * from the parent, which the log always holds before its children. The depth
+     * limit is not enforced here: these transactions were already accepted.
+     * Minor units are derived the same way, rounding amounts logged before the
+     * exact mode was enabled.
+     */
+    private void restore(Transaction transaction) {
+        if (amountScale.isEnabled()) {
+            transaction.setAmountUnits(amountScale.roundToUnits(transaction.getAmount()));
+        }
+        Long parentId = transaction.getParentId();
+        placeInTree(transaction, parentId == null ? null : transactionRepository.findById(parentId).orElse(null));
+        if (!transactionRepository.saveIfAbsent(transaction)) {
+            return;
+        }
+        transactionMetrics.recordDepth(propagateSubtreeSum(transaction));
+    }
+
+    /** Claims the id until its record is journaled and stored; false if another write holds it or it is stored. */
+    private boolean reserve(long transactionId) {
+        if (!pendingIds.add(transactionId)) {
+            return false;
+        }
+        if (transactionRepository.findById(transactionId).isPresent()) {
+            pendingIds.remove(transactionId);
+            return false;
+        }
+        return true;
+    }
+
+    /** Stores a journaled transaction whose id is claimed and adds it to its ancestors' totals. */
+    private int store(Transaction transaction) {
+        if (!transactionRepository.saveIfAbsent(transaction)) {
+            throw new IllegalStateException(
+                "Transaction " + transaction.getTransactionId() + " was stored while its id was claimed");
+        }
+        return propagateSubtreeSum(transaction);
+    }
+
+    /** Stores an unjournaled transaction and adds it to its ancestors' totals; -1 if the id is taken. */
+    private int insert(Transaction transaction) {
+        return transactionRepository.saveIfAbsent(transaction) ? propagateSubtreeSum(transaction) : -1;
+    }
+
+    /**
+     * Type code for a write whose id is not claimed. A new name is registered
+     * only once the id is known to be free, so a rejected duplicate leaves no
+     * name behind; {@link TransactionTypeRegistry#UNKNOWN} if the id is taken.
+     */
+    private int unclaimedTypeCode(String type, long transactionId) {
+        int typeCode = transactionTypeRegistry.find(type);
+        if (typeCode != TransactionTypeRegistry.UNKNOWN) {
+            return typeCode;
+        }
+        if (transactionRepository.findById(transactionId).isPresent()) {
+            return TransactionTypeRegistry.UNKNOWN;
+        }
+        return transactionTypeRegistry.resolve(type);
+    }
+
+    private ResourceAlreadyExistsException duplicate(long transactionId) {
+        logger.warn("Transaction with ID {} already exists", transactionId);
+        transactionMetrics.recordDuplicate();
+        return new ResourceAlreadyExistsException("Transaction", transactionId);
+    }
+
+    /** True when a child of the parent would be deeper than the configured limit (0 disables it). */
+    private boolean exceedsMaxDepth(Transaction parent) {
+        return maxDepth > 0 && parent.getDepth() >= maxDepth;
+    }
+
+    private static void placeInTree(Transaction transaction, Transaction parent) {
+        if (parent == null) {
+            transaction.setRootId(transaction.getTransactionId());
+            transaction.setDepth(0);
+        } else {
+            transaction.setRootId(parent.getRootId());
+            transaction.setDepth(parent.getDepth() + 1);
+        }
+    }
+
+    /**
+     * Adds a new node's amount and one node to the materialized totals of every
+     * ancestor, and in the exact-amount mode its minor units to its own and every
+     * ancestor's exact total. Each update is atomic, so concurrent inserts into
+     * the same tree never lose an amount; readers may briefly see a total without
+     * an in-flight insert. Each ancestor's cached sum is invalidated after its
+     * total is updated.
+     *
+     * @return the number of ancestors updated, which is the new node's depth
+     */
+    private int propagateSubtreeSum(Transaction transaction) {
+        double amount = transaction.getAmount();
+        boolean exact = amountScale.isEnabled();
+        long units = transaction.getAmountUnits();
+        if (exact) {
+            transactionRepository.addToSubtreeUnits(transaction.getTransactionId(), units);
+        }
+        int depth = 0;
+        Long ancestorId = transaction.getParentId();
+        while (ancestorId != null) {
+            transactionRepository.addToSubtree(ancestorId, amount, 1);
+            if (exact) {
+                transactionRepository.addToSubtreeUnits(ancestorId, units);
+            }
+            sumCache.invalidate(ancestorId);
+            depth++;
+            ancestorId = transactionRepository.findById(ancestorId)
+                .map(Transaction::getParentId)
+                .orElse(null);
+        }
+        return depth;
+    }
+
+    /** Iterates the ids of a type through a reused page buffer. */
+    private final class IdPages implements PrimitiveIterator.OfLong, LongConsumer {
+
+        private final int typeCode;
+        private final long[] ids = new long[STREAM_PAGE_SIZE];
+        private int size;
+        private int position;
+        private Long cursor;
+        private boolean exhausted;
+
+        private IdPages(int typeCode) {
+            this.typeCode = typeCode;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (position == size && !exhausted) {
+                size = 0;
+                position = 0;
+                cursor = transactionRepository.forEachIdOfType(typeCode, cursor, STREAM_PAGE_SIZE, this);
+                exhausted = cursor == null;
+            }
+            return position < size;
+        }
+
+        @Override
+        public long nextLong() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return ids[position++];
+        }
+
+        @Override
+        public void accept(long transactionId) {
+            ids[size++] = transactionId;
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.mendel.mendel_challenge;
+
+import org.junit.jupiter.api.DisplayName;
+import org.springframework.test.context.TestPropertySource;
+
+/** Runs the concurrency stress tests against the columnar repository. */
+@TestPropertySource(properties = "transactions.repository.type=columnar")
+@DisplayName("Transaction Concurrency Stress Tests (columnar)")
+class ColumnarTransactionConcurrencyStressTest extends TransactionConcurrencyStressTest {
+}
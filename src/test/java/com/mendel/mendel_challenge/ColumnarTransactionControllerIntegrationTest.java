@@ -0,0 +1,10 @@
+package com.mendel.mendel_challenge;
+
+import org.junit.jupiter.api.DisplayName;
+import org.springframework.test.context.TestPropertySource;
+
+/** Runs the whole integration suite against the columnar repository. */
+@TestPropertySource(properties = "transactions.repository.type=columnar")
+@DisplayName("Transaction Controller Integration Tests (columnar)")
+class ColumnarTransactionControllerIntegrationTest extends TransactionControllerIntegrationTest {
+}
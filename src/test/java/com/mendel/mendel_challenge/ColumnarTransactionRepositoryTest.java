@@ -0,0 +1,69 @@
+package com.mendel.mendel_challenge;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.mendel.mendel_challenge.model.Transaction;
+import com.mendel.mendel_challenge.repository.ColumnarTransactionRepository;
+
+@DisplayName("Columnar Transaction Repository Tests")
+class ColumnarTransactionRepositoryTest {
+
+    @Test
+    @DisplayName("Debe devolver copias que no alteran las columnas al modificarse")
+    void testFindById_ReturnsDetachedCopy() {
+        ColumnarTransactionRepository repository = new ColumnarTransactionRepository(16, false);
+        repository.save(transaction(1L, null, 10.0));
+
+        Transaction copy = repository.findById(1L).orElseThrow();
+        copy.setAmount(99.0);
+        copy.setParentId(7L);
+
+        Transaction stored = repository.findById(1L).orElseThrow();
+        assertEquals(10.0, stored.getAmount());
+        assertNull(stored.getParentId());
+        assertEquals(0, repository.countChildren(7L));
+    }
+
+    @Test
+    @DisplayName("Debe crecer mas alla de la capacidad inicial sin perder transacciones ni enlaces")
+    void testSave_BeyondInitialCapacity_GrowsColumns() {
+        ColumnarTransactionRepository repository = new ColumnarTransactionRepository(16, false);
+        repository.save(transaction(1L, null, 1.0));
+        for (long id = 2; id <= 10_000; id++) {
+            repository.save(transaction(id, id / 2, 1.0));
+        }
+
+        assertEquals(10_000L, repository.count());
+        assertEquals(2, repository.countChildren(1L));
+        assertEquals(3_888L, repository.findById(7_777L).orElseThrow().getParentId());
+        assertEquals(1, repository.countChildren(5_000L));
+    }
+
+    @Test
+    @DisplayName("Debe ignorar las unidades menores si el modo de importes exactos esta desactivado")
+    void testUnits_ExactModeDisabled_AreNotKept() {
+        ColumnarTransactionRepository repository = new ColumnarTransactionRepository(16, false);
+        Transaction transaction = transaction(1L, null, 10.0);
+        transaction.setAmountUnits(1_000);
+        repository.save(transaction);
+        repository.addToSubtreeUnits(1L, 1_000);
+
+        assertEquals(0, repository.findById(1L).orElseThrow().getAmountUnits());
+        assertTrue(repository.findSubtreeUnits(1L).isEmpty());
+        assertEquals(10.0, repository.findSubtreeSum(1L).orElseThrow());
+    }
+
+    private static Transaction transaction(long id, Long parentId, double amount) {
+        Transaction transaction = new Transaction();
+        transaction.setTransactionId(id);
+        transaction.setAmount(amount);
+        transaction.setTypeCode(0);
+        transaction.setParentId(parentId);
+        return transaction;
+    }
+}
@@ -0,0 +1,114 @@
+package com.mendel.mendel_challenge;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.mendel.mendel_challenge.model.Transaction;
+import com.mendel.mendel_challenge.repository.AmountScale;
+import com.mendel.mendel_challenge.repository.InMemoryTransactionRepository;
+import com.mendel.mendel_challenge.repository.TransactionTypeRegistry;
+import com.mendel.mendel_challenge.service.SubtreeSumCalculator;
+import com.mendel.mendel_challenge.service.TransactionMetrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/** Property tests of the exact-amount mode against BigDecimal, over seeded random inputs. */
+@DisplayName("Exact Amount Tests")
+class ExactAmountsTest {
+
+    private static final long SEED = 20261018L;
+
+    @Test
+    @DisplayName("Debe convertir a unidades menores exactas todo importe con hasta dos decimales y rechazar el resto")
+    void testToUnits_RandomDecimals_MatchBigDecimal() {
+        AmountScale amountScale = new AmountScale(true, 2);
+        SplittableRandom random = new SplittableRandom(SEED);
+        for (int i = 0; i < 100_000; i++) {
+            // up to 100 billion, plus a tail of cent values that doubles cannot represent exactly
+            long units = i % 2 == 0 ? random.nextLong(1, 10_000_000_000_000L) : random.nextLong(1, 1_000);
+            double amount = Double.parseDouble(BigDecimal.valueOf(units, 2).toPlainString());
+            assertEquals(units, amountScale.toUnits(amount), () -> "amount " + amount);
+
+            long finer = units * 10 + random.nextInt(1, 10);
+            double tooPrecise = Double.parseDouble(BigDecimal.valueOf(finer, 3).toPlainString());
+            assertThrows(ArithmeticException.class, () -> amountScale.toUnits(tooPrecise), () -> "amount " + tooPrecise);
+        }
+    }
+
+    @Test
+    @DisplayName("Debe sumar un arbol aleatorio exactamente igual que BigDecimal")
+    void testSubtreeSums_RandomTree_MatchBigDecimal() {
+        AmountScale amountScale = new AmountScale(true, 2);
+        InMemoryTransactionRepository repository = new InMemoryTransactionRepository();
+        SubtreeSumCalculator calculator = calculator(repository, amountScale);
+        SplittableRandom random = new SplittableRandom(SEED);
+
+        int size = 50_000;
+        long[] parents = new long[size + 1];
+        BigDecimal[] expected = new BigDecimal[size + 1];
+        for (int id = 1; id <= size; id++) {
+            BigDecimal amount = BigDecimal.valueOf(random.nextLong(1, 100_000_000L), 2);
+            parents[id] = id == 1 ? 0 : random.nextLong(Math.max(1, id - 100), id);
+            expected[id] = amount;
+            repository.save(transaction(id, parents[id], amount.doubleValue(), amountScale));
+            long units = amountScale.toUnits(amount.doubleValue());
+            for (long node = id; node != 0; node = parents[(int) node]) {
+                repository.addToSubtreeUnits(node, units);
+            }
+        }
+        for (int id = size; id > 1; id--) {
+            expected[(int) parents[id]] = expected[(int) parents[id]].add(expected[id]);
+        }
+
+        for (int id = 1; id <= size; id += 997) {
+            Transaction transaction = repository.findById((long) id).orElseThrow();
+            assertEquals(0, expected[id].compareTo(calculator.sumSubtreeExact(transaction)), "traversal of " + id);
+            assertEquals(0, expected[id].compareTo(
+                amountScale.toAmount(repository.findSubtreeUnits((long) id).orElseThrow())), "materialized " + id);
+        }
+    }
+
+    @Test
+    @DisplayName("Debe marcar el total desbordado y recalcularlo con BigDecimal")
+    void testSubtreeSums_Overflow_FallsBackToBigDecimal() {
+        AmountScale amountScale = new AmountScale(true, 0);
+        InMemoryTransactionRepository repository = new InMemoryTransactionRepository();
+        SubtreeSumCalculator calculator = calculator(repository, amountScale);
+        double amount = 5e18;
+
+        repository.save(transaction(1, 0, amount, amountScale));
+        repository.save(transaction(2, 1, amount, amountScale));
+        repository.addToSubtreeUnits(1L, amountScale.toUnits(amount));
+        repository.addToSubtreeUnits(2L, amountScale.toUnits(amount));
+        repository.addToSubtreeUnits(1L, amountScale.toUnits(amount));
+
+        assertTrue(repository.findSubtreeUnits(1L).isEmpty());
+        assertEquals(5_000_000_000_000_000_000L, repository.findSubtreeUnits(2L).orElseThrow());
+        assertEquals(new BigDecimal("10000000000000000000"),
+            calculator.sumSubtreeExact(repository.findById(1L).orElseThrow()));
+        assertEquals(AmountScale.OVERFLOW, AmountScale.addUnits(Long.MAX_VALUE, 1));
+    }
+
+    private static SubtreeSumCalculator calculator(InMemoryTransactionRepository repository, AmountScale amountScale) {
+        TransactionMetrics metrics =
+            new TransactionMetrics(new SimpleMeterRegistry(), repository, new TransactionTypeRegistry());
+        return new SubtreeSumCalculator(repository, metrics, amountScale, false, 10_000, 0);
+    }
+
+    private static Transaction transaction(long id, long parentId, double amount, AmountScale amountScale) {
+        Transaction transaction = new Transaction();
+        transaction.setTransactionId(id);
+        transaction.setAmount(amount);
+        transaction.setAmountUnits(amountScale.toUnits(amount));
+        transaction.setTypeCode(0);
+        transaction.setParentId(parentId == 0 ? null : parentId);
+        return transaction;
+    }
+}
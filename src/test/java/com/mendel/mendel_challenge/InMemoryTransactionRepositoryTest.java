@@ -0,0 +1,122 @@
+package com.mendel.mendel_challenge;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.mendel.mendel_challenge.model.Transaction;
+import com.mendel.mendel_challenge.repository.InMemoryTransactionRepository;
+
+@DisplayName("In-Memory Transaction Repository Tests")
+class InMemoryTransactionRepositoryTest {
+
+    private static final int ROUNDS = 50_000;
+    private static final int SPIN_STEPS = 256;
+    private static final long MOVER_ID = 1L;
+    private static final long OTHER_PARENT_ID = 2L;
+
+    @Test
+    @DisplayName("Debe conservar el enlace de un hijo nuevo cuando otro hijo deja vacio el conjunto del padre")
+    void testLinkChild_RacingUnlink_KeepsEveryChild() throws Exception {
+        InMemoryTransactionRepository repository = new InMemoryTransactionRepository();
+        repository.save(transaction(OTHER_PARENT_ID, null, 0));
+        CyclicBarrier barrier = new CyclicBarrier(2);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            // each round the mover joins a fresh parent and leaves it, emptying its child set,
+            // while a new child is linked to the same parent
+            Future<?> mover = executor.submit(() -> {
+                for (long round = 0; round < ROUNDS; round++) {
+                    long parentId = parentId(round);
+                    repository.save(transaction(MOVER_ID, parentId, 0));
+                    barrier.await();
+                    spin(round);
+                    repository.save(transaction(MOVER_ID, OTHER_PARENT_ID, 0));
+                }
+                return null;
+            });
+            Future<?> linker = executor.submit(() -> {
+                for (long round = 0; round < ROUNDS; round++) {
+                    barrier.await();
+                    repository.saveIfAbsent(transaction(childId(round), parentId(round), 0));
+                }
+                return null;
+            });
+            mover.get();
+            linker.get();
+        } finally {
+            executor.shutdownNow();
+        }
+
+        for (long round = 0; round < ROUNDS; round++) {
+            assertEquals(1, repository.countChildren(parentId(round)), "children of round " + round);
+        }
+    }
+
+    @Test
+    @DisplayName("Debe mantener el conteo por tipo igual al indice cuando los tipos cambian en paralelo")
+    void testLinkType_RacingUnlink_KeepsCountsInStep() throws Exception {
+        InMemoryTransactionRepository repository = new InMemoryTransactionRepository();
+        CyclicBarrier barrier = new CyclicBarrier(2);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            // each round the mover takes a fresh type and leaves it, emptying its id set,
+            // while a new transaction of that type is inserted
+            Future<?> mover = executor.submit(() -> {
+                for (int round = 0; round < ROUNDS; round++) {
+                    repository.save(transaction(MOVER_ID, null, round + 1));
+                    barrier.await();
+                    spin(round);
+                    repository.save(transaction(MOVER_ID, null, 0));
+                }
+                return null;
+            });
+            Future<?> linker = executor.submit(() -> {
+                for (int round = 0; round < ROUNDS; round++) {
+                    barrier.await();
+                    repository.saveIfAbsent(transaction(childId(round), null, round + 1));
+                }
+                return null;
+            });
+            mover.get();
+            linker.get();
+        } finally {
+            executor.shutdownNow();
+        }
+
+        for (int typeCode = 1; typeCode <= ROUNDS; typeCode++) {
+            assertEquals(1, repository.findIdsByType(typeCode).size(), "ids of type " + typeCode);
+            assertEquals(1, repository.countByType(typeCode), "count of type " + typeCode);
+        }
+    }
+
+    /** Delays the mover by a varying amount so its unlink sweeps across the linker's window. */
+    private static void spin(long round) {
+        for (long i = round % SPIN_STEPS; i > 0; i--) {
+            Thread.onSpinWait();
+        }
+    }
+
+    private static long parentId(long round) {
+        return 1_000_000 + round;
+    }
+
+    private static long childId(long round) {
+        return 2_000_000 + round;
+    }
+
+    private static Transaction transaction(long id, Long parentId, int typeCode) {
+        Transaction transaction = new Transaction();
+        transaction.setTransactionId(id);
+        transaction.setAmount(1.0);
+        transaction.setTypeCode(typeCode);
+        transaction.setParentId(parentId);
+        return transaction;
+    }
+}
@@ -0,0 +1,100 @@
+package com.mendel.mendel_challenge;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.embedded.netty.NettyWebServer;
+import org.springframework.boot.web.reactive.context.ReactiveWebServerApplicationContext;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import com.mendel.mendel_challenge.dto.PutNewTransactionRequest;
+import com.mendel.mendel_challenge.repository.TransactionRepository;
+import com.mendel.mendel_challenge.service.SumCache;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    properties = "spring.main.web-application-type=reactive")
+@AutoConfigureWebTestClient
+@DisplayName("Reactive Transaction Controller Integration Tests")
+class ReactiveTransactionControllerIntegrationTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private SumCache sumCache;
+
+    @Autowired
+    private ReactiveWebServerApplicationContext applicationContext;
+
+    @BeforeEach
+    void setUp() {
+        transactionRepository.deleteAll();
+        sumCache.clear();
+    }
+
+    @Test
+    @DisplayName("Debe servir el stack reactivo desde Netty aunque Tomcat este en el classpath")
+    void testWebServer_IsNetty() {
+        assertInstanceOf(NettyWebServer.class, applicationContext.getWebServer());
+    }
+
+    @Test
+    @DisplayName("Debe insertar transacciones y sumar sus hijos sobre el stack reactivo")
+    void testPutAndSum_OnReactiveStack() {
+        put(21000L, new PutNewTransactionRequest(100.0, "REACTIVE", null));
+        put(21001L, new PutNewTransactionRequest(50.0, "REACTIVE", 21000L));
+        put(21002L, new PutNewTransactionRequest(25.0, "REACTIVE", 21001L));
+
+        webTestClient.get().uri("/transactions/sum/{transactionId}", 21000L)
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody().jsonPath("$.sum").isEqualTo(175.0);
+    }
+
+    @Test
+    @DisplayName("Debe devolver 400 con el mensaje de validacion sobre el stack reactivo")
+    void testPutNewTransaction_MissingAmount_OnReactiveStack() {
+        webTestClient.put().uri("/transactions/{transactionId}", 21100L)
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue("{\"type\": \"CREDIT\"}")
+            .exchange()
+            .expectStatus().isBadRequest()
+            .expectBody().jsonPath("$.message").value(containsString("Amount is required"));
+    }
+
+    @Test
+    @DisplayName("Debe transmitir todos los ids de un tipo con el mismo formato JSON")
+    void testStreamTransactionsByType_OnReactiveStack() {
+        for (long id = 21200L; id < 21205L; id++) {
+            put(id, new PutNewTransactionRequest(1.0, "REACTIVE_STREAM", null));
+        }
+
+        webTestClient.get().uri("/transactions/types/{type}?stream=true", "REACTIVE_STREAM")
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody().json("{\"transactionIds\":[21200,21201,21202,21203,21204]}");
+
+        webTestClient.get().uri("/transactions/types/{type}?stream=true", "UNKNOWN_TYPE")
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody().json("{\"transactionIds\":[]}");
+    }
+
+    private void put(long transactionId, PutNewTransactionRequest request) {
+        webTestClient.put().uri("/transactions/{transactionId}", transactionId)
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue(request)
+            .exchange()
+            .expectStatus().isOk();
+    }
+}
@@ -0,0 +1,10 @@
+package com.mendel.mendel_challenge;
+
+import org.junit.jupiter.api.DisplayName;
+import org.springframework.test.context.TestPropertySource;
+
+/** Runs the concurrency stress tests against the sharded repository. */
+@TestPropertySource(properties = "transactions.repository.type=sharded")
+@DisplayName("Transaction Concurrency Stress Tests (sharded)")
+class ShardedTransactionConcurrencyStressTest extends TransactionConcurrencyStressTest {
+}
@@ -0,0 +1,88 @@
+package com.mendel.mendel_challenge;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.mendel.mendel_challenge.model.Transaction;
+import com.mendel.mendel_challenge.repository.ShardedTransactionRepository;
+
+@DisplayName("Sharded Transaction Repository Tests")
+class ShardedTransactionRepositoryTest {
+
+    private static final int TYPE_CODE = 0;
+
+    @Test
+    @DisplayName("Debe paginar los ids de un tipo en orden ascendente a traves de todos los shards")
+    void testForEachIdOfType_AcrossShards_PagesInAscendingOrder() {
+        ShardedTransactionRepository repository = new ShardedTransactionRepository(8);
+        for (long id = 100; id >= 1; id--) {
+            repository.save(transaction(id, null));
+        }
+
+        List<Long> ids = new ArrayList<>();
+        Long cursor = null;
+        int pages = 0;
+        do {
+            cursor = repository.forEachIdOfType(TYPE_CODE, cursor, 7, ids::add);
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(repository.findIdsByType(TYPE_CODE), ids);
+        assertEquals(100, ids.size());
+        assertEquals(15, pages);
+        assertEquals(100L, repository.countByType(TYPE_CODE));
+    }
+
+    @Test
+    @DisplayName("Debe rellenar los lotes de cada shard cuando la pagina supera su tamano")
+    void testForEachIdOfType_PageLargerThanBatch_RefillsShards() {
+        ShardedTransactionRepository repository = new ShardedTransactionRepository(2);
+        for (long id = 1; id <= 1_000; id++) {
+            repository.save(transaction(id * 3, null));
+        }
+
+        List<Long> ids = new ArrayList<>();
+        Long cursor = repository.forEachIdOfType(TYPE_CODE, null, 600, ids::add);
+        assertEquals(1_800L, cursor);
+        assertNull(repository.forEachIdOfType(TYPE_CODE, cursor, 600, ids::add));
+
+        assertEquals(repository.findIdsByType(TYPE_CODE), ids);
+    }
+
+    @Test
+    @DisplayName("Debe indexar hijos y sumas de subarbol aunque padre e hijos vivan en shards distintos")
+    void testChildren_InOtherShards_AreLinkedToParent() {
+        ShardedTransactionRepository repository = new ShardedTransactionRepository(8);
+        repository.save(transaction(1L, null));
+        for (long id = 2; id <= 50; id++) {
+            repository.saveIfAbsent(transaction(id, 1L));
+            repository.addToSubtree(1L, id, 1);
+        }
+
+        assertEquals(49, repository.countChildren(1L));
+        assertEquals(49, repository.findByParentId(1L).size());
+        assertEquals(1L, repository.countParents());
+        assertEquals(50L, repository.count());
+        assertEquals(1275.0, repository.findSubtreeSum(1L).orElseThrow());
+        assertEquals(50L, repository.countSubtreeNodes(1L));
+
+        repository.deleteAll();
+        assertEquals(0L, repository.count());
+        assertNull(repository.forEachIdOfType(TYPE_CODE, null, 10, id -> { }));
+    }
+
+    private static Transaction transaction(long id, Long parentId) {
+        Transaction transaction = new Transaction();
+        transaction.setTransactionId(id);
+        transaction.setAmount((double) id);
+        transaction.setTypeCode(TYPE_CODE);
+        transaction.setParentId(parentId);
+        return transaction;
+    }
+}
@@ -0,0 +1,93 @@
+package com.mendel.mendel_challenge;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.mendel.mendel_challenge.model.Transaction;
+import com.mendel.mendel_challenge.repository.AmountScale;
+import com.mendel.mendel_challenge.repository.InMemoryTransactionRepository;
+import com.mendel.mendel_challenge.repository.TransactionTypeRegistry;
+import com.mendel.mendel_challenge.service.SubtreeSumCalculator;
+import com.mendel.mendel_challenge.service.TransactionMetrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/** Checks the ForkJoin descendant sum against the sequential walk over the same tree. */
+@DisplayName("Subtree Sum Calculator Tests")
+class SubtreeSumCalculatorTest {
+
+    private static final long SEED = 20261018L;
+
+    @Test
+    @DisplayName("Debe sumar en paralelo un arbol ancho igual que el recorrido secuencial")
+    void testSumDescendants_ParallelWideTree_MatchesSequential() {
+        InMemoryTransactionRepository repository = new InMemoryTransactionRepository();
+        SplittableRandom random = new SplittableRandom(SEED);
+
+        // a root with 300 children, every tenth of them with 50 children of its own and
+        // every grandchild with a short chain, so forks happen at two levels and ranges split
+        long nextId = 2;
+        long expected = 0;
+        save(repository, 1, 0, 1);
+        for (int child = 0; child < 300; child++) {
+            long childId = nextId++;
+            expected += save(repository, childId, 1, random.nextInt(1, 1_000));
+            if (child % 10 != 0) {
+                continue;
+            }
+            for (int grandchild = 0; grandchild < 50; grandchild++) {
+                long parentId = childId;
+                for (int depth = 0; depth < 3; depth++) {
+                    long id = nextId++;
+                    expected += save(repository, id, parentId, random.nextInt(1, 1_000));
+                    parentId = id;
+                }
+            }
+        }
+        long nodes = nextId - 1;
+
+        SimpleMeterRegistry sequentialMeters = new SimpleMeterRegistry();
+        SimpleMeterRegistry parallelMeters = new SimpleMeterRegistry();
+        SubtreeSumCalculator sequential = calculator(repository, sequentialMeters, false);
+        SubtreeSumCalculator parallel = calculator(repository, parallelMeters, true);
+
+        assertEquals(nodes, repository.countSubtreeNodes(1L));
+        double sequentialSum = sequential.sumDescendants(1L);
+        assertEquals((double) expected, sequentialSum);
+        assertEquals(sequentialSum, parallel.sumDescendants(1L));
+        assertEquals(nodes, visitedNodes(sequentialMeters));
+        assertEquals(nodes, visitedNodes(parallelMeters));
+
+        // subtrees below the threshold take the sequential path of the parallel calculator too
+        assertEquals(sequential.sumDescendants(2L), parallel.sumDescendants(2L));
+    }
+
+    private static SubtreeSumCalculator calculator(InMemoryTransactionRepository repository,
+                                                   SimpleMeterRegistry meterRegistry, boolean parallel) {
+        TransactionMetrics metrics = new TransactionMetrics(meterRegistry, repository, new TransactionTypeRegistry());
+        return new SubtreeSumCalculator(repository, metrics, new AmountScale(false, 2), parallel, 4, 4);
+    }
+
+    /** Saves the transaction, counts it in the materialized subtree of every ancestor and returns its amount. */
+    private static long save(InMemoryTransactionRepository repository, long id, long parentId, long amount) {
+        Transaction transaction = new Transaction();
+        transaction.setTransactionId(id);
+        transaction.setAmount((double) amount);
+        transaction.setTypeCode(0);
+        transaction.setParentId(parentId == 0 ? null : parentId);
+        repository.save(transaction);
+        for (Long node = transaction.getParentId(); node != null;
+             node = repository.findById(node).orElseThrow().getParentId()) {
+            repository.addToSubtree(node, amount, 1);
+        }
+        return amount;
+    }
+
+    private static long visitedNodes(SimpleMeterRegistry meterRegistry) {
+        return (long) meterRegistry.get("transactions.sum.visited.nodes").summary().totalAmount();
+    }
+}
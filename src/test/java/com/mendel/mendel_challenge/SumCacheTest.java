@@ -0,0 +1,102 @@
+package com.mendel.mendel_challenge;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import com.mendel.mendel_challenge.service.SumCache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@DisplayName("Sum Cache Tests")
+class SumCacheTest {
+
+    @Test
+    @DisplayName("Debe descartar una suma calculada antes de una invalidacion concurrente")
+    void testPut_AfterInvalidation_IsDiscarded() {
+        SumCache sumCache = new SumCache(new SimpleMeterRegistry(), true, DataSize.ofMegabytes(1));
+
+        long stamp = sumCache.stamp(1L);
+        sumCache.invalidate(1L);
+        sumCache.put(1L, 10.0, stamp);
+        assertNull(sumCache.get(1L));
+
+        sumCache.put(1L, 15.0, sumCache.stamp(1L));
+        assertEquals(15.0, sumCache.get(1L));
+    }
+
+    @Test
+    @DisplayName("Debe conservar una suma en curso cuando se invalida otro id del mismo segmento")
+    void testPut_AfterInvalidationOfAnotherId_IsKept() {
+        SumCache sumCache = new SumCache(new SimpleMeterRegistry(), true, DataSize.ofMegabytes(1));
+
+        long stamp = sumCache.stamp(0L);
+        // a thousand other ids hit every one of the 16 segments, including id 0's
+        for (long id = 1; id <= 1_000; id++) {
+            sumCache.invalidate(id);
+        }
+        sumCache.put(0L, 10.0, stamp);
+        assertEquals(10.0, sumCache.get(0L));
+        assertEquals(1, sumCache.size());
+    }
+
+    @Test
+    @DisplayName("Debe respetar el presupuesto de memoria desalojando las entradas menos usadas")
+    void testPut_OverBudget_EvictsLeastRecentlyUsed() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        SumCache sumCache = new SumCache(meterRegistry, true, DataSize.ofKilobytes(64));
+
+        for (long id = 0; id < 10_000; id++) {
+            sumCache.put(id, id, sumCache.stamp(id));
+        }
+
+        long maxEntries = DataSize.ofKilobytes(64).toBytes() / 120;
+        assertTrue(sumCache.size() <= maxEntries);
+        assertEquals(10_000 - sumCache.size(),
+            (long) meterRegistry.get("cache.evictions").counter().count());
+        assertEquals(9_999.0, sumCache.get(9_999L));
+    }
+
+    @Test
+    @DisplayName("Debe conservar al desalojar una entrada leida desde la ultima pasada")
+    void testPut_OverBudget_KeepsRecentlyReadEntry() {
+        // 8 entries per segment, all ids chosen in the same segment
+        SumCache sumCache = new SumCache(new SimpleMeterRegistry(), true, DataSize.ofBytes(120 * 16 * 8));
+        long[] ids = new long[10];
+        for (long id = 0, found = 0; found < ids.length; id++) {
+            if ((id * 0x9E3779B97F4A7C15L) >>> 60 == 0) {
+                ids[(int) found++] = id;
+            }
+        }
+
+        for (int i = 0; i < 9; i++) {
+            sumCache.put(ids[i], i, sumCache.stamp(ids[i]));
+        }
+        assertNull(sumCache.get(ids[0]));
+
+        assertEquals(1.0, sumCache.get(ids[1]));
+        sumCache.put(ids[9], 9, sumCache.stamp(ids[9]));
+        assertEquals(1.0, sumCache.get(ids[1]));
+        assertNull(sumCache.get(ids[2]));
+        assertEquals(8, sumCache.size());
+    }
+
+    @Test
+    @DisplayName("Debe vaciar la cache y descartar las sumas en curso")
+    void testClear_DiscardsEntriesAndInFlightSums() {
+        SumCache sumCache = new SumCache(new SimpleMeterRegistry(), true, DataSize.ofMegabytes(1));
+        sumCache.put(1L, 10.0, sumCache.stamp(1L));
+        long stamp = sumCache.stamp(2L);
+
+        sumCache.clear();
+        sumCache.put(2L, 20.0, stamp);
+
+        assertNull(sumCache.get(1L));
+        assertNull(sumCache.get(2L));
+        assertEquals(0, sumCache.size());
+    }
+}
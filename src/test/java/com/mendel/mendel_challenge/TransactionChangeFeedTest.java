@@ -0,0 +1,98 @@
+package com.mendel.mendel_challenge;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.mendel.mendel_challenge.exception.ChangeFeedExpiredException;
+import com.mendel.mendel_challenge.exception.ServiceUnavailableException;
+import com.mendel.mendel_challenge.model.Transaction;
+import com.mendel.mendel_challenge.service.TransactionChangeFeed;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@DisplayName("Transaction Change Feed Tests")
+class TransactionChangeFeedTest {
+
+    @Test
+    @DisplayName("Debe entregar las inserciones en orden desde la secuencia pedida")
+    void testRead_AfterSequence_ReturnsInsertsInOrder() {
+        TransactionChangeFeed feed = new TransactionChangeFeed(new SimpleMeterRegistry(), true, 16, 64);
+        for (long id = 1; id <= 5; id++) {
+            feed.publish(transaction(id));
+        }
+
+        List<Long> ids = new ArrayList<>();
+        long last = feed.read(2, 2, 0, change -> ids.add(change.transaction().getTransactionId()));
+
+        assertEquals(List.of(3L, 4L), ids);
+        assertEquals(4, last);
+        assertEquals(5, feed.read(last, 100, 0, change -> { }));
+        assertEquals(5, feed.read(5, 100, 0, change -> { }));
+    }
+
+    @Test
+    @DisplayName("Debe rechazar a un consumidor que quedo mas de una vuelta atras")
+    void testRead_OverwrittenSequence_ThrowsExpired() {
+        TransactionChangeFeed feed = new TransactionChangeFeed(new SimpleMeterRegistry(), true, 4, 64);
+        for (long id = 1; id <= 10; id++) {
+            feed.publish(transaction(id));
+        }
+
+        assertThrows(ChangeFeedExpiredException.class, () -> feed.read(2, 10, 0, change -> { }));
+        assertThrows(ChangeFeedExpiredException.class, () -> feed.read(11, 10, 0, change -> { }));
+        List<Long> ids = new ArrayList<>();
+        feed.read(6, 10, 0, change -> ids.add(change.transaction().getTransactionId()));
+        assertEquals(List.of(7L, 8L, 9L, 10L), ids);
+    }
+
+    @Test
+    @DisplayName("Debe rechazar suscriptores por encima del maximo y liberar el lugar al cerrar")
+    void testOpenSubscription_OverCap_ThrowsServiceUnavailable() {
+        TransactionChangeFeed feed = new TransactionChangeFeed(new SimpleMeterRegistry(), true, 16, 2);
+        feed.openSubscription();
+        feed.openSubscription();
+
+        assertThrows(ServiceUnavailableException.class, feed::openSubscription);
+        feed.closeSubscription();
+        feed.openSubscription();
+        assertThrows(ServiceUnavailableException.class, feed::openSubscription);
+    }
+
+    @Test
+    @DisplayName("Debe despertar a un lector en espera cuando llega una insercion")
+    void testRead_Waiting_ReturnsWhenPublished() throws InterruptedException {
+        TransactionChangeFeed feed = new TransactionChangeFeed(new SimpleMeterRegistry(), true, 16, 64);
+        Thread writer = new Thread(() -> {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                return;
+            }
+            feed.publish(transaction(1));
+        });
+        writer.start();
+
+        long start = System.nanoTime();
+        long last = feed.read(0, 10, TimeUnit.SECONDS.toNanos(10), change -> { });
+        writer.join();
+
+        assertEquals(1, last);
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5));
+    }
+
+    private static Transaction transaction(long id) {
+        Transaction transaction = new Transaction();
+        transaction.setTransactionId(id);
+        transaction.setAmount((double) id);
+        transaction.setCreatedAt(System.currentTimeMillis());
+        return transaction;
+    }
+}
@@ -0,0 +1,106 @@
+package com.mendel.mendel_challenge;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.mendel.mendel_challenge.dto.PutNewTransactionRequest;
+import com.mendel.mendel_challenge.exception.ResourceAlreadyExistsException;
+import com.mendel.mendel_challenge.model.Transaction;
+import com.mendel.mendel_challenge.repository.TransactionRepository;
+import com.mendel.mendel_challenge.service.SumCache;
+import com.mendel.mendel_challenge.service.TransactionService;
+
+@SpringBootTest
+@DisplayName("Transaction Concurrency Stress Tests")
+class TransactionConcurrencyStressTest {
+
+    private static final int THREADS = 16;
+    private static final int IDS = 2_000;
+    private static final long ROOT_ID = 1L;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private SumCache sumCache;
+
+    @BeforeEach
+    void setUp() {
+        transactionRepository.deleteAll();
+        sumCache.clear();
+    }
+
+    @Test
+    @DisplayName("Debe aceptar exactamente una escritura por id bajo PUTs concurrentes duplicados")
+    void testConcurrentDuplicatePuts_NoLostOrOverwrittenWrites() throws Exception {
+        transactionService.putNewTransaction(new PutNewTransactionRequest(1.0, "ROOT", null), ROOT_ID);
+
+        Map<Long, Double> winners = new ConcurrentHashMap<>();
+        AtomicInteger duplicates = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < THREADS; thread++) {
+                // every thread writes every id with its own amount, so an overwrite changes the stored amount
+                double amount = thread + 1;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (long id = ROOT_ID + 1; id <= ROOT_ID + IDS; id++) {
+                        try {
+                            transactionService.putNewTransaction(
+                                new PutNewTransactionRequest(amount, "STRESS", ROOT_ID), id);
+                            Double previous = winners.putIfAbsent(id, amount);
+                            assertNull(previous, "Two writers were accepted for id " + id);
+                        } catch (ResourceAlreadyExistsException e) {
+                            duplicates.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(IDS, winners.size());
+        assertEquals((THREADS - 1) * IDS, duplicates.get());
+
+        double expectedSum = 1.0;
+        for (Map.Entry<Long, Double> winner : winners.entrySet()) {
+            Transaction stored = transactionRepository.findById(winner.getKey()).orElseThrow();
+            assertEquals(winner.getValue(), stored.getAmount(), "Stored amount was overwritten for id " + winner.getKey());
+            expectedSum += winner.getValue();
+        }
+
+        assertEquals(IDS, transactionRepository.countChildren(ROOT_ID));
+        assertTrue(transactionRepository.findSubtreeSum(ROOT_ID).isPresent());
+        assertEquals(expectedSum, transactionRepository.findSubtreeSum(ROOT_ID).get());
+        assertEquals(expectedSum, transactionService.getSumByTransactionId(ROOT_ID).getSum());
+    }
+}
@@ -1,31 +1,47 @@
 package com.mendel.mendel_challenge;
 
+import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasSize;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
 import com.mendel.mendel_challenge.dto.GetSumTransactionResponse;
 import com.mendel.mendel_challenge.dto.GetTransactionsByTypeResponse;
+import com.mendel.mendel_challenge.dto.BulkTransactionItemRequest;
 import com.mendel.mendel_challenge.dto.PutNewTransactionRequest;
 import com.mendel.mendel_challenge.dto.PutNewTransactionResponse;
+import com.mendel.mendel_challenge.model.Transaction;
 import com.mendel.mendel_challenge.repository.TransactionRepository;
+import com.mendel.mendel_challenge.repository.TransactionTypeRegistry;
+import com.mendel.mendel_challenge.service.SubtreeSumCalculator;
+import com.mendel.mendel_challenge.service.SumCache;
+
+import io.micrometer.core.instrument.MeterRegistry;
 
 @SpringBootTest
 @AutoConfigureMockMvc
@@ -41,9 +57,22 @@ class TransactionControllerIntegrationTest {
     @Autowired
     private TransactionRepository transactionRepository;
 
+    @Autowired
+    private SumCache sumCache;
+
+    @Autowired
+    private SubtreeSumCalculator subtreeSumCalculator;
+
+    @Autowired
+    private TransactionTypeRegistry transactionTypeRegistry;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @BeforeEach
     void setUp() {
         transactionRepository.deleteAll();
+        sumCache.clear();
     }
 
     @Test
@@ -456,4 +485,427 @@ class TransactionControllerIntegrationTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.sum").value(15000.0));
     }
+
+    @Test
+    @DisplayName("Debe listar los types conocidos con su cantidad de transacciones")
+    void testGetTransactionTypes_Success() throws Exception {
+        mockMvc.perform(put("/transactions/16001")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new PutNewTransactionRequest(10.0, "groceries", null))))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(put("/transactions/16002")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new PutNewTransactionRequest(20.0, "GROCERIES", null))))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/transactions/types"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.types[?(@.type == 'GROCERIES')].count", contains(2)));
+
+        mockMvc.perform(get("/transactions/types/Groceries"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.transactionIds", containsInAnyOrder(16001, 16002)));
+    }
+
+    @Test
+    @DisplayName("Debe omitir los types sin transacciones despues de vaciar el store")
+    void testGetTransactionTypes_AfterDeleteAll_OmitsEmptyTypes() throws Exception {
+        mockMvc.perform(put("/transactions/16101")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new PutNewTransactionRequest(10.0, "CLEARED", null))))
+                .andExpect(status().isOk());
+
+        transactionRepository.deleteAll();
+        sumCache.clear();
+
+        mockMvc.perform(get("/transactions/types"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.types[?(@.type == 'CLEARED')]", hasSize(0)));
+    }
+
+    @Test
+    @DisplayName("Debe no registrar el tipo de una transaccion rechazada")
+    void testPutNewTransaction_Rejected_DoesNotRegisterType() throws Exception {
+        mockMvc.perform(put("/transactions/16201")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new PutNewTransactionRequest(10.0, "CREDIT", null))))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(put("/transactions/16201")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new PutNewTransactionRequest(10.0, "DUPLICATED", null))))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(put("/transactions/16202")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new PutNewTransactionRequest(10.0, "ORPHANED", 99999L))))
+                .andExpect(status().isNotFound());
+
+        assertEquals(TransactionTypeRegistry.UNKNOWN, transactionTypeRegistry.find("DUPLICATED"));
+        assertEquals(TransactionTypeRegistry.UNKNOWN, transactionTypeRegistry.find("ORPHANED"));
+    }
+
+    @Test
+    @DisplayName("Debe lanzar error al insertar transaccion con un type de mas de 64 caracteres")
+    void testPutNewTransaction_TypeTooLong() throws Exception {
+        mockMvc.perform(put("/transactions/16203")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new PutNewTransactionRequest(10.0, "X".repeat(65), null))))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(containsString("Type must be at most 64 characters")));
+    }
+
+    @Test
+    @DisplayName("Debe ingestar transacciones en bloque con padres dentro del mismo lote")
+    void testBulkIngest_NdjsonWithParentsInBatch() throws Exception {
+        String body = """
+                {"transactionId": 17000, "amount": 100.0, "type": "BULK"}
+                {"transactionId": 17001, "amount": 50.0, "type": "BULK", "parentId": 17000}
+                {"transactionId": 17002, "amount": 25.0, "type": "BULK", "parentId": 99999}
+                {"transactionId": 17000, "amount": 10.0, "type": "BULK"}
+                {"transactionId": 17003, "type": "BULK"}
+                """;
+
+        mockMvc.perform(post("/transactions/bulk")
+                        .contentType("application/x-ndjson")
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accepted").value(2))
+                .andExpect(jsonPath("$.rejected").value(3))
+                .andExpect(jsonPath("$.results[?(@.index == 2)].message",
+                        contains("Parent Transaction not found with id: 99999")))
+                .andExpect(jsonPath("$.results[?(@.index == 3)].message",
+                        contains("Transaction id 17000 is repeated in the batch")))
+                .andExpect(jsonPath("$.results[?(@.index == 4)].message", contains("Amount is required")));
+
+        mockMvc.perform(get("/transactions/sum/17000"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.sum").value(150.0));
+    }
+
+    @Test
+    @DisplayName("Debe recalcular la suma de una cadena de 20000 niveles sin StackOverflowError")
+    void testSubtreeSumCalculator_DeepChain() {
+        int depth = 20_000;
+        for (long id = 1; id <= depth; id++) {
+            Transaction transaction = new Transaction();
+            transaction.setTransactionId(id);
+            transaction.setAmount(1.0);
+            transaction.setTypeCode(0);
+            transaction.setParentId(id == 1 ? null : id - 1);
+            transactionRepository.save(transaction);
+        }
+
+        assertEquals(depth - 1, subtreeSumCalculator.sumDescendants(1L));
+    }
+
+    @Test
+    @DisplayName("Debe paginar y transmitir los ids de un tipo sin repetir ni perder ninguno")
+    void testGetTransactionsByType_PaginatedAndStreamed() throws Exception {
+        for (long id = 19000; id < 19005; id++) {
+            mockMvc.perform(put("/transactions/{transactionId}", id)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(new PutNewTransactionRequest(1.0, "PAGED", null))))
+                    .andExpect(status().isOk());
+        }
+
+        List<Long> paged = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            var request = get("/transactions/types/PAGED").param("limit", "2");
+            if (cursor != null) {
+                request.param("cursor", cursor);
+            }
+            MvcResult result = mockMvc.perform(request)
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.transactionIds.length()").value(pages < 2 ? 2 : 1))
+                    .andReturn();
+            GetTransactionsByTypeResponse page = objectMapper.readValue(
+                    result.getResponse().getContentAsString(), GetTransactionsByTypeResponse.class);
+            paged.addAll(page.getTransactionIds());
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(3, pages);
+        assertThat(paged, containsInAnyOrder(19000L, 19001L, 19002L, 19003L, 19004L));
+
+        mockMvc.perform(get("/transactions/types/PAGED").param("stream", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.transactionIds", containsInAnyOrder(19000, 19001, 19002, 19003, 19004)));
+
+        mockMvc.perform(get("/transactions/types/PAGED").param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Debe elegir el formato del listado en streaming segun la calidad del header Accept")
+    void testStreamTransactionsByType_WeightedAccept() throws Exception {
+        ObjectMapper cborMapper = new ObjectMapper(new CBORFactory());
+        mockMvc.perform(put("/transactions/20100").contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new PutNewTransactionRequest(1.0, "WEIGHTED", null))))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/transactions/types/WEIGHTED").param("stream", "true")
+                        .header(HttpHeaders.ACCEPT, "application/json, application/cbor;q=0.1"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.transactionIds[0]").value(20100));
+
+        mockMvc.perform(get("/transactions/types/WEIGHTED").param("stream", "true")
+                        .header(HttpHeaders.ACCEPT, "application/cbor;q=0, */*;q=0.5"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+
+        MvcResult result = mockMvc.perform(get("/transactions/types/WEIGHTED").param("stream", "true")
+                        .header(HttpHeaders.ACCEPT, "application/json;q=0.5, application/cbor"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_CBOR))
+                .andReturn();
+        GetTransactionsByTypeResponse response = cborMapper.readValue(
+                result.getResponse().getContentAsByteArray(), GetTransactionsByTypeResponse.class);
+        assertEquals(List.of(20100L), response.getTransactionIds());
+    }
+
+    @Test
+    @DisplayName("Debe aceptar y responder CBOR manteniendo JSON por defecto")
+    void testBinaryFormat_CborRoundTrip() throws Exception {
+        ObjectMapper cborMapper = new ObjectMapper(new CBORFactory());
+        PutNewTransactionRequest request = new PutNewTransactionRequest(42.5, "CBOR", null);
+
+        mockMvc.perform(put("/transactions/{transactionId}", 20000L)
+                        .contentType(MediaType.APPLICATION_CBOR)
+                        .accept(MediaType.APPLICATION_CBOR)
+                        .content(cborMapper.writeValueAsBytes(request)))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_CBOR));
+
+        MvcResult result = mockMvc.perform(get("/transactions/sum/{transactionId}", 20000L)
+                        .accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_CBOR))
+                .andReturn();
+        GetSumTransactionResponse response = cborMapper.readValue(
+                result.getResponse().getContentAsByteArray(), GetSumTransactionResponse.class);
+        assertEquals(42.5, response.getSum());
+
+        mockMvc.perform(get("/transactions/sum/{transactionId}", 20000L))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.sum").value(42.5));
+    }
+
+    @Test
+    @DisplayName("Debe contar las escrituras por resultado y exponer el tamaño del almacen")
+    void testMetrics_WriteOutcomesAndStoreSize() throws Exception {
+        double created = writes("created");
+        double duplicate = writes("duplicate");
+        double missingParent = writes("missing_parent");
+
+        PutNewTransactionRequest root = new PutNewTransactionRequest(10.0, "METRICS", null);
+        PutNewTransactionRequest child = new PutNewTransactionRequest(5.0, "METRICS", 18000L);
+        PutNewTransactionRequest orphan = new PutNewTransactionRequest(1.0, "METRICS", 99999L);
+        mockMvc.perform(put("/transactions/18000").contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(root)))
+                .andExpect(status().isOk());
+        mockMvc.perform(put("/transactions/18001").contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(child)))
+                .andExpect(status().isOk());
+        mockMvc.perform(put("/transactions/18001").contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(child)))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(put("/transactions/18002").contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(orphan)))
+                .andExpect(status().isNotFound());
+
+        assertEquals(created + 2, writes("created"));
+        assertEquals(duplicate + 1, writes("duplicate"));
+        assertEquals(missingParent + 1, writes("missing_parent"));
+        assertEquals(2.0, meterRegistry.get("transactions.store.size").gauge().value());
+        assertEquals(1.0, indexSize("parent"));
+        assertEquals(1.0, indexSize("type"));
+        assertTrue(meterRegistry.get("transactions.tree.max.depth").gauge().value() >= 1.0);
+
+        // types stay registered after the store is cleared, but their index entries are gone
+        transactionRepository.deleteAll();
+        sumCache.clear();
+        assertEquals(0.0, indexSize("type"));
+    }
+
+    @Test
+    @DisplayName("Debe devolver conteo y suma por tipo en un rango de tiempo")
+    void testGetTransactionTotals_ByTimeRange() throws Exception {
+        mockMvc.perform(put("/transactions/22000").contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new PutNewTransactionRequest(10.0, "TOTALS", null))))
+                .andExpect(status().isOk());
+        mockMvc.perform(put("/transactions/22001").contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new PutNewTransactionRequest(5.5, "TOTALS", 22000L))))
+                .andExpect(status().isOk());
+        mockMvc.perform(put("/transactions/22002").contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new PutNewTransactionRequest(7.0, "OTHER", null))))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/transactions/types/{type}/totals", "totals"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.type").value("TOTALS"))
+                .andExpect(jsonPath("$.count").value(2))
+                .andExpect(jsonPath("$.sum").value(15.5));
+
+        mockMvc.perform(get("/transactions/types/{type}/totals", "TOTALS")
+                        .param("from", "2000-01-01T00:00:00Z")
+                        .param("to", "2000-01-02T00:00:00Z"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.count").value(0));
+
+        mockMvc.perform(get("/transactions/types/{type}/totals", "TOTALS")
+                        .param("from", "2000-01-02T00:00:00Z")
+                        .param("to", "2000-01-01T00:00:00Z"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Debe devolver raiz, profundidad y tamano de subarbol de una transaccion")
+    void testGetTransaction_ReturnsTreePosition() throws Exception {
+        mockMvc.perform(put("/transactions/23000").contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new PutNewTransactionRequest(10.0, "TREE", null))))
+                .andExpect(status().isOk());
+        mockMvc.perform(put("/transactions/23001").contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new PutNewTransactionRequest(5.0, "TREE", 23000L))))
+                .andExpect(status().isOk());
+        mockMvc.perform(put("/transactions/23002").contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new PutNewTransactionRequest(2.5, "TREE", 23001L))))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/transactions/23002"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.type").value("TREE"))
+                .andExpect(jsonPath("$.parentId").value(23001))
+                .andExpect(jsonPath("$.rootId").value(23000))
+                .andExpect(jsonPath("$.depth").value(2))
+                .andExpect(jsonPath("$.subtreeSize").value(1));
+        mockMvc.perform(get("/transactions/23000"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rootId").value(23000))
+                .andExpect(jsonPath("$.depth").value(0))
+                .andExpect(jsonPath("$.subtreeSize").value(3));
+        mockMvc.perform(get("/transactions/23999"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("Debe sumar varias transacciones en una sola peticion y listar los ids desconocidos")
+    void testGetSumsByTransactionIds_SharedSubtrees() throws Exception {
+        // 24000 -> 24001 -> 24002, plus 24003 under 24000 and an unrelated root 24004
+        long[][] tree = { { 24000, 0 }, { 24001, 24000 }, { 24002, 24001 }, { 24003, 24000 }, { 24004, 0 } };
+        double[] amounts = { 10.0, 5.0, 2.5, 1.0, 7.0 };
+        for (int i = 0; i < tree.length; i++) {
+            Long parentId = tree[i][1] == 0 ? null : tree[i][1];
+            mockMvc.perform(put("/transactions/{transactionId}", tree[i][0]).contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(new PutNewTransactionRequest(amounts[i], "BATCH", parentId))))
+                    .andExpect(status().isOk());
+        }
+
+        mockMvc.perform(post("/transactions/sum").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"transactionIds\":[24000,24002,24001,24999,24004,24000]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.sums.24000").value(18.5))
+                .andExpect(jsonPath("$.sums.24001").value(7.5))
+                .andExpect(jsonPath("$.sums.24002").value(2.5))
+                .andExpect(jsonPath("$.sums.24004").value(7.0))
+                .andExpect(jsonPath("$.unknownIds", contains(24999)));
+
+        List<Transaction> requested = new ArrayList<>();
+        for (long id : new long[] { 24000, 24002, 24001 }) {
+            requested.add(transactionRepository.findById(id).orElseThrow());
+        }
+        assertEquals(18.5, subtreeSumCalculator.sumSubtrees(requested).get(24000L));
+        assertEquals(7.5, subtreeSumCalculator.sumSubtrees(requested).get(24001L));
+
+        mockMvc.perform(post("/transactions/sum").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"transactionIds\":[]}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Debe exportar el subarbol en profundidad o en anchura con limite y corte de profundidad")
+    void testGetSubtree_DepthAndBreadthFirst() throws Exception {
+        // 25000 -> 25001 -> 25003, plus 25002 under 25000
+        long[][] tree = { { 25000, 0 }, { 25001, 25000 }, { 25002, 25000 }, { 25003, 25001 } };
+        for (long[] node : tree) {
+            Long parentId = node[1] == 0 ? null : node[1];
+            mockMvc.perform(put("/transactions/{transactionId}", node[0]).contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(new PutNewTransactionRequest(1.0, "EXPORT", parentId))))
+                    .andExpect(status().isOk());
+        }
+
+        // siblings come in the repository's own order, so only the traversal shape is fixed
+        List<Long> depthFirst = subtreeIds("/transactions/25000/subtree");
+        assertThat(depthFirst, containsInAnyOrder(25000L, 25001L, 25002L, 25003L));
+        assertEquals(25000L, depthFirst.get(0));
+        assertEquals(depthFirst.indexOf(25001L) + 1, depthFirst.indexOf(25003L));
+        List<Long> breadthFirst = subtreeIds("/transactions/25000/subtree?order=bfs&maxDepth=8");
+        assertEquals(25000L, breadthFirst.get(0));
+        assertThat(breadthFirst.subList(1, 3), containsInAnyOrder(25001L, 25002L));
+        assertEquals(25003L, breadthFirst.get(3));
+        assertThat(subtreeIds("/transactions/25000/subtree?maxDepth=1"), containsInAnyOrder(25000L, 25001L, 25002L));
+        assertThat(subtreeIds("/transactions/25000/subtree?order=bfs&maxDepth=8&limit=2"), hasSize(2));
+        assertEquals(List.of(25001L, 25003L), subtreeIds("/transactions/25001/subtree"));
+
+        MvcResult result = mockMvc.perform(get("/transactions/25001/subtree"))
+                .andExpect(status().isOk())
+                .andReturn();
+        String[] lines = result.getResponse().getContentAsString().split("\n");
+        assertEquals(25001L, objectMapper.readTree(lines[1]).get("parentId").asLong());
+        assertEquals(1, objectMapper.readTree(lines[1]).get("depth").asInt());
+
+        mockMvc.perform(get("/transactions/25999/subtree"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/transactions/25000/subtree").param("order", "random"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Debe exportar una cadena profunda en profundidad y exigir maxDepth acotado en anchura")
+    void testGetSubtree_DeepChain_BoundsBreadthFirst() throws Exception {
+        int length = 3_000;
+        StringBuilder body = new StringBuilder();
+        for (long id = 26000; id < 26000 + length; id++) {
+            body.append(objectMapper.writeValueAsString(
+                new BulkTransactionItemRequest(id, 1.0, "CHAIN", id == 26000 ? null : id - 1))).append('\n');
+        }
+        mockMvc.perform(post("/transactions/bulk").contentType("application/x-ndjson").content(body.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accepted").value(length));
+
+        List<Long> depthFirst = subtreeIds("/transactions/26000/subtree");
+        assertEquals(length, depthFirst.size());
+        assertEquals(28999L, depthFirst.get(length - 1));
+        mockMvc.perform(get("/transactions/26000/subtree").param("order", "bfs"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/transactions/26000/subtree").param("order", "bfs").param("maxDepth", "65"))
+                .andExpect(status().isBadRequest());
+        List<Long> breadthFirst = subtreeIds("/transactions/26000/subtree?order=bfs&maxDepth=64");
+        assertEquals(65, breadthFirst.size());
+        assertEquals(26064L, breadthFirst.get(64));
+    }
+
+    private List<Long> subtreeIds(String uri) throws Exception {
+        MvcResult result = mockMvc.perform(get(uri))
+                .andExpect(status().isOk())
+                .andReturn();
+        List<Long> ids = new ArrayList<>();
+        for (String line : result.getResponse().getContentAsString().split("\n")) {
+            ids.add(objectMapper.readTree(line).get("transactionId").asLong());
+        }
+        return ids;
+    }
+
+    private double indexSize(String index) {
+        return meterRegistry.get("transactions.index.size").tag("index", index).gauge().value();
+    }
+
+    private double writes(String outcome) {
+        return meterRegistry.get("transactions.writes").tag("outcome", outcome).counter().count();
+    }
 }
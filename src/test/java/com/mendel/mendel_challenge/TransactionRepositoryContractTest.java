@@ -0,0 +1,189 @@
+package com.mendel.mendel_challenge;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import com.mendel.mendel_challenge.model.Transaction;
+import com.mendel.mendel_challenge.repository.ColumnarTransactionRepository;
+import com.mendel.mendel_challenge.repository.InMemoryTransactionRepository;
+import com.mendel.mendel_challenge.repository.ShardedTransactionRepository;
+import com.mendel.mendel_challenge.repository.TimeRangeTotals;
+import com.mendel.mendel_challenge.repository.TransactionRepository;
+
+/** Behaviour every {@link TransactionRepository} implementation must share. */
+@DisplayName("Transaction Repository Contract Tests")
+class TransactionRepositoryContractTest {
+
+    private static final int DEBIT = 0;
+    private static final int CREDIT = 1;
+
+    static Stream<Arguments> repositories() {
+        return Stream.of(
+            Arguments.of("in-memory", (Supplier<TransactionRepository>) InMemoryTransactionRepository::new),
+            // a tiny initial capacity forces the columns and the id index to grow during the tests
+            Arguments.of("columnar", (Supplier<TransactionRepository>) () -> new ColumnarTransactionRepository(16, true)),
+            Arguments.of("sharded", (Supplier<TransactionRepository>) () -> new ShardedTransactionRepository(4)));
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("repositories")
+    @DisplayName("Debe guardar, buscar y rechazar duplicados con saveIfAbsent")
+    void testSaveAndFind(String type, Supplier<TransactionRepository> factory) {
+        TransactionRepository repository = factory.get();
+        Transaction saved = transaction(1L, null, DEBIT, 10.0);
+        saved.setAmountUnits(1_000);
+        assertTrue(repository.saveIfAbsent(saved));
+        assertFalse(repository.saveIfAbsent(transaction(1L, null, CREDIT, 99.0)));
+
+        Transaction found = repository.findById(1L).orElseThrow();
+        assertEquals(10.0, found.getAmount());
+        assertEquals(1_000, found.getAmountUnits());
+        assertEquals(DEBIT, found.getTypeCode());
+        assertEquals(Optional.empty(), repository.findById(2L));
+        assertEquals(1L, repository.count());
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("repositories")
+    @DisplayName("Debe indexar hijos y recorrerlos uno a uno con findNextChild")
+    void testChildren(String type, Supplier<TransactionRepository> factory) {
+        TransactionRepository repository = factory.get();
+        repository.save(transaction(1L, null, DEBIT, 1.0));
+        for (long id = 2; id <= 200; id++) {
+            repository.saveIfAbsent(transaction(id, 1L, DEBIT, 1.0));
+        }
+
+        assertEquals(199, repository.countChildren(1L));
+        assertEquals(199, repository.findByParentId(1L).size());
+        List<Long> visited = new ArrayList<>();
+        repository.forEachChild(1L, child -> visited.add(child.getTransactionId()));
+        List<Long> walked = new ArrayList<>();
+        Optional<Transaction> child = repository.findNextChild(1L, null);
+        while (child.isPresent()) {
+            walked.add(child.get().getTransactionId());
+            child = repository.findNextChild(1L, child.get().getTransactionId());
+        }
+        assertEquals(199, walked.size());
+        assertThat(walked, containsInAnyOrder(visited.toArray()));
+        assertEquals(Optional.empty(), repository.findNextChild(2L, null));
+        assertEquals(1L, repository.countParents());
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("repositories")
+    @DisplayName("Debe enlazar a un hijo guardado antes que su padre cuando el padre llega")
+    void testChildSavedBeforeParent(String type, Supplier<TransactionRepository> factory) {
+        TransactionRepository repository = factory.get();
+        repository.save(transaction(2L, 1L, DEBIT, 1.0));
+        repository.save(transaction(3L, 1L, DEBIT, 1.0));
+        repository.save(transaction(1L, null, DEBIT, 1.0));
+
+        assertEquals(2, repository.countChildren(1L));
+        assertThat(ids(repository.findByParentId(1L)), containsInAnyOrder(2L, 3L));
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("repositories")
+    @DisplayName("Debe mover indices, sumas y buckets al reemplazar una transaccion")
+    void testReplacement(String type, Supplier<TransactionRepository> factory) {
+        TransactionRepository repository = factory.get();
+        repository.save(transaction(1L, null, DEBIT, 1.0));
+        repository.save(transaction(2L, null, DEBIT, 1.0));
+        repository.save(transaction(3L, 1L, DEBIT, 5.0));
+        repository.save(transaction(3L, 2L, CREDIT, 7.0));
+
+        assertEquals(0, repository.countChildren(1L));
+        assertEquals(1, repository.countChildren(2L));
+        assertThat(repository.findIdsByType(DEBIT), containsInAnyOrder(1L, 2L));
+        assertEquals(List.of(3L), repository.findIdsByType(CREDIT));
+        assertEquals(1L, repository.countByType(CREDIT));
+        assertEquals(7.0, repository.findSubtreeSum(3L).orElseThrow());
+        assertEquals(new TimeRangeTotals(1, 7.0), repository.totalsByType(CREDIT, 0, 120_000));
+        assertEquals(new TimeRangeTotals(2, 2.0), repository.totalsByType(DEBIT, 0, 120_000));
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("repositories")
+    @DisplayName("Debe paginar los ids de un tipo en orden estable sin repetir ni saltar")
+    void testForEachIdOfType(String type, Supplier<TransactionRepository> factory) {
+        TransactionRepository repository = factory.get();
+        for (long id = 1; id <= 100; id++) {
+            repository.save(transaction(id, null, id % 2 == 0 ? DEBIT : CREDIT, 1.0));
+        }
+
+        List<Long> paged = new ArrayList<>();
+        Long cursor = null;
+        do {
+            cursor = repository.forEachIdOfType(DEBIT, cursor, 7, paged::add);
+        } while (cursor != null);
+        assertEquals(50, paged.size());
+        assertThat(paged, containsInAnyOrder(repository.findIdsByType(DEBIT).toArray()));
+        assertNull(repository.forEachIdOfType(5, null, 10, id -> { }));
+        assertEquals(50L, repository.countByType(CREDIT));
+        assertEquals(50, repository.findByType(CREDIT).size());
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("repositories")
+    @DisplayName("Debe acumular sumas, nodos y unidades exactas de subarbol")
+    void testSubtreeAggregates(String type, Supplier<TransactionRepository> factory) {
+        TransactionRepository repository = factory.get();
+        repository.save(transaction(1L, null, DEBIT, 2.5));
+        repository.addToSubtree(1L, 4.0, 3);
+        repository.addToSubtreeUnits(1L, 650);
+        repository.addToSubtreeUnits(1L, Long.MAX_VALUE);
+
+        assertEquals(6.5, repository.findSubtreeSum(1L).orElseThrow());
+        assertEquals(4L, repository.countSubtreeNodes(1L));
+        assertTrue(repository.findSubtreeUnits(1L).isEmpty(), "overflowed totals stay empty");
+        assertEquals(0L, repository.countSubtreeNodes(99L));
+        assertEquals(Optional.empty(), repository.findSubtreeSum(99L));
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("repositories")
+    @DisplayName("Debe vaciar todo con deleteAll")
+    void testDeleteAll(String type, Supplier<TransactionRepository> factory) {
+        TransactionRepository repository = factory.get();
+        repository.save(transaction(1L, null, DEBIT, 1.0));
+        repository.save(transaction(2L, 1L, DEBIT, 1.0));
+        repository.deleteAll();
+
+        assertEquals(0L, repository.count());
+        assertEquals(0L, repository.countParents());
+        assertEquals(List.of(), repository.findAll());
+        assertEquals(List.of(), repository.findIdsByType(DEBIT));
+        assertEquals(0, repository.countChildren(1L));
+        assertEquals(TimeRangeTotals.EMPTY, repository.totalsByType(DEBIT, 0, 120_000));
+        assertTrue(repository.saveIfAbsent(transaction(1L, null, DEBIT, 1.0)));
+    }
+
+    private static List<Long> ids(List<Transaction> transactions) {
+        return transactions.stream().map(Transaction::getTransactionId).toList();
+    }
+
+    private static Transaction transaction(long id, Long parentId, int typeCode, double amount) {
+        Transaction transaction = new Transaction();
+        transaction.setTransactionId(id);
+        transaction.setAmount(amount);
+        transaction.setTypeCode(typeCode);
+        transaction.setParentId(parentId);
+        transaction.setCreatedAt(30_000);
+        return transaction;
+    }
+}
@@ -0,0 +1,69 @@
+package com.mendel.mendel_challenge;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Instant;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.mendel.mendel_challenge.model.Transaction;
+import com.mendel.mendel_challenge.repository.InMemoryTransactionRepository;
+import com.mendel.mendel_challenge.repository.TimeRangeTotals;
+
+@DisplayName("Transaction Time Bucket Tests")
+class TransactionTimeBucketsTest {
+
+    private static final int TYPE_CODE = 0;
+    private static final long BASE = Instant.parse("2026-10-18T08:00:00Z").toEpochMilli();
+    private static final long MINUTE = 60_000L;
+
+    @Test
+    @DisplayName("Debe combinar horas completas y minutos de los bordes sin contar de mas")
+    void testTotalsByType_AcrossHours_MatchesEveryMinute() {
+        InMemoryTransactionRepository repository = new InMemoryTransactionRepository();
+        // one transaction per minute for four hours, amount = minute offset
+        for (long minute = 0; minute < 240; minute++) {
+            repository.save(transaction(minute + 1, BASE + minute * MINUTE + 1_000, minute));
+        }
+
+        assertTotals(repository, 0, 240);
+        assertTotals(repository, 37, 183);
+        assertTotals(repository, 60, 120);
+        assertTotals(repository, 61, 119);
+        assertTotals(repository, 5, 6);
+        assertEquals(TimeRangeTotals.EMPTY, repository.totalsByType(TYPE_CODE, BASE + 90 * MINUTE, BASE + 90 * MINUTE));
+    }
+
+    @Test
+    @DisplayName("Debe mover el importe de bucket al reemplazar una transaccion")
+    void testSave_Replacement_MovesBucket() {
+        InMemoryTransactionRepository repository = new InMemoryTransactionRepository();
+        repository.save(transaction(1L, BASE, 10));
+        repository.save(transaction(1L, BASE + 120 * MINUTE, 4));
+
+        assertEquals(new TimeRangeTotals(0, 0.0), repository.totalsByType(TYPE_CODE, BASE, BASE + 60 * MINUTE));
+        assertEquals(new TimeRangeTotals(1, 4.0),
+            repository.totalsByType(TYPE_CODE, BASE + 60 * MINUTE, BASE + 180 * MINUTE));
+    }
+
+    /** Compares a bucketed range of whole minutes with the sum of the amounts 0..239 it covers. */
+    private static void assertTotals(InMemoryTransactionRepository repository, long fromMinute, long toMinute) {
+        double expectedSum = 0;
+        for (long minute = fromMinute; minute < toMinute; minute++) {
+            expectedSum += minute;
+        }
+        TimeRangeTotals totals = repository.totalsByType(TYPE_CODE, BASE + fromMinute * MINUTE, BASE + toMinute * MINUTE);
+        assertEquals(toMinute - fromMinute, totals.count());
+        assertEquals(expectedSum, totals.sum(), 1e-9);
+    }
+
+    private static Transaction transaction(long id, long createdAt, double amount) {
+        Transaction transaction = new Transaction();
+        transaction.setTransactionId(id);
+        transaction.setAmount(amount);
+        transaction.setTypeCode(TYPE_CODE);
+        transaction.setCreatedAt(createdAt);
+        return transaction;
+    }
+}
@@ -0,0 +1,131 @@
+package com.mendel.mendel_challenge;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import com.mendel.mendel_challenge.config.BackgroundThreads;
+import com.mendel.mendel_challenge.dto.BulkTransactionItemRequest;
+import com.mendel.mendel_challenge.dto.BulkTransactionItemResult;
+import com.mendel.mendel_challenge.dto.PutNewTransactionRequest;
+import com.mendel.mendel_challenge.model.Transaction;
+import com.mendel.mendel_challenge.persistence.TransactionJournal;
+import com.mendel.mendel_challenge.repository.AmountScale;
+import com.mendel.mendel_challenge.repository.InMemoryTransactionRepository;
+import com.mendel.mendel_challenge.repository.TransactionRepository;
+import com.mendel.mendel_challenge.repository.TransactionTypeRegistry;
+import com.mendel.mendel_challenge.service.SubtreeSumCalculator;
+import com.mendel.mendel_challenge.service.SumCache;
+import com.mendel.mendel_challenge.service.TransactionChangeFeed;
+import com.mendel.mendel_challenge.service.TransactionMetrics;
+import com.mendel.mendel_challenge.service.TransactionServiceImpl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@DisplayName("Transaction Write-Ahead Tests")
+class TransactionWriteAheadTest {
+
+    private static final long ROOT_ID = 1L;
+
+    private final FailingJournal journal = new FailingJournal();
+    private TransactionRepository transactionRepository;
+    private TransactionServiceImpl transactionService;
+
+    @BeforeEach
+    void setUp() {
+        TransactionTypeRegistry typeRegistry = new TransactionTypeRegistry();
+        transactionRepository = new InMemoryTransactionRepository();
+        AmountScale amountScale = new AmountScale(false, 2);
+        TransactionMetrics transactionMetrics =
+            new TransactionMetrics(new SimpleMeterRegistry(), transactionRepository, typeRegistry);
+        transactionService = new TransactionServiceImpl(transactionRepository, typeRegistry, amountScale,
+            new SubtreeSumCalculator(transactionRepository, transactionMetrics, amountScale, false, 10_000, 0),
+            new SumCache(new SimpleMeterRegistry(), false, DataSize.ofMegabytes(1)),
+            journal, new TransactionChangeFeed(new SimpleMeterRegistry(), false, 1024, 64),
+            transactionMetrics, new BackgroundThreads(false), event -> { },
+            false, false, 0);
+        transactionService.putNewTransaction(new PutNewTransactionRequest(10.0, "ROOT", null), ROOT_ID);
+    }
+
+    @Test
+    @DisplayName("Debe dejar la transaccion invisible y fuera de las sumas si el journal falla")
+    void testPut_JournalFails_NothingIsApplied() {
+        journal.failing = true;
+        assertThrows(UncheckedIOException.class, () ->
+            transactionService.putNewTransaction(new PutNewTransactionRequest(5.0, "CHILD", ROOT_ID), 2L));
+
+        assertTrue(transactionRepository.findById(2L).isEmpty());
+        assertEquals(0, transactionRepository.countChildren(ROOT_ID));
+        assertEquals(10.0, transactionService.getSumByTransactionId(ROOT_ID).getSum());
+
+        journal.failing = false;
+        transactionService.putNewTransaction(new PutNewTransactionRequest(5.0, "CHILD", ROOT_ID), 2L);
+        assertEquals(15.0, transactionService.getSumByTransactionId(ROOT_ID).getSum());
+    }
+
+    @Test
+    @DisplayName("Debe descartar el lote entero y liberar sus ids si el journal falla")
+    void testBulk_JournalFails_NothingIsApplied() {
+        List<BulkTransactionItemRequest> items = List.of(
+            new BulkTransactionItemRequest(2L, 5.0, "CHILD", ROOT_ID),
+            new BulkTransactionItemRequest(3L, 7.0, "CHILD", 2L));
+        journal.failing = true;
+        assertThrows(UncheckedIOException.class, () -> transactionService.putNewTransactions(items));
+
+        assertEquals(1L, transactionRepository.count());
+        assertEquals(10.0, transactionService.getSumByTransactionId(ROOT_ID).getSum());
+
+        journal.failing = false;
+        transactionService.putNewTransactions(items);
+        assertEquals(22.0, transactionService.getSumByTransactionId(ROOT_ID).getSum());
+    }
+
+    @Test
+    @DisplayName("Debe evaluar de nuevo un id rechazado antes en el lote y distinguir repeticiones de ids guardados")
+    void testBulk_RepeatedIds_AreReportedByCause() {
+        List<BulkTransactionItemResult> results = transactionService.putNewTransactions(List.of(
+            new BulkTransactionItemRequest(2L, 5.0, "CHILD", 99L),
+            new BulkTransactionItemRequest(2L, 5.0, "CHILD", ROOT_ID),
+            new BulkTransactionItemRequest(2L, 5.0, "CHILD", ROOT_ID),
+            new BulkTransactionItemRequest(ROOT_ID, 5.0, "CHILD", null)));
+
+        assertEquals("Parent Transaction not found with id: 99", results.get(0).getMessage());
+        assertEquals(BulkTransactionItemResult.STATUS_OK, results.get(1).getStatus());
+        assertEquals("Transaction id 2 is repeated in the batch", results.get(2).getMessage());
+        assertEquals("Transaction already exists with id: 1", results.get(3).getMessage());
+        assertEquals(15.0, transactionService.getSumByTransactionId(ROOT_ID).getSum());
+    }
+
+    /** Applies records only when it could log them. */
+    private static final class FailingJournal implements TransactionJournal {
+
+        private volatile boolean failing;
+
+        @Override
+        public void append(Transaction transaction, Runnable apply) {
+            appendAll(List.of(transaction), apply);
+        }
+
+        @Override
+        public void appendAll(List<Transaction> transactions, Runnable apply) {
+            if (failing) {
+                throw new UncheckedIOException("Could not append transactions to journal", new IOException("disk full"));
+            }
+            apply.run();
+        }
+
+        @Override
+        public void replay(Consumer<Transaction> consumer) {
+        }
+    }
+}
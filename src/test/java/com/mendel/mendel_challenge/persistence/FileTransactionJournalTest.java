@@ -0,0 +1,158 @@
+package com.mendel.mendel_challenge.persistence;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.mendel.mendel_challenge.config.BackgroundThreads;
+import com.mendel.mendel_challenge.model.Transaction;
+import com.mendel.mendel_challenge.repository.AmountScale;
+import com.mendel.mendel_challenge.repository.InMemoryTransactionRepository;
+import com.mendel.mendel_challenge.repository.TransactionRepository;
+import com.mendel.mendel_challenge.repository.TransactionTypeRegistry;
+
+@DisplayName("File Transaction Journal Tests")
+class FileTransactionJournalTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Debe recuperar el snapshot y reproducir solo la cola del log escrita despues")
+    void testReplay_SnapshotPlusLogTail() throws Exception {
+        TransactionRepository repository = new InMemoryTransactionRepository();
+        TransactionTypeRegistry types = new TransactionTypeRegistry();
+        FileTransactionJournal journal = start(repository, types, DurabilityMode.SYNC);
+        append(journal, repository, transaction(1L, null, 10.0, types.resolve("CARS")));
+        append(journal, repository, transaction(2L, 1L, 5.0, types.resolve("CARS")));
+        journal.snapshot();
+        append(journal, repository, transaction(3L, 2L, 2.5, types.resolve("SHOPPING")));
+        journal.stop();
+
+        assertEquals(List.of("snapshot-2.bin", "wal-2.log"), files());
+
+        TransactionRepository recovered = new InMemoryTransactionRepository();
+        TransactionTypeRegistry recoveredTypes = new TransactionTypeRegistry();
+        FileTransactionJournal restarted = start(recovered, recoveredTypes, DurabilityMode.SYNC);
+        List<Transaction> tail = new ArrayList<>();
+        restarted.replay(tail::add);
+        restarted.stop();
+
+        assertEquals(15.0, recovered.findSubtreeSum(1L).orElseThrow());
+        assertEquals(2L, recovered.count());
+        assertEquals(1, tail.size());
+        assertEquals(3L, tail.get(0).getTransactionId());
+        assertEquals(2L, tail.get(0).getParentId());
+        assertEquals("SHOPPING", recoveredTypes.nameOf(tail.get(0).getTypeCode()));
+    }
+
+    @Test
+    @DisplayName("Debe reproducir en BATCH todo lo registrado antes de detenerse")
+    void testReplay_BatchMode_ReplaysEveryRecord() throws Exception {
+        TransactionRepository repository = new InMemoryTransactionRepository();
+        TransactionTypeRegistry types = new TransactionTypeRegistry();
+        FileTransactionJournal journal = start(repository, types, DurabilityMode.BATCH);
+        List<Transaction> batch = new ArrayList<>();
+        for (long id = 1; id <= 100; id++) {
+            batch.add(transaction(id, id == 1 ? null : 1L, 1.0, types.resolve("CARS")));
+        }
+        journal.appendAll(batch, () -> batch.forEach(repository::save));
+        journal.stop();
+
+        FileTransactionJournal restarted = start(new InMemoryTransactionRepository(), new TransactionTypeRegistry(),
+            DurabilityMode.BATCH);
+        List<Long> replayed = new ArrayList<>();
+        restarted.replay(transaction -> replayed.add(transaction.getTransactionId()));
+        restarted.stop();
+
+        assertEquals(batch.stream().map(Transaction::getTransactionId).toList(), replayed);
+    }
+
+    @Test
+    @DisplayName("Debe no aplicar el lote si el journal no puede registrarlo")
+    void testAppendAll_JournalStopped_DoesNotApply() throws Exception {
+        TransactionRepository repository = new InMemoryTransactionRepository();
+        TransactionTypeRegistry types = new TransactionTypeRegistry();
+        FileTransactionJournal journal = start(repository, types, DurabilityMode.BATCH);
+        journal.stop();
+
+        boolean[] applied = new boolean[1];
+        assertThrows(IllegalStateException.class, () ->
+            journal.append(transaction(1L, null, 1.0, types.resolve("CARS")), () -> applied[0] = true));
+        assertFalse(applied[0]);
+    }
+
+    @Test
+    @DisplayName("Debe empezar a tomar snapshots solo cuando termina la recuperacion")
+    void testSnapshots_StartAfterReplay() throws Exception {
+        TransactionRepository repository = new InMemoryTransactionRepository();
+        TransactionTypeRegistry types = new TransactionTypeRegistry();
+        FileTransactionJournal journal = start(repository, types, DurabilityMode.SYNC, 1);
+        try {
+            Thread.sleep(1_500);
+            assertEquals(List.of("wal-1.log"), files());
+
+            journal.replay(transaction -> { });
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (!files().contains("snapshot-2.bin") && System.nanoTime() < deadline) {
+                Thread.sleep(50);
+            }
+            assertTrue(files().contains("snapshot-2.bin"));
+        } finally {
+            journal.stop();
+        }
+    }
+
+    private FileTransactionJournal start(TransactionRepository repository, TransactionTypeRegistry types,
+                                         DurabilityMode durabilityMode) throws IOException {
+        return start(repository, types, durabilityMode, 0);
+    }
+
+    private FileTransactionJournal start(TransactionRepository repository, TransactionTypeRegistry types,
+                                         DurabilityMode durabilityMode, long snapshotIntervalSeconds) throws IOException {
+        FileTransactionJournal journal = new FileTransactionJournal(repository, types, new AmountScale(false, 2),
+            new BackgroundThreads(false), directory, durabilityMode, 1024, 10, 1024, snapshotIntervalSeconds, 2);
+        journal.start();
+        return journal;
+    }
+
+    private static void append(FileTransactionJournal journal, TransactionRepository repository, Transaction transaction) {
+        journal.append(transaction, () -> {
+            repository.save(transaction);
+            Long parentId = transaction.getParentId();
+            while (parentId != null) {
+                repository.addToSubtree(parentId, transaction.getAmount(), 1);
+                parentId = repository.findById(parentId).orElseThrow().getParentId();
+            }
+        });
+    }
+
+    private List<String> files() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(file -> file.getFileName().toString()).sorted().toList();
+        }
+    }
+
+    private static Transaction transaction(long id, Long parentId, double amount, int typeCode) {
+        Transaction transaction = new Transaction();
+        transaction.setTransactionId(id);
+        transaction.setParentId(parentId);
+        transaction.setAmount(amount);
+        transaction.setTypeCode(typeCode);
+        transaction.setCreatedAt(60_000);
+        return transaction;
+    }
+}
@@ -0,0 +1,105 @@
+package com.mendel.mendel_challenge.persistence;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.mendel.mendel_challenge.model.Transaction;
+import com.mendel.mendel_challenge.repository.AmountScale;
+import com.mendel.mendel_challenge.repository.InMemoryTransactionRepository;
+import com.mendel.mendel_challenge.repository.TransactionRepository;
+import com.mendel.mendel_challenge.repository.TransactionTypeRegistry;
+
+@DisplayName("Mapped Snapshot File Tests")
+class MappedSnapshotFileTest {
+
+    private static final int MAGIC = 0x4d54534e;
+
+    @TempDir
+    Path directory;
+
+    private final ForkJoinPool pool = new ForkJoinPool(4);
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdown();
+    }
+
+    @Test
+    @DisplayName("Debe restaurar transacciones, arbol y totales de subarbol desde un snapshot v4")
+    void testWriteLoad_RoundTrip() throws IOException {
+        TransactionTypeRegistry sourceTypes = new TransactionTypeRegistry();
+        TransactionRepository source = new InMemoryTransactionRepository();
+        // 1 -> 2 -> 3 and 1 -> 4, plus a second tree rooted at 5
+        save(source, transaction(1L, null, 10.0, sourceTypes.resolve("CARS"), 60_000));
+        save(source, transaction(2L, 1L, 5.0, sourceTypes.resolve("SHOPPING"), 60_000));
+        save(source, transaction(3L, 2L, 2.5, sourceTypes.resolve("CARS"), 120_000));
+        save(source, transaction(4L, 1L, 1.25, sourceTypes.resolve("CARS"), 120_000));
+        save(source, transaction(5L, null, 7.0, sourceTypes.resolve("SHOPPING"), 180_000));
+        Path file = directory.resolve("snapshot-1.bin");
+        assertEquals(5L, MappedSnapshotFile.write(file, source, sourceTypes));
+
+        TransactionTypeRegistry types = new TransactionTypeRegistry();
+        types.resolve("unrelated");
+        TransactionRepository target = new InMemoryTransactionRepository();
+        assertEquals(5L, MappedSnapshotFile.load(file, target, types, new AmountScale(true, 2), pool));
+
+        assertEquals(18.75, target.findSubtreeSum(1L).orElseThrow());
+        assertEquals(4L, target.countSubtreeNodes(1L));
+        assertEquals(7.5, target.findSubtreeSum(2L).orElseThrow());
+        assertEquals(1_875L, target.findSubtreeUnits(1L).getAsLong());
+        assertEquals(7.0, target.findSubtreeSum(5L).orElseThrow());
+        Transaction leaf = target.findById(3L).orElseThrow();
+        assertEquals(2L, leaf.getParentId());
+        assertEquals(1L, leaf.getRootId());
+        assertEquals(2, leaf.getDepth());
+        assertEquals(120_000, leaf.getCreatedAt());
+        assertEquals("CARS", types.nameOf(leaf.getTypeCode()));
+        assertNull(target.findById(5L).orElseThrow().getParentId());
+        assertEquals(2, target.countChildren(1L));
+    }
+
+    @Test
+    @DisplayName("Debe rechazar snapshots de una version distinta de la actual")
+    void testLoad_OtherVersion_Fails() throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(32);
+        header.putInt(MAGIC).putInt(3).putInt(48).putInt(0).putLong(0).putLong(32);
+        Path file = directory.resolve("snapshot-v3.bin");
+        Files.write(file, header.array());
+
+        IOException e = assertThrows(IOException.class, () -> MappedSnapshotFile.load(file,
+            new InMemoryTransactionRepository(), new TransactionTypeRegistry(), new AmountScale(false, 2), pool));
+        assertTrue(e.getMessage().contains("Unsupported transaction snapshot version 3"), e.getMessage());
+    }
+
+    private static void save(TransactionRepository repository, Transaction transaction) {
+        repository.save(transaction);
+        Long parentId = transaction.getParentId();
+        while (parentId != null) {
+            repository.addToSubtree(parentId, transaction.getAmount(), 1);
+            parentId = repository.findById(parentId).orElseThrow().getParentId();
+        }
+    }
+
+    private static Transaction transaction(long id, Long parentId, double amount, int typeCode, long createdAt) {
+        Transaction transaction = new Transaction();
+        transaction.setTransactionId(id);
+        transaction.setParentId(parentId);
+        transaction.setAmount(amount);
+        transaction.setTypeCode(typeCode);
+        transaction.setCreatedAt(createdAt);
+        return transaction;
+    }
+}
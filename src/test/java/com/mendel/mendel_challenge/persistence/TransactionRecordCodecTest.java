@@ -0,0 +1,138 @@
+package com.mendel.mendel_challenge.persistence;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.mendel.mendel_challenge.model.Transaction;
+import com.mendel.mendel_challenge.repository.TransactionTypeRegistry;
+
+@DisplayName("Transaction Record Codec Tests")
+class TransactionRecordCodecTest {
+
+    @TempDir
+    Path directory;
+
+    private final TransactionTypeRegistry typeRegistry = new TransactionTypeRegistry();
+
+    @Test
+    @DisplayName("Debe decodificar lo que codifica, con y sin padre")
+    void testEncodeDecode_RoundTrip() throws IOException {
+        Path log = write(transaction(1L, null, 10.5, "CARS", 60_000), transaction(2L, 1L, -3.25, "ÑANDÚ", 120_000));
+
+        List<Transaction> decoded = readAll(log);
+
+        assertEquals(2, decoded.size());
+        assertEquals(1L, decoded.get(0).getTransactionId());
+        assertNull(decoded.get(0).getParentId());
+        assertEquals(10.5, decoded.get(0).getAmount());
+        assertEquals("CARS", typeRegistry.nameOf(decoded.get(0).getTypeCode()));
+        assertEquals(60_000, decoded.get(0).getCreatedAt());
+        assertEquals(2L, decoded.get(1).getTransactionId());
+        assertEquals(1L, decoded.get(1).getParentId());
+        assertEquals(-3.25, decoded.get(1).getAmount());
+        assertEquals("ÑANDÚ", typeRegistry.nameOf(decoded.get(1).getTypeCode()));
+        assertEquals(120_000, decoded.get(1).getCreatedAt());
+    }
+
+    @Test
+    @DisplayName("Debe detenerse en el primer registro con CRC invalido")
+    void testReadAll_CrcMismatch_StopsBeforeCorruptRecord() throws IOException {
+        Path log = write(transaction(1L, null, 1.0, "A", 0), transaction(2L, 1L, 2.0, "A", 0),
+            transaction(3L, 1L, 3.0, "A", 0));
+        long secondRecord = Files.size(log) / 3;
+        try (FileChannel channel = FileChannel.open(log, StandardOpenOption.WRITE)) {
+            // flip a byte of the second record's amount
+            channel.write(ByteBuffer.wrap(new byte[] {0x7f}), secondRecord + TransactionRecordCodec.HEADER_BYTES + 9);
+        }
+
+        assertEquals(List.of(1L), ids(readAll(log)));
+    }
+
+    @Test
+    @DisplayName("Debe descartar un registro final truncado por una escritura interrumpida")
+    void testReadAll_TornTail_KeepsCompleteRecords() throws IOException {
+        Path log = write(transaction(1L, null, 1.0, "A", 0), transaction(2L, 1L, 2.0, "A", 0));
+        try (FileChannel channel = FileChannel.open(log, StandardOpenOption.WRITE)) {
+            channel.truncate(Files.size(log) - 5);
+        }
+        assertEquals(List.of(1L), ids(readAll(log)));
+
+        try (FileChannel channel = FileChannel.open(log, StandardOpenOption.WRITE)) {
+            channel.truncate(6);
+        }
+        assertEquals(List.of(), ids(readAll(log)));
+    }
+
+    @Test
+    @DisplayName("Debe leer registros escritos sin createdAt por versiones anteriores")
+    void testDecode_RecordWithoutCreatedAt_LeavesIngestTimeUnknown() throws IOException {
+        Path log = directory.resolve("wal-1.log");
+        Files.write(log, legacyRecord(7L, 5L, 4.5, "OLD"));
+
+        List<Transaction> decoded = readAll(log);
+
+        assertEquals(1, decoded.size());
+        assertEquals(7L, decoded.get(0).getTransactionId());
+        assertEquals(5L, decoded.get(0).getParentId());
+        assertEquals(4.5, decoded.get(0).getAmount());
+        assertEquals("OLD", typeRegistry.nameOf(decoded.get(0).getTypeCode()));
+        assertEquals(0, decoded.get(0).getCreatedAt());
+    }
+
+    /** A record in the layout used before ingest times were logged: flags hold only the parent bit. */
+    private static byte[] legacyRecord(long id, long parentId, double amount, String type) {
+        byte[] typeBytes = type.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer payload = ByteBuffer.allocate(Long.BYTES + Double.BYTES + 1 + Long.BYTES + Short.BYTES + typeBytes.length);
+        payload.putLong(id).putDouble(amount).put((byte) 1).putLong(parentId)
+            .putShort((short) typeBytes.length).put(typeBytes);
+        CRC32C crc = new CRC32C();
+        crc.update(payload.array());
+        return ByteBuffer.allocate(TransactionRecordCodec.HEADER_BYTES + payload.capacity())
+            .putInt(payload.capacity()).putInt((int) crc.getValue()).put(payload.array()).array();
+    }
+
+    private Path write(Transaction... transactions) throws IOException {
+        Path log = directory.resolve("wal-1.log");
+        try (FileChannel channel = FileChannel.open(log, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            for (Transaction transaction : transactions) {
+                channel.write(TransactionRecordCodec.encode(transaction, typeRegistry.nameOf(transaction.getTypeCode())));
+            }
+        }
+        return log;
+    }
+
+    private List<Transaction> readAll(Path log) throws IOException {
+        List<Transaction> decoded = new ArrayList<>();
+        TransactionRecordCodec.readAll(log, 0, payload -> decoded.add(TransactionRecordCodec.decode(payload, typeRegistry)));
+        return decoded;
+    }
+
+    private Transaction transaction(long id, Long parentId, double amount, String type, long createdAt) {
+        Transaction transaction = new Transaction();
+        transaction.setTransactionId(id);
+        transaction.setParentId(parentId);
+        transaction.setAmount(amount);
+        transaction.setTypeCode(typeRegistry.resolve(type));
+        transaction.setCreatedAt(createdAt);
+        return transaction;
+    }
+
+    private static List<Long> ids(List<Transaction> transactions) {
+        return transactions.stream().map(Transaction::getTransactionId).toList();
+    }
+}
@@ -0,0 +1,67 @@
+package com.mendel.mendel_challenge.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("Long Int Hash Index Tests")
+class LongIntHashIndexTest {
+
+    @Test
+    @DisplayName("Debe resolver claves que colisionan en el mismo bucket por sondeo lineal")
+    void testCollidingKeys_ProbeToTheirOwnValues() {
+        LongIntHashIndex index = new LongIntHashIndex(0);
+        List<Long> colliding = collidingKeys(8);
+        // at 16 slots every key starts its probe at the same bucket
+        for (int i = 0; i < 5; i++) {
+            index.put(colliding.get(i), i);
+        }
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(i, index.get(colliding.get(i)));
+        }
+        assertEquals(LongIntHashIndex.MISSING, index.get(colliding.get(7)));
+        index.put(colliding.get(2), 42);
+        assertEquals(42, index.get(colliding.get(2)));
+        assertEquals(5, index.size());
+    }
+
+    @Test
+    @DisplayName("Debe conservar todas las entradas al crecer varias veces")
+    void testResize_KeepsEveryEntry() {
+        LongIntHashIndex index = new LongIntHashIndex(16);
+        for (int i = 0; i < 100_000; i++) {
+            index.put(i * 7919L - 50_000, i);
+        }
+
+        assertEquals(100_000, index.size());
+        for (int i = 0; i < 100_000; i++) {
+            assertEquals(i, index.get(i * 7919L - 50_000));
+        }
+        assertEquals(LongIntHashIndex.MISSING, index.get(1L));
+        assertEquals(LongIntHashIndex.MISSING, index.get(Long.MIN_VALUE));
+    }
+
+    @Test
+    @DisplayName("Debe rechazar valores negativos, reservados para la ausencia")
+    void testPut_NegativeValue_Throws() {
+        LongIntHashIndex index = new LongIntHashIndex(16);
+        assertThrows(IllegalArgumentException.class, () -> index.put(1L, LongIntHashIndex.MISSING));
+    }
+
+    /** Keys whose probe starts at bucket 0 of a 16-slot table, found by trying ids in order. */
+    private static List<Long> collidingKeys(int count) {
+        List<Long> keys = new ArrayList<>();
+        for (long key = 0; keys.size() < count; key++) {
+            if ((LongIntHashIndex.mix(key) & 15) == 0) {
+                keys.add(key);
+            }
+        }
+        return keys;
+    }
+}
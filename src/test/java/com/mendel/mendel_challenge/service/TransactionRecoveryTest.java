@@ -0,0 +1,213 @@
+package com.mendel.mendel_challenge.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.AvailabilityState;
+import org.springframework.boot.availability.LivenessState;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.util.unit.DataSize;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mendel.mendel_challenge.config.BackgroundThreads;
+import com.mendel.mendel_challenge.controller.TransactionController;
+import com.mendel.mendel_challenge.exception.GlobalExceptionHandler;
+import com.mendel.mendel_challenge.exception.ServiceUnavailableException;
+import com.mendel.mendel_challenge.model.Transaction;
+import com.mendel.mendel_challenge.persistence.TransactionJournal;
+import com.mendel.mendel_challenge.repository.AmountScale;
+import com.mendel.mendel_challenge.repository.InMemoryTransactionRepository;
+import com.mendel.mendel_challenge.repository.TransactionRepository;
+import com.mendel.mendel_challenge.repository.TransactionTypeRegistry;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+
+@DisplayName("Transaction Recovery Tests")
+class TransactionRecoveryTest {
+
+    private final BlockingQueue<AvailabilityState> states = new LinkedBlockingQueue<>();
+
+    @Test
+    @DisplayName("Debe aceptar trafico cuando la recuperacion en segundo plano termina")
+    void testBackgroundRecovery_Succeeds_AcceptsTraffic() throws Exception {
+        TransactionServiceImpl transactionService = service(consumer -> { }, true);
+
+        transactionService.recover();
+
+        assertEquals(ReadinessState.ACCEPTING_TRAFFIC, states.poll(10, TimeUnit.SECONDS));
+        assertEquals(0, transactionService.getTransactionTypes().getTypes().size());
+    }
+
+    @Test
+    @DisplayName("Debe marcar la liveness como BROKEN si la recuperacion en segundo plano falla")
+    void testBackgroundRecovery_Fails_ReportsBroken() throws Exception {
+        TransactionServiceImpl transactionService = service(consumer -> {
+            throw new IllegalStateException("corrupt snapshot");
+        }, true);
+
+        transactionService.recover();
+
+        assertEquals(LivenessState.BROKEN, states.poll(10, TimeUnit.SECONDS));
+        assertThrows(ServiceUnavailableException.class, transactionService::getTransactionTypes);
+    }
+
+    @Test
+    @DisplayName("Debe responder 503 sin empezar el cuerpo al transmitir ids durante la recuperacion")
+    void testStreamIdsByType_WhileRecovering_Returns503() throws Exception {
+        CountDownLatch replayed = new CountDownLatch(1);
+        TransactionServiceImpl transactionService = service(consumer -> {
+            try {
+                replayed.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, true);
+        transactionService.recover();
+        MockMvc mockMvc = MockMvcBuilders
+            .standaloneSetup(new TransactionController(transactionService, null, null, new ObjectMapper()))
+            .setControllerAdvice(new GlobalExceptionHandler())
+            .build();
+        try {
+            mockMvc.perform(get("/transactions/types/DEBIT").param("stream", "true"))
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(jsonPath("$.transactionIds").doesNotExist());
+        } finally {
+            replayed.countDown();
+        }
+
+        assertEquals(ReadinessState.ACCEPTING_TRAFFIC, states.poll(10, TimeUnit.SECONDS));
+        mockMvc.perform(get("/transactions/types/DEBIT").param("stream", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.transactionIds").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Debe responder 503 sin empezar el cuerpo al ingerir en lote durante la recuperacion")
+    void testBulkIngest_WhileRecovering_Returns503() throws Exception {
+        CountDownLatch replayed = new CountDownLatch(1);
+        TransactionServiceImpl transactionService = service(consumer -> {
+            try {
+                replayed.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, true);
+        transactionService.recover();
+        try {
+            bulkMockMvc(transactionService).perform(post("/transactions/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"transactionId\":1,\"amount\":10.0,\"type\":\"DEBIT\"}]"))
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(jsonPath("$.results").doesNotExist());
+        } finally {
+            replayed.countDown();
+        }
+    }
+
+    @Test
+    @DisplayName("Debe dejar el cuerpo del lote truncado si un chunk falla a mitad del stream")
+    void testBulkIngest_ChunkFailsMidStream_TruncatesBody() throws Exception {
+        TransactionServiceImpl transactionService = service(consumer -> { }, false, 1);
+        transactionService.recover();
+
+        MvcResult result = bulkMockMvc(transactionService).perform(post("/transactions/bulk")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("[{\"transactionId\":1,\"amount\":10.0,\"type\":\"DEBIT\"},"
+                        + "{\"transactionId\":2,\"amount\":20.0,\"type\":\"DEBIT\"}]"))
+                .andReturn();
+
+        String body = result.getResponse().getContentAsString();
+        // the first chunk was streamed, and the array is never closed after the failed one
+        assertTrue(body.startsWith("{\"results\":[{\"index\":0,\"transactionId\":1,\"status\":\"ok\"}"), body);
+        assertFalse(body.contains("\"accepted\""), body);
+        assertThrows(JsonProcessingException.class, () -> new ObjectMapper().readTree(body));
+    }
+
+    @Test
+    @DisplayName("Debe hacer fallar el arranque si la recuperacion sincrona falla")
+    void testRecovery_Fails_FailsStartup() {
+        TransactionServiceImpl transactionService = service(consumer -> {
+            throw new IllegalStateException("corrupt snapshot");
+        }, false);
+
+        assertThrows(IllegalStateException.class, transactionService::recover);
+    }
+
+    /** Chunks of one item, so the second item of a batch runs in a second chunk. */
+    private MockMvc bulkMockMvc(TransactionService transactionService) {
+        ObjectMapper objectMapper = new ObjectMapper();
+        BulkTransactionIngester ingester = new BulkTransactionIngester(transactionService, objectMapper,
+            Validation.buildDefaultValidatorFactory().getValidator(), 1);
+        return MockMvcBuilders
+            .standaloneSetup(new TransactionController(transactionService, ingester, null, objectMapper))
+            .setControllerAdvice(new GlobalExceptionHandler())
+            .build();
+    }
+
+    private TransactionServiceImpl service(Consumer<Consumer<Transaction>> replay, boolean backgroundRecovery) {
+        return service(replay, backgroundRecovery, Integer.MAX_VALUE);
+    }
+
+    /** The journal fails every batch after the first {@code batchesBeforeFailure}. */
+    private TransactionServiceImpl service(Consumer<Consumer<Transaction>> replay, boolean backgroundRecovery,
+                                           int batchesBeforeFailure) {
+        AtomicInteger batches = new AtomicInteger();
+        TransactionTypeRegistry typeRegistry = new TransactionTypeRegistry();
+        TransactionRepository transactionRepository = new InMemoryTransactionRepository();
+        AmountScale amountScale = new AmountScale(false, 2);
+        TransactionMetrics transactionMetrics =
+            new TransactionMetrics(new SimpleMeterRegistry(), transactionRepository, typeRegistry);
+        TransactionJournal journal = new TransactionJournal() {
+            @Override
+            public void append(Transaction transaction, Runnable apply) {
+                apply.run();
+            }
+
+            @Override
+            public void appendAll(List<Transaction> transactions, Runnable apply) {
+                if (batches.getAndIncrement() >= batchesBeforeFailure) {
+                    throw new UncheckedIOException("Could not append transactions to journal",
+                        new IOException("No space left on device"));
+                }
+                apply.run();
+            }
+
+            @Override
+            public void replay(Consumer<Transaction> consumer) {
+                replay.accept(consumer);
+            }
+        };
+        return new TransactionServiceImpl(transactionRepository, typeRegistry, amountScale,
+            new SubtreeSumCalculator(transactionRepository, transactionMetrics, amountScale, false, 10_000, 0),
+            new SumCache(new SimpleMeterRegistry(), false, DataSize.ofMegabytes(1)),
+            journal, new TransactionChangeFeed(new SimpleMeterRegistry(), false, 1024, 64),
+            transactionMetrics, new BackgroundThreads(false),
+            event -> states.add(((AvailabilityChangeEvent<?>) event).getState()),
+            false, backgroundRecovery, 0);
+    }
+}